@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembling a large text by repeated concat, against StringBuilder as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CharSeqConcatBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int lines;
+
+    @Benchmark
+    public String charSeqConcat() {
+        CharSeq text = CharSeq.of("");
+        for (int i = 0; i < lines; i++) {
+            text = text.concat("line of the report ").concat(String.valueOf(i)).concat("\n");
+        }
+        return text.toString();
+    }
+
+    @Benchmark
+    public String plainStringBuilder() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append("line of the report ").append(i).append("\n");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a document against many keywords with CharSeqMatcher, against calling containsSubSeq for each keyword.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CharSeqMatcherBenchmark {
+
+    @Param({"10", "300"})
+    public int keywords;
+
+    private CharSeq document;
+    private Seq<CharSeq> patterns;
+    private CharSeqMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        MutableSeq<CharSeq> words = Seqs.newMutableSeq();
+        for (int i = 0; i < keywords; i++) {
+            words.appendInPlace(CharSeq.of(randomWord(random, 6 + random.nextInt(6))));
+        }
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 1 << 16) {
+            text.append(randomWord(random, 1 + random.nextInt(10))).append(' ');
+        }
+        document = CharSeq.of(text.toString());
+        patterns = words;
+        matcher = CharSeqMatcher.of(words);
+    }
+
+    private static String randomWord(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public boolean matcherContainsAny() {
+        return matcher.containsAny(document);
+    }
+
+    @Benchmark
+    public boolean containsSubSeqLoop() {
+        return patterns.any(document::containsSubSeq);
+    }
+
+    @Benchmark
+    public Seq<CharSeqMatcher.Match> matcherFindAll() {
+        return matcher.findAll(document);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching a pattern which only occurs near the end of a long text with CharSeq indexOfSubSeq and lastIndexOfSubSeq,
+ * for Latin-1 and CJK texts, against String.indexOf and String.lastIndexOf as the baselines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CharSeqSearchBenchmark {
+
+    @Param({"4", "32", "256"})
+    public int patternLength;
+
+    @Param({"latin", "cjk"})
+    public String alphabet;
+
+    private String string;
+    private String stringPattern;
+    private CharSeq charSeq;
+    private CharSeq charSeqPattern;
+
+    @Setup
+    public void setUp() {
+        int size = 1 << 20;
+        char base = alphabet.equals("latin") ? 'a' : '一';
+        Random random = new Random(42);
+        StringBuilder pattern = new StringBuilder(patternLength);
+        for (int i = 0; i < patternLength; i++) {
+            pattern.append((char) (base + random.nextInt(26)));
+        }
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < size - patternLength) {
+            // prefixes of the pattern keep the naive search busy
+            text.append(pattern, 0, random.nextInt(patternLength)).append((char) (base + 26 + random.nextInt(26)));
+        }
+        text.setLength(size - patternLength);
+        text.append(pattern);
+
+        string = text.toString();
+        stringPattern = pattern.toString();
+        charSeq = CharSeq.of(string);
+        charSeqPattern = CharSeq.of(stringPattern);
+    }
+
+    @Benchmark
+    public int charSeqIndexOfSubSeq() {
+        return charSeq.indexOfSubSeq(charSeqPattern);
+    }
+
+    @Benchmark
+    public int plainStringIndexOf() {
+        return string.indexOf(stringPattern);
+    }
+
+    @Benchmark
+    public int charSeqLastIndexOfSubSeq() {
+        return charSeq.lastIndexOfSubSeq(charSeqPattern);
+    }
+
+    @Benchmark
+    public int plainStringLastIndexOf() {
+        return string.lastIndexOf(stringPattern);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting text into fields and lines with CharSeq, against String.split as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CharSeqSplitBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int lines;
+
+    private String string;
+    private CharSeq charSeq;
+
+    @Setup
+    public void setUp() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append("field").append(i).append(",value").append(i * 31).append(",end\n");
+        }
+        string = text.toString();
+        charSeq = CharSeq.of(string);
+    }
+
+    @Benchmark
+    public Seq<CharSeq> charSeqSplit() {
+        return charSeq.split(",");
+    }
+
+    @Benchmark
+    public Seq<CharSeq> charSeqSplitChar() {
+        return charSeq.split(',');
+    }
+
+    @Benchmark
+    public Seq<CharSeq> charSeqSplitLiteral() {
+        return charSeq.splitLiteral(",");
+    }
+
+    @Benchmark
+    public int charSeqForEachSplit() {
+        int[] length = {0};
+        charSeq.forEachSplit(',', field -> length[0] += field.length());
+        return length[0];
+    }
+
+    @Benchmark
+    public String[] plainStringSplit() {
+        return string.split(",");
+    }
+
+    @Benchmark
+    public Seq<CharSeq> charSeqEachLine() {
+        return charSeq.eachLine();
+    }
+
+    @Benchmark
+    public int charSeqForEachLine() {
+        int[] length = {0};
+        charSeq.forEachLine(line -> length[0] += line.length());
+        return length[0];
+    }
+
+    @Benchmark
+    public String[] plainStringSplitLines() {
+        return string.split("\r?\n");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enumerating C(40, 5) combinations sequentially and on pools of increasing parallelism,
+ * to show how the parallel enumeration scales across cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CombinationBenchmark {
+    private static final int SIZE = 40;
+    private static final int N = 5;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long sequential() {
+        long[] sum = {0};
+        Combinations.forEach(SIZE, N, comb -> sum[0] += weight(comb));
+        return sum[0];
+    }
+
+    @Benchmark
+    public long parallel() {
+        LongAdder sum = new LongAdder();
+        Combinations.parallelForEach(pool, SIZE, N, (comb, rank) -> sum.add(weight(comb)));
+        return sum.sum();
+    }
+
+    private static long weight(int[] comb) {
+        long weight = 1;
+        for (int i : comb) {
+            weight = weight * 31 + i;
+        }
+        return weight;
+    }
+}
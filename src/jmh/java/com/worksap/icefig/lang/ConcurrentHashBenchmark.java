@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-mostly workload (one put in five operations) on a hash shared by all the benchmark threads:
+ * the concurrent hash against a HashImpl guarded by a single lock, at 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ConcurrentHashBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private MutableHash<Integer, Integer> concurrent;
+    private MutableHash<Integer, Integer> locked;
+
+    @Setup
+    public void setUp() {
+        concurrent = Hashes.newConcurrentHash();
+        locked = Hashes.newMutableHash();
+        for (int i = 0; i < size; i++) {
+            concurrent.putInPlace(i, i);
+            locked.putInPlace(i, i);
+        }
+    }
+
+    private Integer concurrentOp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = random.nextInt(size);
+        if (random.nextInt(5) == 0) {
+            concurrent.putInPlace(key, key);
+            return key;
+        }
+        return concurrent.get(key);
+    }
+
+    private Integer lockedOp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = random.nextInt(size);
+        synchronized (locked) {
+            if (random.nextInt(5) == 0) {
+                locked.putInPlace(key, key);
+                return key;
+            }
+            return locked.get(key);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer concurrent01() {
+        return concurrentOp();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer concurrent04() {
+        return concurrentOp();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer concurrent16() {
+        return concurrentOp();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Integer concurrent64() {
+        return concurrentOp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer synchronized01() {
+        return lockedOp();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer synchronized04() {
+        return lockedOp();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer synchronized16() {
+        return lockedOp();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Integer synchronized64() {
+        return lockedOp();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visiting every combination of 3 elements with the different forEachCombination flavours,
+ * against hand-written nested loops building an ArrayList per combination.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ForEachCombinationBenchmark {
+
+    @Param({"10", "30", "60"})
+    public int size;
+
+    private Seq<Integer> seq;
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        seq = Seqs.newSeq(list);
+    }
+
+    @Benchmark
+    public int forEachCombination() {
+        int[] sum = {0};
+        seq.forEachCombination(3, c -> sum[0] += c.get(2));
+        return sum[0];
+    }
+
+    @Benchmark
+    public int forEachCombinationView() {
+        int[] sum = {0};
+        seq.forEachCombinationView(3, c -> sum[0] += c.get(2));
+        return sum[0];
+    }
+
+    @Benchmark
+    public int forEachCombinationIndices() {
+        int[] sum = {0};
+        seq.forEachCombinationIndices(3, c -> sum[0] += seq.get(c[2]));
+        return sum[0];
+    }
+
+    @Benchmark
+    public int plainNestedLoops() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                for (int k = j + 1; k < size; k++) {
+                    List<Integer> combination = new ArrayList<>(3);
+                    combination.add(list.get(i));
+                    combination.add(list.get(j));
+                    combination.add(list.get(k));
+                    sum += combination.get(2);
+                }
+            }
+        }
+        return sum;
+    }
+}
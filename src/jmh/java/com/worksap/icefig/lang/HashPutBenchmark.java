@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a hash one entry at a time through the copying put, against the in-place put of MutableHash,
+ * the primitive hashes and plain HashMap puts as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class HashPutBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Benchmark
+    public Hash<Integer, Integer> persistentPut() {
+        Hash<Integer, Integer> hash = Hashes.newHash();
+        for (int i = 0; i < size; i++) {
+            hash = hash.put(i, i);
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public Hash<Integer, Integer> mutablePutInPlace() {
+        MutableHash<Integer, Integer> hash = Hashes.newMutableHash();
+        for (int i = 0; i < size; i++) {
+            hash.putInPlace(i, i);
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public MutableIntObjHash<Integer> primitiveKeyPutInPlace() {
+        MutableIntObjHash<Integer> hash = Hashes.newMutableIntObjHash();
+        for (int i = 0; i < size; i++) {
+            hash.putInPlace(i, i);
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public MutableLongLongHash primitivePutInPlace() {
+        MutableLongLongHash hash = Hashes.newMutableLongLongHash();
+        for (int i = 0; i < size; i++) {
+            hash.putInPlace(i, i);
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> plainHashMapPut() {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eager operation chains, which build a seq per operation, against the same chains fused by {@link Seq#lazy()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class LazySeqBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private MutableSeq<Integer> seq;
+
+    @Setup
+    public void setUp() {
+        seq = Seqs.newMutableSeq();
+        for (int i = 0; i < size; i++) {
+            seq.appendInPlace(i % (size / 2));
+        }
+    }
+
+    @Benchmark
+    public CharSeq eagerMapDistinctReverseJoin() {
+        return seq.map(a -> a + 1).distinct().reverse().join();
+    }
+
+    @Benchmark
+    public CharSeq lazyMapDistinctReverseJoin() {
+        return seq.lazy().map(a -> a + 1).distinct().reverse().join();
+    }
+
+    @Benchmark
+    public Integer eagerFilterMapReduce() {
+        return seq.filter(a -> a % 3 == 0).map(a -> a * 2).reject(a -> a % 4 == 0).reduce(Integer::sum);
+    }
+
+    @Benchmark
+    public Integer lazyFilterMapReduce() {
+        return seq.lazy().filter(a -> a % 3 == 0).map(a -> a * 2).reject(a -> a % 4 == 0).reduce(Integer::sum);
+    }
+
+    @Benchmark
+    public Integer eagerMapFindFirst() {
+        return seq.map(a -> a * 2).findFirst(a -> a > 100);
+    }
+
+    @Benchmark
+    public Integer lazyMapFindFirst() {
+        return seq.lazy().map(a -> a * 2).findFirst(a -> a > 100);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk operations over a large hash, sequentially and through {@link Hash#par(ForkJoinPool)}
+ * with pools of increasing parallelism, to show how they scale.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ParHashBenchmark {
+
+    @Param({"100000", "2000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private MutableHash<Integer, Double> hash;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        hash = Hashes.newMutableHash();
+        for (int i = 0; i < size; i++) {
+            hash.putInPlace(i, (double) i);
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static boolean matches(double x) {
+        return Math.sqrt(x) * Math.log1p(x) % 7 < 3;
+    }
+
+    @Benchmark
+    public int sequentialCountIf() {
+        return hash.countIf((k, v) -> matches(v));
+    }
+
+    @Benchmark
+    public int parallelCountIf() {
+        return hash.par(pool).countIf((k, v) -> matches(v));
+    }
+
+    @Benchmark
+    public Hash<Integer, Double> sequentialFilter() {
+        return hash.filter((k, v) -> matches(v));
+    }
+
+    @Benchmark
+    public Hash<Integer, Double> parallelFilter() {
+        return hash.par(pool).filter((k, v) -> matches(v));
+    }
+}
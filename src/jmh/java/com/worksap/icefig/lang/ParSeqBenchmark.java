@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU-bound scoring over a seq, sequentially and through {@link Seq#par()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ParSeqBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Seq<Double> seq;
+
+    @Setup
+    public void setUp() {
+        MutableSeq<Double> values = Seqs.newMutableSeq();
+        for (int i = 0; i < size; i++) {
+            values.appendInPlace((double) i);
+        }
+        seq = Seqs.newSeq(values.toArrayList());
+    }
+
+    private static double score(double x) {
+        return Math.sqrt(x) * Math.log1p(x) + Math.sin(x);
+    }
+
+    @Benchmark
+    public Seq<Double> sequentialMap() {
+        return seq.map(ParSeqBenchmark::score);
+    }
+
+    @Benchmark
+    public Seq<Double> parallelMap() {
+        return seq.par().map(ParSeqBenchmark::score);
+    }
+
+    @Benchmark
+    public Seq<Double> sequentialFilter() {
+        return seq.filter(x -> score(x) > 100);
+    }
+
+    @Benchmark
+    public Seq<Double> parallelFilter() {
+        return seq.par().filter(x -> score(x) > 100);
+    }
+
+    @Benchmark
+    public Double sequentialReduce() {
+        return seq.reduce((a, b) -> a + score(b));
+    }
+
+    @Benchmark
+    public Double parallelReduce() {
+        return seq.par().map(ParSeqBenchmark::score).reduce(Double::sum);
+    }
+
+    @Benchmark
+    public int sequentialCountIf() {
+        return seq.countIf(x -> score(x) > 100);
+    }
+
+    @Benchmark
+    public int parallelCountIf() {
+        return seq.par().countIf(x -> score(x) > 100);
+    }
+}
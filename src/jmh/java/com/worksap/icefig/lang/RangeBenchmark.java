@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterating a range of Integers, against a plain for loop producing the same boxed values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RangeBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private Range<Integer> range;
+
+    @Setup
+    public void setUp() {
+        range = new Range<>(0, size - 1, i -> i + 1);
+    }
+
+    @Benchmark
+    public void rangeForEach(Blackhole blackhole) {
+        range.forEach(i -> blackhole.consume(i));
+    }
+
+    @Benchmark
+    public void rangeForEachIndexed(Blackhole blackhole) {
+        range.forEach((i, index) -> blackhole.consume(i));
+    }
+
+    @Benchmark
+    public Seq<Integer> rangeToSeq() {
+        return range.toSeq();
+    }
+
+    @Benchmark
+    public void plainForLoop(Blackhole blackhole) {
+        for (Integer i = 0; i <= size - 1; i = i + 1) {
+            blackhole.consume(i);
+        }
+    }
+}
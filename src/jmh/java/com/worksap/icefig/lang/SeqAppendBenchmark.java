@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a seq one element at a time through the copying (non in-place) methods,
+ * comparing the persistent Seq with the ArrayList backed MutableSeq, and with plain ArrayList adds as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SeqAppendBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Benchmark
+    public Seq<Integer> persistentAppend() {
+        Seq<Integer> seq = Seqs.newSeq();
+        for (int i = 0; i < size; i++) {
+            seq = seq.append(i);
+        }
+        return seq;
+    }
+
+    @Benchmark
+    public Seq<Integer> arrayListAppend() {
+        Seq<Integer> seq = Seqs.newMutableSeq();
+        for (int i = 0; i < size; i++) {
+            seq = seq.append(i);
+        }
+        return seq;
+    }
+
+    @Benchmark
+    public List<Integer> plainArrayListAdd() {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Seq<Integer> persistentPrepend() {
+        Seq<Integer> seq = Seqs.newSeq();
+        for (int i = 0; i < size; i++) {
+            seq = seq.prepend(i);
+        }
+        return seq;
+    }
+
+    @Benchmark
+    public Seq<Integer> arrayListPrepend() {
+        Seq<Integer> seq = Seqs.newMutableSeq();
+        for (int i = 0; i < size; i++) {
+            seq = seq.prepend(i);
+        }
+        return seq;
+    }
+
+    @Benchmark
+    public List<Integer> plainArrayListAddFirst() {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(0, i);
+        }
+        return list;
+    }
+}
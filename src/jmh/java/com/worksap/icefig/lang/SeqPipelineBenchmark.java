@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A map/filter/distinct pipeline over seqs, against the same steps hand-written over ArrayList.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SeqPipelineBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private Seq<Integer> seq;
+    private MutableSeq<Integer> mutableSeq;
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i % (size / 4 + 1));
+        }
+        seq = Seqs.newSeq(list);
+        mutableSeq = Seqs.newMutableSeq(list);
+    }
+
+    @Benchmark
+    public Seq<Integer> persistentSeq() {
+        return seq.map(i -> i * 3).filter(i -> i % 2 == 0).distinct();
+    }
+
+    @Benchmark
+    public Seq<Integer> mutableSeq() {
+        return mutableSeq.map(i -> i * 3).filter(i -> i % 2 == 0).distinct();
+    }
+
+    @Benchmark
+    public Seq<Integer> lazySeq() {
+        return seq.lazy().map(i -> i * 3).filter(i -> i % 2 == 0).distinct().toSeq();
+    }
+
+    @Benchmark
+    public List<Integer> plainArrayList() {
+        List<Integer> mapped = new ArrayList<>(list.size());
+        for (Integer i : list) {
+            mapped.add(i * 3);
+        }
+        List<Integer> filtered = new ArrayList<>();
+        for (Integer i : mapped) {
+            if (i % 2 == 0) {
+                filtered.add(i);
+            }
+        }
+        return new ArrayList<>(new LinkedHashSet<>(filtered));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching a pattern which only occurs at the end of the text, with Seq and CharSeq indexOfSubSeq and a precompiled SubSeqSearcher,
+ * against Collections.indexOfSubList and String.indexOf as the baselines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SubSeqSearchBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"4", "64"})
+    public int patternLength;
+
+    private Seq<Integer> seq;
+    private Seq<Integer> seqPattern;
+    private SubSeqSearcher<Integer> searcher;
+    private List<Integer> list;
+    private List<Integer> listPattern;
+    private String string;
+    private String stringPattern;
+    private CharSeq charSeq;
+    private CharSeq charSeqPattern;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(size);
+        StringBuilder text = new StringBuilder(size);
+        for (int i = 0; i < size - patternLength; i++) {
+            list.add(i % 7);
+            text.append((char) ('a' + i % 7));
+        }
+        listPattern = new ArrayList<>(patternLength);
+        StringBuilder pattern = new StringBuilder(patternLength);
+        for (int i = 0; i < patternLength; i++) {
+            listPattern.add(i % 5);
+            pattern.append((char) ('a' + i % 5));
+        }
+        list.addAll(listPattern);
+        text.append(pattern);
+
+        seq = Seqs.newSeq(list);
+        seqPattern = Seqs.newSeq(listPattern);
+        searcher = SubSeqSearcher.of(seqPattern);
+        string = text.toString();
+        stringPattern = pattern.toString();
+        charSeq = CharSeq.of(string);
+        charSeqPattern = CharSeq.of(stringPattern);
+    }
+
+    @Benchmark
+    public int seqIndexOfSubSeq() {
+        return seq.indexOfSubSeq(seqPattern);
+    }
+
+    @Benchmark
+    public int precompiledSubSeqSearcher() {
+        return searcher.indexIn(seq);
+    }
+
+    @Benchmark
+    public int plainIndexOfSubList() {
+        return Collections.indexOfSubList(list, listPattern);
+    }
+
+    @Benchmark
+    public int charSeqIndexOfSubSeq() {
+        return charSeq.indexOfSubSeq(charSeqPattern);
+    }
+
+    @Benchmark
+    public int plainStringIndexOf() {
+        return string.indexOf(stringPattern);
+    }
+}
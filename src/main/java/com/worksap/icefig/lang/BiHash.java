@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * A {@link MutableHash} which also maintains the reverse index from each value to the keys mapped to it.
+ * The index is updated by each in-place method, so that {@link #keysOf(Object)} does not scan the entries.
+ * The copying methods return new BiHashes with their own index.
+ */
+public interface BiHash<K, V> extends MutableHash<K, V> {
+    /**
+     * Look the keys up in the reverse index. The seq is shared between calls until the keys of the value change,
+     * so repeated calls take O(1).
+     *
+     * @return the keys mapped to the value, in the order they were put
+     */
+    @Override
+    Seq<K> keysOf(V v);
+
+    /**
+     * Unlike {@link #invert()}, which keeps one key of each value, no key is lost.
+     *
+     * @return a read-only view from each value to the keys mapped to it, which reflects the later changes of this hash
+     */
+    Hash<V, Seq<K>> inverse();
+
+    @Override
+    BiHash<K, V> put(K k, V v);
+
+    @Override
+    BiHash<K, V> putIfAbsent(K k, V v);
+
+    @Override
+    BiHash<K, V> filter(BiPredicate<K, V> condition);
+
+    @Override
+    BiHash<K, V> reject(BiPredicate<K, V> condition);
+
+    @Override
+    BiHash<K, V> merge(Hash<? extends K, ? extends V> another);
+
+    @Override
+    BiHash<K, V> remove(K k);
+
+    @Override
+    BiHash<K, V> remove(K k, V v);
+
+    @Override
+    BiHash<K, V> replace(K k, V v);
+
+    @Override
+    BiHash<K, V> replace(K k, V oldValue, V newValue);
+
+    @Override
+    BiHash<K, V> replaceAll(BiFunction<? super K, ? super V, ? extends V> function);
+
+    @Override
+    BiHash<K, V> putInPlace(K k, V v);
+
+    @Override
+    BiHash<K, V> putIfAbsentInPlace(K k, V v);
+
+    @Override
+    BiHash<K, V> removeInPlace(K k);
+
+    @Override
+    BiHash<K, V> removeInPlace(K k, V v);
+
+    @Override
+    BiHash<K, V> filterInPlace(BiPredicate<K, V> condition);
+
+    @Override
+    BiHash<K, V> rejectInPlace(BiPredicate<K, V> condition);
+
+    @Override
+    BiHash<K, V> mergeInPlace(Hash<? extends K, ? extends V> another);
+
+    @Override
+    BiHash<K, V> clear();
+
+    @Override
+    BiHash<K, V> replaceInPlace(K k, V v);
+
+    @Override
+    BiHash<K, V> replaceInPlace(K k, V oldValue, V newValue);
+
+    @Override
+    BiHash<K, V> replaceAllInPlace(BiFunction<? super K, ? super V, ? extends V> function);
+}
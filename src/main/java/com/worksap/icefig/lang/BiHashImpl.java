@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * The implementation of BiHash. The in-place methods of HashImpl are wrapped to keep the reverse index in step,
+ * and the copying methods copy the hash and then apply the in-place method.
+ */
+final class BiHashImpl<K, V> extends HashImpl<K, V> implements BiHash<K, V> {
+    private final Map<V, Bucket<K>> index = new HashMap<>();
+
+    BiHashImpl() {
+        super();
+    }
+
+    BiHashImpl(Map<? extends K, ? extends V> m) {
+        super(m);
+        reindex();
+    }
+
+    /**
+     * The keys of a value. The list handed out by {@link #seq()} is never changed: a change of the keys drops it,
+     * and the next call creates another one.
+     */
+    private static final class Bucket<K> {
+        private final Set<K> keys = new LinkedHashSet<>();
+        private List<K> snapshot;
+
+        void add(K k) {
+            if (keys.add(k)) {
+                snapshot = null;
+            }
+        }
+
+        void remove(K k) {
+            if (keys.remove(k)) {
+                snapshot = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        Seq<K> seq() {
+            if (snapshot == null) {
+                snapshot = new ArrayList<>(keys);
+            }
+            return SeqImpl.view(snapshot);
+        }
+    }
+
+    private void index(K k, V v) {
+        index.computeIfAbsent(v, value -> new Bucket<>()).add(k);
+    }
+
+    private void unindex(K k, V v) {
+        Bucket<K> bucket = index.get(v);
+        bucket.remove(k);
+        if (bucket.isEmpty()) {
+            index.remove(v);
+        }
+    }
+
+    private void reindex() {
+        index.clear();
+        map().forEach(this::index);
+    }
+
+    private BiHashImpl<K, V> copy() {
+        return new BiHashImpl<>(map());
+    }
+
+    @Override
+    public Seq<K> keysOf(V v) {
+        Bucket<K> bucket = index.get(v);
+        return bucket == null ? Seqs.newSeq() : bucket.seq();
+    }
+
+    @Override
+    public boolean containsValue(V v) {
+        return index.containsKey(v);
+    }
+
+    @Override
+    public int count(V value) {
+        Bucket<K> bucket = index.get(value);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    @Override
+    public Hash<V, Seq<K>> inverse() {
+        return new Inverse(new InverseMap());
+    }
+
+    /**
+     * A hash over the reverse index. Its in-place methods fail, as the map view does not support changes.
+     */
+    private final class Inverse extends HashImpl<V, Seq<K>> {
+        Inverse(Map<V, Seq<K>> map) {
+            super(map, false);
+        }
+
+        @Override
+        int version() {
+            return BiHashImpl.this.version();
+        }
+    }
+
+    private final class InverseMap extends AbstractMap<V, Seq<K>> {
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public Seq<K> get(Object key) {
+            Bucket<K> bucket = index.get(key);
+            return bucket == null ? null : bucket.seq();
+        }
+
+        @Override
+        public Set<Map.Entry<V, Seq<K>>> entrySet() {
+            return new AbstractSet<Map.Entry<V, Seq<K>>>() {
+                @Override
+                public Iterator<Map.Entry<V, Seq<K>>> iterator() {
+                    Iterator<Map.Entry<V, Bucket<K>>> each = index.entrySet().iterator();
+                    return new Iterator<Map.Entry<V, Seq<K>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return each.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<V, Seq<K>> next() {
+                            Map.Entry<V, Bucket<K>> entry = each.next();
+                            return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().seq());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+            };
+        }
+    }
+
+    @Override
+    public BiHash<K, V> putInPlace(K k, V v) {
+        Map<K, V> map = map();
+        if (map.containsKey(k)) {
+            V old = map.get(k);
+            super.putInPlace(k, v);
+            if (Objects.equals(old, v)) {
+                return this;
+            }
+            unindex(k, old);
+        } else {
+            super.putInPlace(k, v);
+        }
+        index(k, v);
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> putIfAbsentInPlace(K k, V v) {
+        if (get(k) == null) {
+            putInPlace(k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> removeInPlace(K k) {
+        Map<K, V> map = map();
+        if (map.containsKey(k)) {
+            unindex(k, map.get(k));
+            super.removeInPlace(k);
+        }
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> removeInPlace(K k, V v) {
+        Map<K, V> map = map();
+        if (map.containsKey(k) && Objects.equals(map.get(k), v)) {
+            unindex(k, v);
+            super.removeInPlace(k);
+        }
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> filterInPlace(BiPredicate<K, V> condition) {
+        super.filterInPlace(condition);
+        reindex();
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> rejectInPlace(BiPredicate<K, V> condition) {
+        super.rejectInPlace(condition);
+        reindex();
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> mergeInPlace(Hash<? extends K, ? extends V> another) {
+        if (another instanceof HashImpl) {
+            ((HashImpl<? extends K, ? extends V>) another).map().forEach(this::putInPlace);
+        } else if (another != null) {
+            another.entrySeq().forEach(entry -> putInPlace(entry.getKey(), entry.getValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> clear() {
+        super.clear();
+        index.clear();
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> replaceInPlace(K k, V v) {
+        if (containsKey(k)) {
+            putInPlace(k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> replaceInPlace(K k, V oldValue, V newValue) {
+        if (containsKey(k) && Objects.equals(get(k), oldValue)) {
+            putInPlace(k, newValue);
+        }
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> replaceAllInPlace(BiFunction<? super K, ? super V, ? extends V> function) {
+        super.replaceAllInPlace(function);
+        reindex();
+        return this;
+    }
+
+    @Override
+    public BiHash<K, V> put(K k, V v) {
+        return copy().putInPlace(k, v);
+    }
+
+    @Override
+    public BiHash<K, V> putIfAbsent(K k, V v) {
+        return copy().putIfAbsentInPlace(k, v);
+    }
+
+    @Override
+    public BiHash<K, V> filter(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return copy().filterInPlace(condition);
+    }
+
+    @Override
+    public BiHash<K, V> reject(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return copy().rejectInPlace(condition);
+    }
+
+    @Override
+    public BiHash<K, V> merge(Hash<? extends K, ? extends V> another) {
+        return copy().mergeInPlace(another);
+    }
+
+    @Override
+    public BiHash<K, V> remove(K k) {
+        return copy().removeInPlace(k);
+    }
+
+    @Override
+    public BiHash<K, V> remove(K k, V v) {
+        return copy().removeInPlace(k, v);
+    }
+
+    @Override
+    public BiHash<K, V> replace(K k, V v) {
+        return copy().replaceInPlace(k, v);
+    }
+
+    @Override
+    public BiHash<K, V> replace(K k, V oldValue, V newValue) {
+        return copy().replaceInPlace(k, oldValue, newValue);
+    }
+
+    @Override
+    public BiHash<K, V> replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        return copy().replaceAllInPlace(function);
+    }
+}
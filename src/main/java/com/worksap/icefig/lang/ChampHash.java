@@ -0,0 +1,849 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * The persistent implementation of Hash, based on a compressed hash-array mapped prefix-tree (CHAMP).
+ * <p>
+ * Each node consumes 5 bits of the key's hash code. Key-value pairs are stored inline in the node and
+ * sub-nodes are stored at the end of the same array, so put and remove copy only the nodes on the path
+ * to the key, and all the other nodes are shared with the original hash.
+ * </p>
+ */
+final class ChampHash<K, V> implements Hash<K, V> {
+
+    private static final ChampHash<?, ?> EMPTY = new ChampHash<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private ChampHash(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> ChampHash<K, V> empty() {
+        return (ChampHash<K, V>) EMPTY;
+    }
+
+    static <K, V> ChampHash<K, V> of(Map<? extends K, ? extends V> map) {
+        ChampHash<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsAny(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return !forEachWhile((k, v) -> !condition.test(k, v));
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return root.find(key, hash(key), 0) != Node.NOT_FOUND;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return containsAny((k, v) -> Objects.equals(v, value));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K k) {
+        Object value = root.find(k, hash(k), 0);
+        return value == Node.NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public Seq<V> values() {
+        return SeqImpl.view(new View<V>() {
+            @Override
+            Object element(K k, V v) {
+                return v;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return containsValue((V) o);
+            }
+        });
+    }
+
+    @Override
+    public Seq<K> keys() {
+        return SeqImpl.view(new View<K>() {
+            @Override
+            Object element(K k, V v) {
+                return k;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return containsKey((K) o);
+            }
+        });
+    }
+
+    @Override
+    public Seq<Map.Entry<K, V>> entrySeq() {
+        return SeqImpl.view(new View<Map.Entry<K, V>>() {
+            @Override
+            Object element(K k, V v) {
+                return new AbstractMap.SimpleImmutableEntry<>(k, v);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                Object value = root.find(entry.getKey(), hash(entry.getKey()), 0);
+                return value != Node.NOT_FOUND && Objects.equals(value, entry.getValue());
+            }
+        });
+    }
+
+    /**
+     * Read-only list over the entries, created in O(1). The hash never changes, so the elements are copied
+     * out of the trie only once, at the first access by index, and every later access reads that copy.
+     */
+    private abstract class View<E> extends AbstractList<E> implements RandomAccess {
+        private volatile Object[] elements;
+
+        abstract Object element(K k, V v);
+
+        private Object[] elements() {
+            Object[] current = elements;
+            if (current == null) {
+                Object[] copy = new Object[size];
+                int[] index = {0};
+                ChampHash.this.forEach((k, v) -> copy[index[0]++] = element(k, v));
+                current = copy;
+                elements = current;
+            }
+            return current;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            return (E) elements()[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return elements().clone();
+        }
+    }
+
+    @Override
+    public ChampHash<K, V> put(K k, V v) {
+        Change change = new Change();
+        Node newRoot = root.updated(k, v, hash(k), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new ChampHash<>(newRoot, change.replaced ? size : size + 1);
+    }
+
+    @Override
+    public ChampHash<K, V> putIfAbsent(K k, V v) {
+        return get(k) == null ? put(k, v) : this;
+    }
+
+    @Override
+    public ChampHash<K, V> filter(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return reject(condition.negate());
+    }
+
+    @Override
+    public ChampHash<K, V> reject(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        ChampHash<K, V>[] result = holder(this);
+        forEach((k, v) -> {
+            if (condition.test(k, v)) {
+                result[0] = result[0].remove(k);
+            }
+        });
+        return result[0];
+    }
+
+    @Override
+    public ChampHash<V, K> invert() {
+        ChampHash<V, K>[] result = holder(empty());
+        forEach((k, v) -> result[0] = result[0].put(v, k));
+        return result[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ChampHash<K, V> merge(Hash<? extends K, ? extends V> another) {
+        if (another == null || another.isEmpty()) {
+            return this;
+        }
+        if (isEmpty() && another instanceof ChampHash) {
+            return (ChampHash<K, V>) another;
+        }
+        ChampHash<K, V>[] result = holder(this);
+        Hashes.forEach(another, (k, v) -> result[0] = result[0].put(k, v));
+        return result[0];
+    }
+
+    @Override
+    public ChampHash<K, V> remove(K key) {
+        Change change = new Change();
+        Node newRoot = root.removed(key, hash(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new ChampHash<>(newRoot, size - 1);
+    }
+
+    @Override
+    public ChampHash<K, V> remove(K key, V value) {
+        Object current = root.find(key, hash(key), 0);
+        return current != Node.NOT_FOUND && Objects.equals(current, value) ? remove(key) : this;
+    }
+
+    @Override
+    public Seq<K> keysOf(V value) {
+        List<K> keys = new ArrayList<>();
+        forEach((k, v) -> {
+            if (Objects.equals(v, value))
+                keys.add(k);
+        });
+        return VectorSeq.of(keys);
+    }
+
+    @Override
+    public ChampHash<K, V> replace(K key, V value) {
+        return containsKey(key) ? put(key, value) : this;
+    }
+
+    @Override
+    public ChampHash<K, V> replace(K key, V oldValue, V newValue) {
+        Object current = root.find(key, hash(key), 0);
+        return current != Node.NOT_FOUND && Objects.equals(current, oldValue) ? put(key, newValue) : this;
+    }
+
+    @Override
+    public ChampHash<K, V> replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        ChampHash<K, V>[] result = holder(this);
+        forEach((k, v) -> result[0] = result[0].put(k, function.apply(k, v)));
+        return result[0];
+    }
+
+    @Override
+    public int count(V value) {
+        return countIf((k, v) -> Objects.equals(v, value));
+    }
+
+    @Override
+    public int countIf(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        int[] count = {0};
+        forEach((k, v) -> {
+            if (condition.test(k, v))
+                count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * @return a spliterator over the entries which splits by the sub-nodes of the trie,
+     * so that the entries are never copied out of the trie before the split
+     */
+    Spliterator<Map.Entry<K, V>> spliterator() {
+        ArrayDeque<Node> nodes = new ArrayDeque<>();
+        nodes.add(root);
+        return new EntrySpliterator<>(nodes, size);
+    }
+
+    /**
+     * Visits the pairs inline in the current node one by one, and each pending node with its whole sub-trie.
+     * The sub-nodes of the current node are pending, so a split hands over half of the pending nodes.
+     */
+    private static final class EntrySpliterator<K, V> implements Spliterator<Map.Entry<K, V>> {
+        private final ArrayDeque<Node> pending;
+        private Node current;
+        private int index;
+        private long estimate;
+
+        EntrySpliterator(ArrayDeque<Node> pending, long estimate) {
+            this.pending = pending;
+            this.estimate = estimate;
+        }
+
+        private boolean nextNode() {
+            current = pending.poll();
+            index = 0;
+            if (current == null) {
+                return false;
+            }
+            for (int i = 0; i < current.nodeArity(); i++) {
+                pending.add(current.subNode(i));
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K, V> Map.Entry<K, V> entry(Object key, Object value) {
+            return new AbstractMap.SimpleImmutableEntry<>((K) key, (V) value);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action) {
+            Objects.requireNonNull(action);
+            while (current == null || index == current.payloadArity()) {
+                if (!nextNode()) {
+                    return false;
+                }
+            }
+            action.accept(entry(current.keyAt(index), current.valueAt(index)));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action) {
+            Objects.requireNonNull(action);
+            if (current != null) {
+                for (; index < current.payloadArity(); index++) {
+                    action.accept(entry(current.keyAt(index), current.valueAt(index)));
+                }
+                current = null;
+            }
+            for (Node node = pending.poll(); node != null; node = pending.poll()) {
+                node.forEachWhile((k, v) -> {
+                    action.accept(entry(k, v));
+                    return true;
+                });
+            }
+        }
+
+        @Override
+        public Spliterator<Map.Entry<K, V>> trySplit() {
+            if (current == null && !nextNode()) {
+                return null;
+            }
+            int half = (pending.size() + 1) / 2;
+            if (half == 0) {
+                return null;
+            }
+            ArrayDeque<Node> prefix = new ArrayDeque<>();
+            for (int i = 0; i < half; i++) {
+                prefix.add(pending.poll());
+            }
+            estimate >>>= 1;
+            return new EntrySpliterator<>(prefix, estimate);
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
+    }
+
+    /**
+     * A one-element array, so that the lambdas passed to forEach can replace the hash being built.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> ChampHash<K, V>[] holder(ChampHash<K, V> hash) {
+        return (ChampHash<K, V>[]) new ChampHash<?, ?>[]{hash};
+    }
+
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        forEachWhile((k, v) -> {
+            action.accept(k, v);
+            return true;
+        });
+    }
+
+    /**
+     * Iterate the entries until the action returns false.
+     *
+     * @return false if the iteration is stopped by the action, otherwise true
+     */
+    @SuppressWarnings("unchecked")
+    boolean forEachWhile(BiPredicate<? super K, ? super V> action) {
+        return root.forEachWhile((BiPredicate<Object, Object>) action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Hashes.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hashCode = {0};
+        forEach((k, v) -> hashCode[0] += Objects.hashCode(k) ^ Objects.hashCode(v));
+        return hashCode[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (builder.length() > 1)
+                builder.append(", ");
+            builder.append(k).append('=').append(v);
+        });
+        return builder.append('}').toString();
+    }
+
+    private static int hash(Object key) {
+        return Objects.hashCode(key);
+    }
+
+    /**
+     * Records the effect of an update so that the hash can maintain its size.
+     */
+    private static final class Change {
+        boolean replaced;
+    }
+
+    private static abstract class Node {
+        static final Object NOT_FOUND = new Object();
+
+        static final int BITS = 5;
+        static final int MASK = (1 << BITS) - 1;
+        static final int HASH_BITS = 32;
+
+        /**
+         * @return the value of the key, or NOT_FOUND if absent
+         */
+        abstract Object find(Object key, int hash, int shift);
+
+        /**
+         * @return this node if nothing changed, otherwise the updated copy
+         */
+        abstract Node updated(Object key, Object value, int hash, int shift, Change change);
+
+        /**
+         * @return this node if the key is absent, otherwise the copy without the key
+         */
+        abstract Node removed(Object key, int hash, int shift, Change change);
+
+        abstract boolean forEachWhile(BiPredicate<Object, Object> action);
+
+        /**
+         * @return whether this node holds exactly one key-value pair and no sub-node,
+         * so that the parent can inline it
+         */
+        abstract boolean isSingleton();
+
+        abstract Object singleKey();
+
+        abstract Object singleValue();
+
+        /**
+         * @return the number of key-value pairs held inline in this node
+         */
+        abstract int payloadArity();
+
+        /**
+         * @return the number of sub-nodes of this node
+         */
+        abstract int nodeArity();
+
+        abstract Object keyAt(int index);
+
+        abstract Object valueAt(int index);
+
+        abstract Node subNode(int index);
+
+        static int mask(int hash, int shift) {
+            return (hash >>> shift) & MASK;
+        }
+
+        static int bitpos(int mask) {
+            return 1 << mask;
+        }
+
+        static Node mergeTwo(Object key0, Object value0, int hash0,
+                             Object key1, Object value1, int hash1, int shift) {
+            if (shift >= HASH_BITS) {
+                return new CollisionNode(hash0, new Object[]{key0, value0, key1, value1});
+            }
+            int mask0 = mask(hash0, shift);
+            int mask1 = mask(hash1, shift);
+            if (mask0 != mask1) {
+                int dataMap = bitpos(mask0) | bitpos(mask1);
+                return mask0 < mask1
+                        ? new BitmapNode(dataMap, 0, new Object[]{key0, value0, key1, value1})
+                        : new BitmapNode(dataMap, 0, new Object[]{key1, value1, key0, value0});
+            }
+            Node node = mergeTwo(key0, value0, hash0, key1, value1, hash1, shift + BITS);
+            return new BitmapNode(0, bitpos(mask0), new Object[]{node});
+        }
+    }
+
+    /**
+     * Key-value pairs are stored at the beginning of the array in the order of their bit in dataMap,
+     * and sub-nodes at the end of the array in reverse order of their bit in nodeMap.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        final int dataMap;
+        final int nodeMap;
+        final Object[] content;
+
+        BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bitpos) {
+            return Integer.bitCount(dataMap & (bitpos - 1));
+        }
+
+        private int nodeIndex(int bitpos) {
+            return Integer.bitCount(nodeMap & (bitpos - 1));
+        }
+
+        private Node nodeAt(int bitpos) {
+            return (Node) content[content.length - 1 - nodeIndex(bitpos)];
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        Node subNode(int index) {
+            return (Node) content[content.length - 1 - index];
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bitpos = bitpos(mask(hash, shift));
+            if ((dataMap & bitpos) != 0) {
+                int index = dataIndex(bitpos);
+                return Objects.equals(content[2 * index], key) ? content[2 * index + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bitpos) != 0) {
+                return nodeAt(bitpos).find(key, hash, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node updated(Object key, Object value, int hash, int shift, Change change) {
+            int bitpos = bitpos(mask(hash, shift));
+            if ((dataMap & bitpos) != 0) {
+                int index = dataIndex(bitpos);
+                Object currentKey = content[2 * index];
+                if (Objects.equals(currentKey, key)) {
+                    change.replaced = true;
+                    if (content[2 * index + 1] == value) {
+                        return this;
+                    }
+                    Object[] newContent = content.clone();
+                    newContent[2 * index + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, newContent);
+                }
+                Object currentValue = content[2 * index + 1];
+                Node subNode = mergeTwo(currentKey, currentValue, hash(currentKey), key, value, hash, shift + BITS);
+                return migrateFromInlineToNode(bitpos, subNode);
+            }
+            if ((nodeMap & bitpos) != 0) {
+                Node subNode = nodeAt(bitpos);
+                Node newSubNode = subNode.updated(key, value, hash, shift + BITS, change);
+                return newSubNode == subNode ? this : setNode(bitpos, newSubNode);
+            }
+            int index = dataIndex(bitpos);
+            Object[] newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, 2 * index);
+            newContent[2 * index] = key;
+            newContent[2 * index + 1] = value;
+            System.arraycopy(content, 2 * index, newContent, 2 * index + 2, content.length - 2 * index);
+            return new BitmapNode(dataMap | bitpos, nodeMap, newContent);
+        }
+
+        @Override
+        Node removed(Object key, int hash, int shift, Change change) {
+            int bitpos = bitpos(mask(hash, shift));
+            if ((dataMap & bitpos) != 0) {
+                int index = dataIndex(bitpos);
+                if (!Objects.equals(content[2 * index], key)) {
+                    return this;
+                }
+                if (payloadArity() == 2 && nodeArity() == 0) {
+                    // The remaining pair either becomes the root or is inlined into the parent node
+                    int newDataMap = shift == 0 ? dataMap ^ bitpos : bitpos(mask(hash, 0));
+                    int remaining = index == 0 ? 1 : 0;
+                    return new BitmapNode(newDataMap, 0, new Object[]{content[2 * remaining], content[2 * remaining + 1]});
+                }
+                Object[] newContent = new Object[content.length - 2];
+                System.arraycopy(content, 0, newContent, 0, 2 * index);
+                System.arraycopy(content, 2 * index + 2, newContent, 2 * index, content.length - 2 * index - 2);
+                return new BitmapNode(dataMap ^ bitpos, nodeMap, newContent);
+            }
+            if ((nodeMap & bitpos) != 0) {
+                Node subNode = nodeAt(bitpos);
+                Node newSubNode = subNode.removed(key, hash, shift + BITS, change);
+                if (newSubNode == subNode) {
+                    return this;
+                }
+                if (newSubNode.isSingleton()) {
+                    if (payloadArity() == 0 && nodeArity() == 1) {
+                        return newSubNode;
+                    }
+                    return migrateFromNodeToInline(bitpos, newSubNode);
+                }
+                return setNode(bitpos, newSubNode);
+            }
+            return this;
+        }
+
+        private Node setNode(int bitpos, Node node) {
+            Object[] newContent = content.clone();
+            newContent[content.length - 1 - nodeIndex(bitpos)] = node;
+            return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+
+        private Node migrateFromInlineToNode(int bitpos, Node node) {
+            int oldIndex = 2 * dataIndex(bitpos);
+            int newIndex = content.length - 2 - nodeIndex(bitpos);
+            Object[] newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, oldIndex);
+            System.arraycopy(content, oldIndex + 2, newContent, oldIndex, newIndex - oldIndex);
+            newContent[newIndex] = node;
+            System.arraycopy(content, newIndex + 2, newContent, newIndex + 1, content.length - newIndex - 2);
+            return new BitmapNode(dataMap ^ bitpos, nodeMap | bitpos, newContent);
+        }
+
+        private Node migrateFromNodeToInline(int bitpos, Node node) {
+            int oldIndex = content.length - 1 - nodeIndex(bitpos);
+            int newIndex = 2 * dataIndex(bitpos);
+            Object[] newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, newIndex);
+            newContent[newIndex] = node.singleKey();
+            newContent[newIndex + 1] = node.singleValue();
+            System.arraycopy(content, newIndex, newContent, newIndex + 2, oldIndex - newIndex);
+            System.arraycopy(content, oldIndex + 1, newContent, oldIndex + 2, content.length - oldIndex - 1);
+            return new BitmapNode(dataMap | bitpos, nodeMap ^ bitpos, newContent);
+        }
+
+        @Override
+        boolean forEachWhile(BiPredicate<Object, Object> action) {
+            int payloadArity = payloadArity();
+            for (int i = 0; i < payloadArity; i++) {
+                if (!action.test(content[2 * i], content[2 * i + 1])) {
+                    return false;
+                }
+            }
+            for (int i = content.length - 1; i >= 2 * payloadArity; i--) {
+                if (!((Node) content[i]).forEachWhile(action)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean isSingleton() {
+            return nodeMap == 0 && Integer.bitCount(dataMap) == 1;
+        }
+
+        @Override
+        Object singleKey() {
+            return content[0];
+        }
+
+        @Override
+        Object singleValue() {
+            return content[1];
+        }
+    }
+
+    /**
+     * Holds the keys whose hash codes are fully equal, as key-value pairs in a flat array.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] content;
+
+        CollisionNode(int hash, Object[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (Objects.equals(content[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int index = indexOf(key);
+            return index < 0 ? NOT_FOUND : content[index + 1];
+        }
+
+        @Override
+        Node updated(Object key, Object value, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            Object[] newContent;
+            if (index >= 0) {
+                change.replaced = true;
+                if (content[index + 1] == value) {
+                    return this;
+                }
+                newContent = content.clone();
+                newContent[index + 1] = value;
+            } else {
+                newContent = new Object[content.length + 2];
+                System.arraycopy(content, 0, newContent, 0, content.length);
+                newContent[content.length] = key;
+                newContent[content.length + 1] = value;
+            }
+            return new CollisionNode(this.hash, newContent);
+        }
+
+        @Override
+        Node removed(Object key, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            if (content.length == 4) {
+                int remaining = index == 0 ? 2 : 0;
+                return new BitmapNode(bitpos(mask(hash, 0)), 0, new Object[]{content[remaining], content[remaining + 1]});
+            }
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+            return new CollisionNode(this.hash, newContent);
+        }
+
+        @Override
+        boolean forEachWhile(BiPredicate<Object, Object> action) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (!action.test(content[i], content[i + 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean isSingleton() {
+            return false;
+        }
+
+        @Override
+        int payloadArity() {
+            return content.length / 2;
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        Node subNode(int index) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        Object singleKey() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        Object singleValue() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -16,11 +16,16 @@
 
 package com.worksap.icefig.lang;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.*;
+import java.nio.file.Path;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,10 +33,62 @@ import java.util.regex.Pattern;
  * Elegant supplement for String in JDK
  */
 public class CharSeq {
-    private final String str;
+    /**
+     * The compiled patterns of the regexes passed to the regex-taking methods.
+     */
+    private static final PatternCache PATTERNS = new PatternCache(1 << 8);
+
+    /**
+     * The content: a String, or a {@link Rope} for long texts built by concat, prepend and subSeq,
+     * so that building a large text piece by piece does not copy it again and again,
+     * or a {@link MappedText} for a memory-mapped file.
+     */
+    private final CharSequence chars;
+
+    /**
+     * The content as a flat string, computed from the rope on first use.
+     */
+    private String str;
 
     CharSeq(String str) {
         this.str = Objects.requireNonNull(str);
+        this.chars = str;
+    }
+
+    CharSeq(CharSequence chars) {
+        this.chars = chars;
+        if (chars instanceof String) {
+            this.str = (String) chars;
+        }
+    }
+
+    /**
+     * The cache of compiled patterns shared by the regex-taking methods ({@link #split(String)}, {@link #scan(String)},
+     * {@link #matches(String)}, {@link #replaceAll(String, String)}, etc.), holding the 256 most recently used regexes.
+     *
+     * @return the shared pattern cache
+     */
+    public static PatternCache patternCache() {
+        return PATTERNS;
+    }
+
+    /**
+     * @return the content as a string, flattening the rope once if needed
+     */
+    private String str() {
+        String flat = str;
+        if (flat == null) {
+            flat = chars.toString();
+            str = flat;
+        }
+        return flat;
+    }
+
+    /**
+     * @return the content as a string, except that a memory-mapped file is read in place rather than copied onto the heap
+     */
+    CharSequence text() {
+        return str == null && chars instanceof MappedText ? chars : str();
     }
 
     /**
@@ -53,7 +110,10 @@ public class CharSeq {
      * @return CharSeq with the specified substring.
      */
     public CharSeq subSeq(int fromIndex, int toIndex) {
-        return new CharSeq(str.substring(fromIndex, toIndex));
+        if (chars instanceof MappedText) {
+            return new CharSeq(chars.subSequence(fromIndex, toIndex));
+        }
+        return new CharSeq(Rope.slice(chars, fromIndex, toIndex));
     }
 
     /**
@@ -73,7 +133,7 @@ public class CharSeq {
      * @return CharSeq with the specified substring.
      */
     public CharSeq subSeq(int fromIndex) {
-        return this.subSeq(fromIndex, str.length());
+        return this.subSeq(fromIndex, chars.length());
     }
 
     /**
@@ -83,7 +143,7 @@ public class CharSeq {
      * @return appended result
      */
     public CharSeq concat(CharSeq another) {
-        return new CharSeq(str + another.str);
+        return new CharSeq(Rope.concat(chars, another.chars));
     }
 
     /**
@@ -93,7 +153,7 @@ public class CharSeq {
      * @return appended result
      */
     public CharSeq concat(String another) {
-        return new CharSeq(str + another);
+        return new CharSeq(Rope.concat(chars, another));
     }
 
     /**
@@ -103,7 +163,7 @@ public class CharSeq {
      * @return prepended result
      */
     public CharSeq prepend(CharSeq another) {
-        return new CharSeq(another.str + str);
+        return new CharSeq(Rope.concat(another.chars, chars));
     }
 
     /**
@@ -113,7 +173,7 @@ public class CharSeq {
      * @return prepended result
      */
     public CharSeq prepend(String another) {
-        return new CharSeq(another + str);
+        return new CharSeq(Rope.concat(another, chars));
     }
 
     /**
@@ -124,7 +184,7 @@ public class CharSeq {
      * @return the length
      */
     public int length() {
-        return str.length();
+        return chars.length();
     }
 
     /**
@@ -134,7 +194,7 @@ public class CharSeq {
      * {@code false}
      */
     public boolean isEmpty() {
-        return str.isEmpty();
+        return chars.length() == 0;
     }
 
     /**
@@ -154,7 +214,7 @@ public class CharSeq {
      * @return
      */
     public CharSeq toUpperCase() {
-        return new CharSeq(str.toUpperCase());
+        return new CharSeq(str().toUpperCase());
     }
 
     /**
@@ -164,7 +224,7 @@ public class CharSeq {
      * @return
      */
     public CharSeq toLowerCase() {
-        return new CharSeq(str.toLowerCase());
+        return new CharSeq(str().toLowerCase());
     }
 
     /**
@@ -174,7 +234,134 @@ public class CharSeq {
      * @return
      */
     public Seq<CharSeq> split(String regex) {
-        return Seqs.newSeq(str.split(regex)).map(CharSeq::new);
+        if (splitsWithoutRegex(regex)) {
+            return Seqs.newSeq(str().split(regex)).map(CharSeq::new);
+        }
+        return split(PATTERNS.get(regex));
+    }
+
+    /**
+     * @return whether {@link String#split(String)} splits around the regex without compiling it:
+     * the regex is one character which is not special, or a backslash followed by a character
+     * which is neither an ASCII letter nor an ASCII digit
+     */
+    private static boolean splitsWithoutRegex(String regex) {
+        if (regex.length() == 1) {
+            return ".$|()[{^?*+\\".indexOf(regex.charAt(0)) < 0;
+        }
+        if (regex.length() == 2 && regex.charAt(0) == '\\') {
+            char ch = regex.charAt(1);
+            return !(ch >= '0' && ch <= '9' || ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z')
+                    && !Character.isSurrogate(ch);
+        }
+        return false;
+    }
+
+    /**
+     * Splits this CharSeq around matches of the given compiled regular expression.
+     *
+     * @param pattern Compiled regular expression
+     * @return
+     * @see #split(String)
+     */
+    public Seq<CharSeq> split(Pattern pattern) {
+        return Seqs.newSeq(pattern.split(str())).map(CharSeq::new);
+    }
+
+    /**
+     * Splits this CharSeq around the given character, without using a regular expression.
+     * The result is the same as {@link #split(String)} with the character quoted:
+     * trailing empty CharSeqs are not included.
+     *
+     * @param delimiter the delimiting character
+     * @return A Seq of CharSeq
+     */
+    public Seq<CharSeq> split(char delimiter) {
+        MutableSeq<CharSeq> pieces = Seqs.newMutableSeq();
+        forEachSplit(delimiter, pieces::appendInPlace);
+        return pieces;
+    }
+
+    /**
+     * Splits this CharSeq around the occurrences of the given text, without using a regular expression.
+     * The result is the same as {@link #split(String)} with the delimiter quoted:
+     * trailing empty CharSeqs are not included.
+     *
+     * @param delimiter the delimiting text
+     * @return A Seq of CharSeq
+     * @throws NullPointerException if delimiter is null
+     */
+    public Seq<CharSeq> splitLiteral(CharSequence delimiter) {
+        MutableSeq<CharSeq> pieces = Seqs.newMutableSeq();
+        forEachSplitLiteral(delimiter, pieces::appendInPlace);
+        return pieces;
+    }
+
+    /**
+     * Performs the given action for each piece of {@link #split(char)}, without collecting them into a Seq.
+     *
+     * @param delimiter the delimiting character
+     * @param action    Consumer with single parameter of CharSeq
+     * @return Self
+     * @throws NullPointerException if action is null
+     */
+    public CharSeq forEachSplit(char delimiter, Consumer<CharSeq> action) {
+        Objects.requireNonNull(action);
+        forEachPiece(String.valueOf(delimiter), action);
+        return this;
+    }
+
+    /**
+     * Performs the given action for each piece of {@link #splitLiteral(CharSequence)}, without collecting them into a Seq.
+     *
+     * @param delimiter the delimiting text
+     * @param action    Consumer with single parameter of CharSeq
+     * @return Self
+     * @throws NullPointerException if delimiter or action is null
+     */
+    public CharSeq forEachSplitLiteral(CharSequence delimiter, Consumer<CharSeq> action) {
+        Objects.requireNonNull(delimiter);
+        Objects.requireNonNull(action);
+        if (delimiter.length() == 0) {
+            // an empty delimiter matches between every two characters
+            split(Pattern.quote("")).forEach(action);
+        } else {
+            forEachPiece(delimiter.toString(), action);
+        }
+        return this;
+    }
+
+    private void forEachPiece(String delimiter, Consumer<CharSeq> action) {
+        String str = str();
+        int found = str.indexOf(delimiter);
+        if (found < 0) {
+            action.accept(this);
+            return;
+        }
+        int start = 0, emptyPieces = 0;
+        while (found >= 0) {
+            emptyPieces = acceptPiece(str, start, found, emptyPieces, action);
+            start = found + delimiter.length();
+            found = str.indexOf(delimiter, start);
+        }
+        acceptPiece(str, start, str.length(), emptyPieces, action);
+    }
+
+    /**
+     * Pass the piece [from, to) of the string to the action. Empty pieces are held back until a non-empty
+     * one follows, so that the trailing empty pieces are dropped like String#split does.
+     *
+     * @return the number of empty pieces held back
+     */
+    private static int acceptPiece(CharSequence text, int from, int to, int emptyPieces, Consumer<CharSeq> action) {
+        if (from == to) {
+            return emptyPieces + 1;
+        }
+        for (; emptyPieces > 0; emptyPieces--) {
+            action.accept(CharSeq.of(""));
+        }
+        action.accept(new CharSeq(text.subSequence(from, to)));
+        return 0;
     }
 
     /**
@@ -197,6 +384,77 @@ public class CharSeq {
         return new CharSeq(new String(charArr));
     }
 
+    /**
+     * Construct a read-only CharSeq backed by a memory-mapped UTF-8 file, so that the file is not copied onto the heap.
+     * <p>
+     * {@link #length()}, {@link #charAt(int)}, {@link #subSeq(int, int)}, {@link #indexOfSubSeq(CharSeq)},
+     * {@link #startsWith(CharSeq)}, {@link #endsWith(CharSeq)}, {@link #eachLine()} and {@link #scan(String)} read the
+     * mapped file in place, and subSeq shares the mapping. The other methods copy the characters into a string first.
+     * If the file is not all ASCII, each block of it is decoded when it is accessed; malformed input is replaced with U+FFFD.
+     * The file should not be modified while the CharSeq is in use.
+     * </p>
+     *
+     * @param path the UTF-8 file to map
+     * @return A CharSeq of the content of the file
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if the file has more than {@code Integer.MAX_VALUE} characters
+     * @throws NullPointerException     if path is null
+     */
+    public static CharSeq ofMapped(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        return new CharSeq(MappedText.open(path));
+    }
+
+    /**
+     * Read the lines of a UTF-8 file lazily, with the same rules as {@link #eachLine()}.
+     * <p>
+     * The file is read in chunks, so only the current chunk and line are held in memory.
+     * It is opened by each terminal operation of the returned LazySeq, and closed when the operation ends
+     * (short-circuiting operations stop reading as soon as the result is known).
+     * </p>
+     *
+     * @param path the file to read
+     * @return a LazySeq of the lines
+     * @throws NullPointerException if path is null
+     * @see #lines(Path, Charset)
+     */
+    public static LazySeq<CharSeq> lines(Path path) {
+        return lines(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the lines of a file lazily, with the same rules as {@link #eachLine()}.
+     * Malformed input is replaced with the replacement character of the charset.
+     * A terminal operation of the returned LazySeq throws {@link java.io.UncheckedIOException} if the file cannot be read.
+     *
+     * @param path    the file to read
+     * @param charset the charset to decode the file with
+     * @return a LazySeq of the lines
+     * @throws NullPointerException if path or charset is null
+     * @see #lines(Path)
+     */
+    public static LazySeq<CharSeq> lines(Path path, Charset charset) {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(charset);
+        return LineReader.lines(path, charset);
+    }
+
+    /**
+     * Read the lines of a reader lazily in chunks, with the same rules as {@link #eachLine()}.
+     * <p>
+     * The reader is consumed by the first terminal operation of the returned LazySeq, and is not closed.
+     * A terminal operation throws {@link java.io.UncheckedIOException} if the reader fails.
+     * </p>
+     *
+     * @param reader the reader to read
+     * @return a LazySeq of the lines
+     * @throws NullPointerException if reader is null
+     */
+    public static LazySeq<CharSeq> lines(Reader reader) {
+        Objects.requireNonNull(reader);
+        return LineReader.lines(reader);
+    }
+
     /**
      * Return a new CharSeq with the characters from
      * this CharSeq in reverse order.
@@ -211,7 +469,7 @@ public class CharSeq {
      * @return A new Seq
      */
     public CharSeq reverse() {
-        return CharSeq.of(new StringBuilder(str).reverse().toString());
+        return CharSeq.of(new StringBuilder(str()).reverse().toString());
     }
 
     /**
@@ -227,7 +485,7 @@ public class CharSeq {
      * @return A new CharSeq
      */
     public CharSeq swapcase() {
-        char[] chars = str.toCharArray();
+        char[] chars = str().toCharArray();
         for (int i = 0; i < chars.length; i++) {
             char c = chars[i];
             if (Character.isUpperCase(c)) {
@@ -248,7 +506,7 @@ public class CharSeq {
      * @return A boolean
      */
     public boolean endsWith(CharSeq suffix) {
-        return this.endsWith(suffix.str);
+        return this.endsWith(suffix.str());
     }
 
     /**
@@ -258,7 +516,7 @@ public class CharSeq {
      * @return A boolean
      */
     public boolean endsWith(String suffix) {
-        return str.endsWith(suffix);
+        return regionMatches(text(), length() - suffix.length(), suffix);
     }
 
     /**
@@ -268,7 +526,22 @@ public class CharSeq {
      * @return A boolean
      */
     public boolean startsWith(CharSeq prefix) {
-        return str.startsWith(prefix.str);
+        return regionMatches(text(), 0, prefix.str());
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String other) {
+        if (text instanceof String) {
+            return ((String) text).startsWith(other, offset);
+        }
+        if (offset < 0 || offset > text.length() - other.length()) {
+            return false;
+        }
+        for (int i = 0; i < other.length(); i++) {
+            if (text.charAt(offset + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -278,7 +551,7 @@ public class CharSeq {
      * @return The specified Character
      */
     public Character charAt(int i) {
-        return str.charAt(i);
+        return str != null ? str.charAt(i) : chars.charAt(i);
     }
 
     /**
@@ -288,7 +561,7 @@ public class CharSeq {
      * @return A new CharSeq with leading and trailing whitespace removed
      */
     public CharSeq trim() {
-        return CharSeq.of(str.trim());
+        return CharSeq.of(str().trim());
     }
 
     /**
@@ -299,8 +572,18 @@ public class CharSeq {
      * @return A Seq of CharSeq
      */
     public Seq<CharSeq> scan(String regex) {
-        Pattern pat = Pattern.compile(regex);
-        Matcher m = pat.matcher(str);
+        return scan(PATTERNS.get(regex));
+    }
+
+    /**
+     * Scan through this CharSeq iteratively, generate a Seq of CharSeq
+     * with all the substrings matching the compiled regular expression.
+     *
+     * @param pattern The compiled regular expression
+     * @return A Seq of CharSeq
+     */
+    public Seq<CharSeq> scan(Pattern pattern) {
+        Matcher m = pattern.matcher(text());
         MutableSeq<CharSeq> charSeq = Seqs.newMutableSeq();
         while (m.find()) {
             charSeq.appendInPlace(CharSeq.of(m.group()));
@@ -316,7 +599,10 @@ public class CharSeq {
      */
     public CharSeq forEachChar(Consumer<Character> action) {
         Objects.requireNonNull(action);
-        eachChar().forEach(action);
+        String str = str();
+        for (int i = 0; i < str.length(); i++) {
+            action.accept(str.charAt(i));
+        }
         return this;
     }
 
@@ -329,7 +615,26 @@ public class CharSeq {
      */
     public CharSeq forEachChar(BiConsumer<Character, Integer> action) {
         Objects.requireNonNull(action);
-        eachChar().forEach(action);
+        String str = str();
+        for (int i = 0; i < str.length(); i++) {
+            action.accept(str.charAt(i), i);
+        }
+        return this;
+    }
+
+    /**
+     * Performs the given action for each character of the CharSeq, without boxing the characters.
+     *
+     * @param action CharConsumer with single parameter of char
+     * @return Self
+     * @throws NullPointerException if action is null
+     */
+    public CharSeq forEachCharValue(CharConsumer action) {
+        Objects.requireNonNull(action);
+        String str = str();
+        for (int i = 0; i < str.length(); i++) {
+            action.accept(str.charAt(i));
+        }
         return this;
     }
 
@@ -341,8 +646,7 @@ public class CharSeq {
      */
     public CharSeq forEachByte(Consumer<Byte> action) {
         Objects.requireNonNull(action);
-        eachByte().forEach(action);
-        return this;
+        return forEachByteValue(action::accept);
     }
 
     /**
@@ -354,10 +658,85 @@ public class CharSeq {
      */
     public CharSeq forEachByte(BiConsumer<Byte, Integer> action) {
         Objects.requireNonNull(action);
-        eachByte().forEach(action);
+        int[] index = {0};
+        return forEachByteValue(b -> action.accept(b, index[0]++));
+    }
+
+    /**
+     * Performs the given action for each byte of this CharSeq encoded with the platform's default charset,
+     * which are the same bytes as {@link #eachByte()}, without building the byte array.
+     * <p>
+     * UTF-8 is encoded directly from the characters. Other charsets are encoded through a small buffer
+     * which is reused during the iteration.
+     * </p>
+     *
+     * @param action ByteConsumer with single parameter of byte
+     * @return Self
+     * @throws NullPointerException if action is null
+     */
+    public CharSeq forEachByteValue(ByteConsumer action) {
+        Objects.requireNonNull(action);
+        Charset charset = Charset.defaultCharset();
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            forEachUtf8Byte(action);
+        } else {
+            forEachEncodedByte(charset, action);
+        }
         return this;
     }
 
+    private void forEachUtf8Byte(ByteConsumer action) {
+        String str = str();
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                action.accept((byte) c);
+            } else if (c < 0x800) {
+                action.accept((byte) (0xc0 | c >> 6));
+                action.accept((byte) (0x80 | c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    action.accept((byte) (0xf0 | codePoint >> 18));
+                    action.accept((byte) (0x80 | codePoint >> 12 & 0x3f));
+                    action.accept((byte) (0x80 | codePoint >> 6 & 0x3f));
+                    action.accept((byte) (0x80 | codePoint & 0x3f));
+                } else {
+                    // the same replacement as String#getBytes for an unpaired surrogate
+                    action.accept((byte) '?');
+                }
+            } else {
+                action.accept((byte) (0xe0 | c >> 12));
+                action.accept((byte) (0x80 | c >> 6 & 0x3f));
+                action.accept((byte) (0x80 | c & 0x3f));
+            }
+        }
+    }
+
+    private void forEachEncodedByte(Charset charset, ByteConsumer action) {
+        CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer in = CharBuffer.wrap(str());
+        ByteBuffer out = ByteBuffer.allocate(1 << 10);
+        boolean endOfInput = false;
+        while (true) {
+            CoderResult result = endOfInput ? encoder.flush(out) : encoder.encode(in, out, true);
+            out.flip();
+            while (out.hasRemaining()) {
+                action.accept(out.get());
+            }
+            out.clear();
+            if (result.isUnderflow()) {
+                if (endOfInput) {
+                    return;
+                }
+                endOfInput = true;
+            }
+        }
+    }
+
     /**
      * Performs the given action for each line of the CharSeq.
      *
@@ -366,11 +745,35 @@ public class CharSeq {
      */
     public CharSeq forEachLine(Consumer<CharSeq> action) {
         Objects.requireNonNull(action);
-        Seq<CharSeq> lines = this.eachLine();
-        lines.forEach(action);
+        CharSequence text = text();
+        int found = indexOf(text, '\n', 0);
+        if (found < 0) {
+            action.accept(this);
+            return this;
+        }
+        int start = 0, emptyLines = 0;
+        while (found >= 0) {
+            int end = found > start && text.charAt(found - 1) == '\r' ? found - 1 : found;
+            emptyLines = acceptPiece(text, start, end, emptyLines, action);
+            start = found + 1;
+            found = indexOf(text, '\n', start);
+        }
+        acceptPiece(text, start, text.length(), emptyLines, action);
         return this;
     }
 
+    private static int indexOf(CharSequence text, char c, int from) {
+        if (text instanceof String) {
+            return ((String) text).indexOf(c, from);
+        }
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Performs the given action for each line of the CharSeq,
      * with additional parameter "index" as the second parameter.
@@ -380,19 +783,20 @@ public class CharSeq {
      */
     public CharSeq forEachLine(BiConsumer<CharSeq, Integer> action) {
         Objects.requireNonNull(action);
-        Seq<CharSeq> lines = this.eachLine();
-        lines.forEach(action);
-        return this;
+        int[] index = {0};
+        return forEachLine(line -> action.accept(line, index[0]++));
     }
 
     /**
-     * Split the CharSeq by the newline character and return the
-     * result as a Seq of CharSeq.
+     * Split the CharSeq by the newline character ("\n" or "\r\n") and return the
+     * result as a Seq of CharSeq. Like {@link #split(String)}, trailing empty lines are not included.
      *
      * @return A Seq of CharSeq
      */
     public Seq<CharSeq> eachLine() {
-        return this.split("\n|\r\n");
+        MutableSeq<CharSeq> lines = Seqs.newMutableSeq();
+        forEachLine((Consumer<CharSeq>) lines::appendInPlace);
+        return lines;
     }
 
     /**
@@ -401,7 +805,16 @@ public class CharSeq {
      * @return A boolean
      */
     public boolean matches(String regex) {
-        return this.str.matches(regex);
+        return matches(PATTERNS.get(regex));
+    }
+
+    /**
+     * Tells whether or not this CharSeq matches the given compiled regular expression.
+     *
+     * @return A boolean
+     */
+    public boolean matches(Pattern pattern) {
+        return pattern.matcher(str()).matches();
     }
 
 
@@ -414,7 +827,7 @@ public class CharSeq {
      * @return A new CharSeq
      */
     public CharSeq replaceFirst(String regex, CharSeq replacement) {
-        return this.replaceFirst(regex, replacement.str);
+        return this.replaceFirst(regex, replacement.str());
     }
 
     /**
@@ -426,7 +839,31 @@ public class CharSeq {
      * @return A new CharSeq
      */
     public CharSeq replaceFirst(String regex, String replacement) {
-        return CharSeq.of(str.replaceFirst(regex, replacement));
+        return replaceFirst(PATTERNS.get(regex), replacement);
+    }
+
+    /**
+     * Return a new CharSeq by replacing the first substring of this CharSeq
+     * that matches the given compiled regular expression with the given CharSeq replacement.
+     *
+     * @param pattern     The compiled regular expression
+     * @param replacement The replacement CharSeq
+     * @return A new CharSeq
+     */
+    public CharSeq replaceFirst(Pattern pattern, CharSeq replacement) {
+        return this.replaceFirst(pattern, replacement.str());
+    }
+
+    /**
+     * Return a new CharSeq by replacing the first substring of this CharSeq
+     * that matches the given compiled regular expression with the given String replacement.
+     *
+     * @param pattern     The compiled regular expression
+     * @param replacement The replacement String
+     * @return A new CharSeq
+     */
+    public CharSeq replaceFirst(Pattern pattern, String replacement) {
+        return CharSeq.of(pattern.matcher(str()).replaceFirst(replacement));
     }
 
     /**
@@ -439,7 +876,7 @@ public class CharSeq {
      * @return A new CharSeq
      */
     public CharSeq replaceAll(String regex, CharSeq replacement) {
-        return this.replaceAll(regex, replacement.str);
+        return this.replaceAll(regex, replacement.str());
     }
 
     /**
@@ -452,17 +889,48 @@ public class CharSeq {
      * @return A new CharSeq
      */
     public CharSeq replaceAll(String regex, String replacement) {
-        return CharSeq.of(str.replaceAll(regex, replacement));
+        return replaceAll(PATTERNS.get(regex), replacement);
+    }
+
+    /**
+     * Return a new CharSeq by replacing each substring of this
+     * CharSeq that matches the given compiled regular expression with
+     * the given CharSeq replacement.
+     *
+     * @param pattern     The compiled regular expression
+     * @param replacement The replacement CharSeq
+     * @return A new CharSeq
+     */
+    public CharSeq replaceAll(Pattern pattern, CharSeq replacement) {
+        return this.replaceAll(pattern, replacement.str());
+    }
+
+    /**
+     * Return a new CharSeq by replacing each substring of this
+     * CharSeq that matches the given compiled regular expression with
+     * the given String replacement.
+     *
+     * @param pattern     The compiled regular expression
+     * @param replacement The replacement String
+     * @return A new CharSeq
+     */
+    public CharSeq replaceAll(Pattern pattern, String replacement) {
+        return CharSeq.of(pattern.matcher(str()).replaceAll(replacement));
     }
 
     @Override
     public boolean equals(Object another) {
-        return another instanceof CharSeq && str.equals(((CharSeq) another).str);
+        return another instanceof CharSeq && str().equals(((CharSeq) another).str());
+    }
+
+    @Override
+    public int hashCode() {
+        return str().hashCode();
     }
 
     @Override
     public String toString() {
-        return str;
+        return str();
     }
 
     /**
@@ -475,7 +943,7 @@ public class CharSeq {
      * lexicographically greater than the CharSeq argument.
      */
     public int compareTo(CharSeq another) {
-        return str.compareTo(another.str);
+        return str().compareTo(another.str());
     }
 
     /**
@@ -486,7 +954,7 @@ public class CharSeq {
      * than this String, ignoring case considerations.
      */
     public int compareToIgnoreCase(CharSeq another) {
-        return str.compareToIgnoreCase(another.str);
+        return str().compareToIgnoreCase(another.str());
     }
 
     /**
@@ -501,13 +969,26 @@ public class CharSeq {
      * @return A Seq of CharSeq
      */
     public Seq<CharSeq> partition(String regex) {
-        Matcher m = Pattern.compile(regex).matcher(str);
+        return partition(PATTERNS.get(regex));
+    }
+
+    /**
+     * Searches the compiled pattern in the CharSeq and returns
+     * a Seq of CharSeq consists of the part before it,
+     * the first match, and the part after it.
+     *
+     * @param pattern Compiled regular expression
+     * @return A Seq of CharSeq
+     * @see #partition(String)
+     */
+    public Seq<CharSeq> partition(Pattern pattern) {
+        Matcher m = pattern.matcher(str());
         if (m.find()) {
-            return Seqs.newSeq(CharSeq.of(str.substring(0, m.start())),
+            return Seqs.newSeq(CharSeq.of(str().substring(0, m.start())),
                     CharSeq.of(m.group()),
-                    CharSeq.of(str.substring(m.end())));
+                    CharSeq.of(str().substring(m.end())));
         } else {
-            return Seqs.newSeq(CharSeq.of(""), CharSeq.of(""), CharSeq.of(str));
+            return Seqs.newSeq(CharSeq.of(""), CharSeq.of(""), CharSeq.of(str()));
         }
     }
 
@@ -523,7 +1004,20 @@ public class CharSeq {
      * @return A Seq of CharSeq
      */
     public Seq<CharSeq> rPartition(String regex) {
-        Matcher m = Pattern.compile(regex).matcher(str);
+        return rPartition(PATTERNS.get(regex));
+    }
+
+    /**
+     * Searches the compiled pattern in the CharSeq and returns
+     * a Seq of CharSeq consists of the part before it,
+     * the last match, and the part after it.
+     *
+     * @param pattern Compiled regular expression
+     * @return A Seq of CharSeq
+     * @see #rPartition(String)
+     */
+    public Seq<CharSeq> rPartition(Pattern pattern) {
+        Matcher m = pattern.matcher(str());
 
         String match = null;
         int start = 0, end = 0;
@@ -533,12 +1027,12 @@ public class CharSeq {
             end = m.end();
         }
         if (match != null) {
-            return Seqs.newSeq(CharSeq.of(str.substring(0, start)),
+            return Seqs.newSeq(CharSeq.of(str().substring(0, start)),
                     CharSeq.of(match),
-                    CharSeq.of(str.substring(end))
+                    CharSeq.of(str().substring(end))
             );
         }
-        return Seqs.newSeq(CharSeq.of(""), CharSeq.of(""), CharSeq.of(str));
+        return Seqs.newSeq(CharSeq.of(""), CharSeq.of(""), CharSeq.of(str()));
     }
 
     /**
@@ -547,12 +1041,12 @@ public class CharSeq {
      * @return A Seq of Character
      */
     public Seq<Character> eachChar() {
-        char[] chars = str.toCharArray();
-        Character[] characters = new Character[str.length()];
+        String str = str();
+        Object[] characters = new Object[str.length()];
         for (int i = 0; i < characters.length; i++) {
-            characters[i] = chars[i];
+            characters[i] = str.charAt(i);
         }
-        return Seqs.newSeq(characters);
+        return VectorSeq.of(characters);
     }
 
     /**
@@ -562,26 +1056,22 @@ public class CharSeq {
      * @return A Seq of Byte
      */
     public Seq<Byte> eachByte() {
-        byte[] rawBytes = str.getBytes();
-        Byte[] bytes = new Byte[rawBytes.length];
+        byte[] rawBytes = str().getBytes();
+        Object[] bytes = new Object[rawBytes.length];
         for (int i = 0; i < bytes.length; i++) {
             bytes[i] = rawBytes[i];
         }
-        return Seqs.newSeq(bytes);
+        return VectorSeq.of(bytes);
     }
 
     /**
-     * Returns the collection of the Unicode of each character in this {@code CharSeq}.
+     * Returns the collection of the Unicode code point of each character in this {@code CharSeq}.
+     * A surrogate pair is a single code point, while an unpaired surrogate is a code point by itself.
      *
      * @return the collection of ths Unicode of each character
      */
     public Seq<Integer> eachCodePoint() {
-        MutableSeq<Integer> codePoints = Seqs.newMutableSeq();
-        char[] chars = str.toCharArray();
-        for (int i = 0; i < chars.length; i++) {
-            codePoints.appendInPlace((int) chars[i]);
-        }
-        return codePoints;
+        return codePoints().boxed();
     }
 
     /**
@@ -595,10 +1085,53 @@ public class CharSeq {
      */
     public CharSeq forEachCodePoint(Consumer<Integer> consumer) {
         Objects.requireNonNull(consumer);
-        eachCodePoint().forEach(consumer);
+        return forEachCodePointValue(consumer::accept);
+    }
+
+    /**
+     * Takes action on the Unicode code point of each character in this {@code CharSeq}, without boxing the code points.
+     * A surrogate pair is passed as a single code point.
+     *
+     * @param consumer the action to be taken on the Unicode of each character
+     * @return Self
+     * @throws NullPointerException if consumer is null
+     */
+    public CharSeq forEachCodePointValue(IntConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        String str = str();
+        for (int i = 0; i < str.length(); ) {
+            int codePoint = str.codePointAt(i);
+            consumer.accept(codePoint);
+            i += Character.charCount(codePoint);
+        }
         return this;
     }
 
+    /**
+     * @return the UTF-16 code units of this {@code CharSeq}, zero-extended to int
+     */
+    public IntSeq chars() {
+        String str = str();
+        int[] result = new int[str.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = str.charAt(i);
+        }
+        return new IntSeqImpl(result, result.length);
+    }
+
+    /**
+     * @return the Unicode code points of this {@code CharSeq}, in which a surrogate pair is a single code point
+     */
+    public IntSeq codePoints() {
+        String str = str();
+        int[] result = new int[str.codePointCount(0, str.length())];
+        for (int i = 0, j = 0; j < result.length; j++) {
+            result[j] = str.codePointAt(i);
+            i += Character.charCount(result[j]);
+        }
+        return new IntSeqImpl(result, result.length);
+    }
+
     /**
      * Check whether this CharSeq contains the sub seq, if the given seq is empty, always return true.
      *
@@ -645,41 +1178,7 @@ public class CharSeq {
      */
     public int indexOfSubSeq(CharSeq seq) {
         Objects.requireNonNull(seq);
-
-        if (seq.isEmpty()) {
-            return 0;
-        }
-
-        if (length() < seq.length()) {
-            return -1;
-        }
-
-        //Sunday algorithm
-
-        Map<Character, Integer> lastIndex = new HashMap<>();
-        seq.forEachChar(lastIndex::put);
-
-        int startI = 0, size = length(), len = seq.length();
-        while (size - startI >= len) {
-            for (int i = 0; ; i++) {
-                if (!charAt(startI + i).equals(seq.charAt(i))) {
-                    if (startI + len >= size) {
-                        return -1;
-                    }
-                    Character next = charAt(startI + len);
-                    Integer last = lastIndex.get(next);
-                    if (last == null) {
-                        startI += len + 1;
-                    } else {
-                        startI += len - last;
-                    }
-                    break;
-                } else if (i == len - 1) {
-                    return startI;
-                }
-            }
-        }
-        return -1;
+        return StringSearch.indexOf(text(), seq.str());
     }
 
     /**
@@ -690,42 +1189,9 @@ public class CharSeq {
      */
     public int lastIndexOfSubSeq(CharSeq seq) {
         Objects.requireNonNull(seq);
-
         if (seq.isEmpty()) {
             return 0;
         }
-
-        if (length() < seq.length()) {
-            return -1;
-        }
-
-        //Sunday algorithm
-
-        Map<Character, Integer> lastIndex = new HashMap<>();
-        for (int i = seq.length() - 1; i >= 0; i--) {
-            lastIndex.put(seq.charAt(i), i);
-        }
-
-        int size = length(), endI = size - 1, len = seq.length();
-        while (endI >= len - 1) {
-            for (int i = 0; ; i++) {
-                if (!charAt(endI - i).equals(seq.charAt(len - 1 - i))) {
-                    if (endI - len < 0) {
-                        return -1;
-                    }
-                    Character next = charAt(endI - len);
-                    Integer last = lastIndex.get(next);
-                    if (last == null) {
-                        endI -= len + 1;
-                    } else {
-                        endI -= last + 1;
-                    }
-                    break;
-                } else if (i == len - 1) {
-                    return endI - len + 1;
-                }
-            }
-        }
-        return -1;
+        return StringSearch.lastIndexOf(text(), seq.str());
     }
 }
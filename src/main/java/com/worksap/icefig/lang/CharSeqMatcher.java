@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Searches a fixed set of patterns in texts with the Aho-Corasick algorithm, finding the occurrences of all the patterns
+ * in a single pass over the text, instead of searching the patterns one by one.
+ * <p>
+ * The patterns are compiled once into an automaton with primitive transition arrays, which is immutable,
+ * so a matcher can be shared by threads and reused for any number of texts.
+ * </p>
+ * <p>
+ * A pattern is identified by its index in the seq of patterns. If a pattern appears several times, its first index is used.
+ * </p>
+ */
+public final class CharSeqMatcher {
+    private final Seq<CharSeq> patterns;
+    private final int[] lengths;
+
+    // the edges of node n are [edgeStart[n], edgeStart[n + 1]) of labels and targets, sorted by label
+    private final int[] edgeStart;
+    private final char[] labels;
+    private final int[] targets;
+    // the node of the longest proper suffix of the node which is in the trie
+    private final int[] fail;
+    // the pattern ending at the node, or -1
+    private final int[] output;
+    // the nearest node on the fail chain with an output, or -1
+    private final int[] outputLink;
+
+    private CharSeqMatcher(Seq<CharSeq> patterns) {
+        this.patterns = patterns;
+        this.lengths = new int[patterns.size()];
+
+        // build the trie with maps, then compact it into the arrays
+        ArrayList<TreeMap<Character, Integer>> children = new ArrayList<>();
+        ArrayList<Integer> outputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        outputs.add(-1);
+        for (int p = 0; p < patterns.size(); p++) {
+            CharSeq pattern = Objects.requireNonNull(patterns.get(p));
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("patterns should not be empty.");
+            }
+            lengths[p] = pattern.length();
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    outputs.add(-1);
+                    children.get(node).put(pattern.charAt(i), next);
+                }
+                node = next;
+            }
+            if (outputs.get(node) < 0) {
+                outputs.set(node, p);
+            }
+        }
+
+        int nodeCount = children.size();
+        edgeStart = new int[nodeCount + 1];
+        for (int n = 0; n < nodeCount; n++) {
+            edgeStart[n + 1] = edgeStart[n] + children.get(n).size();
+        }
+        labels = new char[edgeStart[nodeCount]];
+        targets = new int[edgeStart[nodeCount]];
+        output = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            int e = edgeStart[n];
+            for (Map.Entry<Character, Integer> edge : children.get(n).entrySet()) {
+                labels[e] = edge.getKey();
+                targets[e] = edge.getValue();
+                e++;
+            }
+            output[n] = outputs.get(n);
+        }
+
+        // breadth first, so that the fail links of the shallower nodes are ready
+        fail = new int[nodeCount];
+        outputLink = new int[nodeCount];
+        outputLink[0] = -1;
+        int[] queue = new int[nodeCount];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int child = targets[e];
+                fail[child] = node == 0 ? 0 : step(fail[node], labels[e]);
+                outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Compile the patterns into a matcher.
+     *
+     * @param patterns the patterns to search
+     * @return the matcher of the patterns
+     * @throws NullPointerException     if patterns or any pattern is null
+     * @throws IllegalArgumentException if any pattern is empty
+     */
+    public static CharSeqMatcher of(Seq<CharSeq> patterns) {
+        Objects.requireNonNull(patterns);
+        return new CharSeqMatcher(Seqs.newSeq(patterns.toArrayList()));
+    }
+
+    /**
+     * @return the patterns of this matcher
+     */
+    public Seq<CharSeq> patterns() {
+        return patterns;
+    }
+
+    /**
+     * @return the child of the node by the character, or -1 if there is none
+     */
+    private int child(int node, char c) {
+        int low = edgeStart[node], high = edgeStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return targets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the state after reading the character in the state
+     */
+    private int step(int state, char c) {
+        while (true) {
+            int next = child(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * @return whether any of the patterns occurs in the text
+     * @throws NullPointerException if text is null
+     */
+    public boolean containsAny(CharSeq text) {
+        CharSequence chars = text.text();
+        int state = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            state = step(state, chars.charAt(i));
+            if (output[state] >= 0 || outputLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find all the occurrences of the patterns in the text, including the overlapping ones.
+     * The matches are ordered by their end, and the longer one first for the same end.
+     *
+     * @return the matches
+     * @throws NullPointerException if text is null
+     */
+    public Seq<Match> findAll(CharSeq text) {
+        CharSequence chars = text.text();
+        MutableSeq<Match> matches = Seqs.newMutableSeq();
+        int state = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            state = step(state, chars.charAt(i));
+            for (int node = output[state] >= 0 ? state : outputLink[state]; node >= 0; node = outputLink[node]) {
+                int pattern = output[node];
+                matches.appendInPlace(new Match(i + 1 - lengths[pattern], i + 1, pattern));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Replace the occurrences of the patterns with their replacements in the hash. Overlapping occurrences are chosen
+     * from left to right, and the longest one for the same start. Patterns without a replacement are not replaced.
+     *
+     * @return a new CharSeq with the occurrences replaced
+     * @throws NullPointerException if text or replacements is null
+     */
+    public CharSeq replaceAll(CharSeq text, Hash<CharSeq, CharSeq> replacements) {
+        Objects.requireNonNull(replacements);
+        CharSequence chars = text.text();
+        CharSeq[] replacementOf = new CharSeq[patterns.size()];
+        for (int p = 0; p < replacementOf.length; p++) {
+            replacementOf[p] = replacements.get(patterns.get(p));
+        }
+
+        // the replaced occurrences, packed as (start << 32 | pattern) to be sorted by start
+        long[] found = new long[16];
+        int count = 0;
+        int state = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            state = step(state, chars.charAt(i));
+            for (int node = output[state] >= 0 ? state : outputLink[state]; node >= 0; node = outputLink[node]) {
+                int pattern = output[node];
+                if (replacementOf[pattern] != null) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = (long) (i + 1 - lengths[pattern]) << 32 | pattern;
+                }
+            }
+        }
+        if (count == 0) {
+            return text;
+        }
+        Arrays.sort(found, 0, count);
+
+        StringBuilder result = new StringBuilder(chars.length());
+        int position = 0;
+        for (int k = 0; k < count; ) {
+            int start = (int) (found[k] >>> 32);
+            // the longest of the occurrences with the same start
+            int pattern = (int) found[k];
+            for (k++; k < count && (int) (found[k] >>> 32) == start; k++) {
+                if (lengths[(int) found[k]] > lengths[pattern]) {
+                    pattern = (int) found[k];
+                }
+            }
+            if (start >= position) {
+                result.append(chars, position, start).append(replacementOf[pattern]);
+                position = start + lengths[pattern];
+            }
+        }
+        result.append(chars, position, chars.length());
+        return CharSeq.of(result.toString());
+    }
+
+    /**
+     * An occurrence of a pattern in a text.
+     */
+    public static final class Match {
+        private final int start;
+        private final int end;
+        private final int patternIndex;
+
+        Match(int start, int end, int patternIndex) {
+            this.start = start;
+            this.end = end;
+            this.patternIndex = patternIndex;
+        }
+
+        /**
+         * @return the index of the first character of the occurrence in the text
+         */
+        public int start() {
+            return start;
+        }
+
+        /**
+         * @return the index after the last character of the occurrence in the text
+         */
+        public int end() {
+            return end;
+        }
+
+        /**
+         * @return the index of the pattern in the patterns of the matcher
+         */
+        public int patternIndex() {
+            return patternIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Match)) {
+                return false;
+            }
+            Match another = (Match) o;
+            return start == another.start && end == another.end && patternIndex == another.patternIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            return (start * 31 + end) * 31 + patternIndex;
+        }
+
+        @Override
+        public String toString() {
+            return "Match[" + start + ", " + end + ") of pattern " + patternIndex;
+        }
+    }
+}
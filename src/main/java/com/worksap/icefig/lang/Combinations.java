@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Enumeration of the combinations of n indices out of [0, size), shared by the Seq implementations.
+ */
+final class Combinations {
+    private Combinations() {
+    }
+
+    /**
+     * Perform the action on the selected indices of each combination. The same array is passed every time
+     * and updated in place to the next combination after the action returns.
+     *
+     * @throws IllegalArgumentException if n is not positive
+     */
+    static void forEach(int size, int n, Consumer<int[]> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number");
+        }
+        if (n > size) {
+            return;
+        }
+        //Selected element indices of a valid combination
+        int[] comb = new int[n];
+
+        //initialize first combination by the first n elements
+        for (int i = 0; i < n; i++) {
+            comb[i] = i;
+        }
+        action.accept(comb);
+
+        while (comb[0] < size - n) {
+            next(comb);
+            action.accept(comb);
+        }
+    }
+
+    /**
+     * Move the combination to the next one in place.
+     */
+    static void next(int[] comb) {
+        int n = comb.length;
+        for (int i = 0; ; i++) {
+            if (i == n - 1 || comb[i + 1] - comb[i] > 1) { // find the first selected element that the next element of it is not selected
+                comb[i]++; // make the next element selected instead
+                // set all selected elements before i, to the beginning elements
+                for (int j = 0; j < i; j++) {
+                    comb[j] = j;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parallel version of {@link #forEach(int, int, Consumer)}. The combinations are numbered by their order in the
+     * sequential enumeration, and the range of numbers is split into balanced chunks executed in the pool.
+     * Each chunk uses its own index array, which is passed to the action together with the number of the combination.
+     *
+     * @throws IllegalArgumentException if n is not positive
+     * @throws ArithmeticException      if the number of combinations overflows long
+     */
+    static void parallelForEach(ForkJoinPool pool, int size, int n, ObjLongConsumer<int[]> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number");
+        }
+        if (n > size) {
+            return;
+        }
+        long[][] binomials = binomials(size, n);
+        long count = binomials[size][n];
+        long chunk = Math.max(MIN_CHUNK, count / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        pool.invoke(new CombinationTask(binomials, size, n, 0, count, chunk, action));
+    }
+
+    private static final long MIN_CHUNK = 1 << 10;
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    /**
+     * Unranking only reads C(i, j) with i - j &lt;= size - n, which are all no larger than C(size, n),
+     * so only those are computed. The others may overflow even if C(size, n) does not, and are left at Long.MAX_VALUE.
+     *
+     * @return the table of C(i, j) for i in [0, size] and j in [0, n]
+     * @throws ArithmeticException if C(size, n) overflows long
+     */
+    static long[][] binomials(int size, int n) {
+        long[][] binomials = new long[size + 1][n + 1];
+        for (int i = 0; i <= size; i++) {
+            binomials[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, n); j++) {
+                if (i - j > size - n) {
+                    binomials[i][j] = Long.MAX_VALUE;
+                } else {
+                    binomials[i][j] = Math.addExact(binomials[i - 1][j - 1], binomials[i - 1][j]);
+                }
+            }
+        }
+        return binomials;
+    }
+
+    /**
+     * Fill in the combination numbered rank in the enumeration order of {@link #forEach(int, int, Consumer)},
+     * where the rank of a combination is the sum of C(comb[i], i + 1).
+     */
+    static void unrank(long[][] binomials, int size, long rank, int[] comb) {
+        int upper = size;
+        for (int i = comb.length - 1; i >= 0; i--) {
+            // the largest c in [i, upper) with C(c, i + 1) <= rank
+            int low = i, high = upper - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (binomials[mid][i + 1] <= rank) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            comb[i] = low;
+            rank -= binomials[low][i + 1];
+            upper = low;
+        }
+    }
+
+    private static final class CombinationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[][] binomials;
+        private final int size;
+        private final int n;
+        private final long from;
+        private final long to;
+        private final long chunk;
+        private final ObjLongConsumer<int[]> action;
+
+        CombinationTask(long[][] binomials, int size, int n, long from, long to, long chunk, ObjLongConsumer<int[]> action) {
+            this.binomials = binomials;
+            this.size = size;
+            this.n = n;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                int[] comb = new int[n];
+                unrank(binomials, size, from, comb);
+                action.accept(comb, from);
+                for (long rank = from + 1; rank < to; rank++) {
+                    next(comb);
+                    action.accept(comb, rank);
+                }
+                return;
+            }
+            long mid = from + (to - from) / 2;
+            invokeAll(new CombinationTask(binomials, size, n, from, mid, chunk, action),
+                    new CombinationTask(binomials, size, n, mid, to, chunk, action));
+        }
+    }
+
+    /**
+     * @return a new seq of the elements of the seq at the indices
+     */
+    static <T> Seq<T> select(Seq<T> seq, int[] indices) {
+        Object[] result = new Object[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            result[i] = seq.get(indices[i]);
+        }
+        return VectorSeq.of(result);
+    }
+
+    /**
+     * Perform the action on each combination of the seq, passing the same seq instance every time,
+     * which views the elements selected by the current combination.
+     */
+    static <T> void forEachView(Seq<T> seq, int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        IndexedList<T> selected = new IndexedList<>(seq);
+        SeqImpl<T> view = SeqImpl.view(selected);
+        forEach(seq.size(), n, comb -> {
+            selected.indices = comb;
+            // rebind in case the action changed the previous view in place and detached it from the indices
+            view.rebind(selected);
+            action.accept(view);
+        });
+    }
+
+    /**
+     * List of the elements of a seq at the given indices.
+     */
+    private static final class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+        private final Seq<T> seq;
+        int[] indices;
+
+        IndexedList(Seq<T> seq) {
+            this.seq = seq;
+        }
+
+        @Override
+        public T get(int index) {
+            return seq.get(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * A MutableHash backed by a {@link ConcurrentHashMap}, which can be shared by threads without external locking.
+ * <p>
+ * Each in-place method on a single key is atomic, and the bulk methods are weakly consistent: they see each entry
+ * at most once, and may or may not see the changes made during them. The copying methods return concurrent copies.
+ * The seq views of keys, values and entries are snapshots taken when they are created.
+ * Null keys and values are not supported.
+ * </p>
+ */
+final class ConcurrentHashImpl<K, V> extends HashImpl<K, V> {
+    ConcurrentHashImpl() {
+        super(new ConcurrentHashMap<>(), false);
+    }
+
+    ConcurrentHashImpl(Map<? extends K, ? extends V> m) {
+        super(new ConcurrentHashMap<>(m), false);
+    }
+
+    private ConcurrentHashImpl<K, V> copy() {
+        return new ConcurrentHashImpl<>(map());
+    }
+
+    @Override
+    public Seq<V> values() {
+        return VectorSeq.of(map().values().toArray());
+    }
+
+    @Override
+    public Seq<K> keys() {
+        return VectorSeq.of(map().keySet().toArray());
+    }
+
+    @Override
+    public Seq<Map.Entry<K, V>> entrySeq() {
+        return VectorSeq.of(map().entrySet().toArray());
+    }
+
+    // The in-place methods call the map directly: the views are snapshots, so the version of HashImpl
+    // is not needed, and a shared counter would be a contended write on every change.
+
+    @Override
+    public MutableHash<K, V> putInPlace(K k, V v) {
+        map().put(k, v);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> putIfAbsentInPlace(K k, V v) {
+        map().putIfAbsent(k, v);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> removeInPlace(K k) {
+        map().remove(k);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> removeInPlace(K k, V v) {
+        map().remove(k, v);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> replaceInPlace(K k, V v) {
+        map().replace(k, v);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> replaceInPlace(K k, V oldValue, V newValue) {
+        map().replace(k, oldValue, newValue);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> replaceAllInPlace(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        map().replaceAll(function);
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> clear() {
+        map().clear();
+        return this;
+    }
+
+    /**
+     * Remove each entry whose current value does not satisfy the condition, unless it is changed in the meantime.
+     */
+    @Override
+    public MutableHash<K, V> filterInPlace(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        Map<K, V> map = map();
+        map.forEach((k, v) -> {
+            if (!condition.test(k, v)) {
+                map.remove(k, v);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> rejectInPlace(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return filterInPlace(condition.negate());
+    }
+
+    /**
+     * The entries of a hash larger than {@link ParSeqImpl#DEFAULT_THRESHOLD} are put in parallel
+     * in the common {@link java.util.concurrent.ForkJoinPool}.
+     */
+    @Override
+    public MutableHash<K, V> mergeInPlace(Hash<? extends K, ? extends V> another) {
+        if (another == null) {
+            return this;
+        }
+        Map<K, V> map = map();
+        if (another.size() < ParSeqImpl.DEFAULT_THRESHOLD) {
+            another.entrySeq().forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        } else if (another instanceof HashImpl) {
+            ((HashImpl<? extends K, ? extends V>) another).map().entrySet().parallelStream()
+                    .forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        } else {
+            another.entrySeq().par().forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public MutableHash<K, V> put(K k, V v) {
+        return copy().putInPlace(k, v);
+    }
+
+    @Override
+    public MutableHash<K, V> putIfAbsent(K k, V v) {
+        return copy().putIfAbsentInPlace(k, v);
+    }
+
+    @Override
+    public MutableHash<K, V> filter(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        ConcurrentHashImpl<K, V> result = new ConcurrentHashImpl<>();
+        Map<K, V> map = result.map();
+        map().forEach((k, v) -> {
+            if (condition.test(k, v)) {
+                map.put(k, v);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public MutableHash<K, V> reject(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return filter(condition.negate());
+    }
+
+    @Override
+    public MutableHash<V, K> invert() {
+        ConcurrentHashImpl<V, K> result = new ConcurrentHashImpl<>();
+        Map<V, K> map = result.map();
+        map().forEach((k, v) -> map.put(v, k));
+        return result;
+    }
+
+    @Override
+    public MutableHash<K, V> merge(Hash<? extends K, ? extends V> another) {
+        return copy().mergeInPlace(another);
+    }
+
+    @Override
+    public MutableHash<K, V> remove(K k) {
+        return copy().removeInPlace(k);
+    }
+
+    @Override
+    public MutableHash<K, V> remove(K k, V v) {
+        return copy().removeInPlace(k, v);
+    }
+
+    @Override
+    public MutableHash<K, V> replace(K k, V v) {
+        return copy().replaceInPlace(k, v);
+    }
+
+    @Override
+    public MutableHash<K, V> replace(K k, V oldValue, V newValue) {
+        return copy().replaceInPlace(k, oldValue, newValue);
+    }
+
+    @Override
+    public MutableHash<K, V> replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        return copy().replaceAllInPlace(function);
+    }
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.*;
+import java.util.stream.DoubleStream;
+
+/**
+ * Seq of primitive <tt>double</tt> values, stored in a <tt>double[]</tt> without boxing.
+ * <p>
+ * It mirrors the operations of {@link Seq} with the primitive functional interfaces.
+ * Elements are compared as {@link Double#compare} does, the same as the boxed values are by {@link Double#equals(Object)}.
+ * </p>
+ */
+public interface DoubleSeq {
+    /**
+     * Transform each element of the seq into another value.
+     *
+     * @throws NullPointerException if func is null
+     */
+    DoubleSeq map(DoubleUnaryOperator func);
+
+    /**
+     * Transform each element of the seq into an object.
+     *
+     * @throws NullPointerException if func is null
+     */
+    <R> Seq<R> mapToObj(DoubleFunction<R> func);
+
+    /**
+     * Transform each element into a seq, and concat all seqs together into a new seq.
+     *
+     * @throws NullPointerException if func is null
+     */
+    DoubleSeq flatMap(DoubleFunction<DoubleSeq> func);
+
+    /**
+     * @return The beginning element of the seq.
+     * @throws IndexOutOfBoundsException if the seq is empty
+     */
+    default double first() {
+        return get(0);
+    }
+
+    /**
+     * @return The ending element of the seq.
+     * @throws IndexOutOfBoundsException if the seq is empty
+     */
+    default double last() {
+        return get(size() - 1);
+    }
+
+    /**
+     * Convert all elements into String, and connect each String together to a single String, following the same order of the seq.
+     */
+    default CharSeq join() {
+        return join("");
+    }
+
+    /**
+     * Convert all elements into String, and connect each String together to a single String, following the same order of the seq.
+     * Insert a delimiter at each connection point.
+     */
+    default CharSeq join(CharSequence delimiter) {
+        return join(delimiter, "", "");
+    }
+
+    /**
+     * Convert all elements into String, and connect each String together to a single String, following the same order of the seq.
+     * Insert a delimiter at each connection point. Add prefix and suffix to the final result.
+     */
+    default CharSeq join(CharSequence delimiter, CharSequence prefix, CharSequence suffix) {
+        StringBuilder stringBuilder = new StringBuilder(prefix);
+        for (int i = 0; i < size(); i++) {
+            if (i != 0) {
+                stringBuilder.append(delimiter);
+            }
+            stringBuilder.append(get(i));
+        }
+        stringBuilder.append(suffix);
+        return CharSeq.of(stringBuilder.toString());
+    }
+
+    /**
+     * Randomly find an element in the seq.
+     *
+     * @return The selected element, or empty if the seq is empty.
+     */
+    OptionalDouble sample();
+
+    /**
+     * Randomly find n elements in the seq.
+     *
+     * @return A new seq of the selected elements. If the size of seq is lower than n, return all elements.
+     */
+    DoubleSeq sample(int n);
+
+    /**
+     * Get the number of elements in this seq.
+     */
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default boolean contains(double value) {
+        return indexOf(value) >= 0;
+    }
+
+    DoubleSeq shuffle();
+
+    /**
+     * @return a new array of the elements in this seq
+     */
+    double[] toArray();
+
+    /**
+     * @return a seq of the boxed elements
+     */
+    Seq<Double> boxed();
+
+    /**
+     * @return a sequential stream of the elements
+     */
+    DoubleStream stream();
+
+    /**
+     * Performs the action for each element of the seq.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(DoubleConsumer action);
+
+    /**
+     * Similar to {@link #forEach(DoubleConsumer)}, but in reverse order.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEachReverse(DoubleConsumer action);
+
+    /**
+     * Construct all the seqs of <tt>n</tt> consecutive elements in the original order.
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     */
+    Seq<? extends DoubleSeq> eachCons(int n);
+
+    /**
+     * Similar to {@link #eachCons(int)}, but takes action on each seq of consecutive elements instead of returning them.
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     * @throws NullPointerException     if action is null
+     */
+    default void forEachCons(int n, Consumer<DoubleSeq> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number!");
+        }
+        for (int i = 0; i <= size() - n; i++) {
+            action.accept(subSeq(i, i + n));
+        }
+    }
+
+    /**
+     * @return a new seq of the elements in ascending order
+     */
+    DoubleSeq sort();
+
+    /**
+     * @return a new seq without the duplicated elements, keeping the first occurrence of each element
+     */
+    DoubleSeq distinct();
+
+    /**
+     * Find the first element which satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    default OptionalDouble findFirst(DoublePredicate condition) {
+        int index = findFirstIndex(condition);
+        return index < 0 ? OptionalDouble.empty() : OptionalDouble.of(get(index));
+    }
+
+    /**
+     * Find the last element which satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    default OptionalDouble findLast(DoublePredicate condition) {
+        int index = findLastIndex(condition);
+        return index < 0 ? OptionalDouble.empty() : OptionalDouble.of(get(index));
+    }
+
+    /**
+     * Find the index of the first element which satisfies the condition.
+     *
+     * @return the index, or -1 if no element satisfies the condition
+     * @throws NullPointerException if condition is null
+     */
+    int findFirstIndex(DoublePredicate condition);
+
+    /**
+     * Find the index of the last element which satisfies the condition.
+     *
+     * @return the index, or -1 if no element satisfies the condition
+     * @throws NullPointerException if condition is null
+     */
+    int findLastIndex(DoublePredicate condition);
+
+    /**
+     * Create a new seq with the value appended.
+     */
+    DoubleSeq append(double value);
+
+    /**
+     * Create a new seq with the values appended.
+     *
+     * @throws NullPointerException if values is null
+     */
+    DoubleSeq append(double... values);
+
+    /**
+     * Create a new seq with the elements of another seq appended.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    DoubleSeq append(DoubleSeq seq);
+
+    /**
+     * Create a new seq with the value prepended.
+     */
+    DoubleSeq prepend(double value);
+
+    /**
+     * Create a new seq with the values prepended.
+     *
+     * @throws NullPointerException if values is null
+     */
+    DoubleSeq prepend(double... values);
+
+    /**
+     * Create a new seq with the elements of another seq prepended.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    DoubleSeq prepend(DoubleSeq seq);
+
+    /**
+     * Create a new seq of the elements between <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive.
+     *
+     * @throws IndexOutOfBoundsException if <tt>fromIndex &lt; 0 || toIndex &gt; size()</tt>
+     * @throws IllegalArgumentException  if <tt>fromIndex &gt; toIndex</tt>
+     */
+    DoubleSeq subSeq(int fromIndex, int toIndex);
+
+    /**
+     * @return a new seq without the elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    DoubleSeq reject(DoublePredicate condition);
+
+    /**
+     * @return a new seq without the leading elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    DoubleSeq rejectWhile(DoublePredicate condition);
+
+    /**
+     * @return a new seq of the elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    DoubleSeq filter(DoublePredicate condition);
+
+    /**
+     * @return a new seq of the leading elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    DoubleSeq filterWhile(DoublePredicate condition);
+
+    /**
+     * Returns a new seq built by concatenating the <tt>times</tt> copies of this seq.
+     *
+     * @throws IllegalArgumentException if <tt>times &lt;= 0</tt>
+     */
+    DoubleSeq repeat(int times);
+
+    /**
+     * Returns the number of the specified element.
+     */
+    int count(double value);
+
+    /**
+     * Returns the number of elements which satisfy the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    int countIf(DoublePredicate condition);
+
+    /**
+     * Returns the element at index. A negative index counts from the end of self.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *                                   (<tt>index &gt;= size() || index &lt; -size()</tt>)
+     */
+    double get(int index);
+
+    /**
+     * Returns the element at index. A negative index counts from the end of self.
+     * If the index is out of range(<tt>index &lt; -size() || index &gt;= size()</tt>), a default value is returned.
+     */
+    default double get(int index, double defaultValue) {
+        if (index < -this.size() || index >= this.size()) {
+            return defaultValue;
+        }
+        return this.get(index);
+    }
+
+    /**
+     * Slices this seq into seqs of <tt>n</tt> elements (only the last slice can contain less than <tt>n</tt> elements).
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     */
+    Seq<? extends DoubleSeq> eachSlice(int n);
+
+    /**
+     * Similar to {@link #eachSlice(int)}, but takes action on each slice instead of returning them.
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     * @throws NullPointerException     if action is null
+     */
+    default void forEachSlice(int n, Consumer<DoubleSeq> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0)
+            throw new IllegalArgumentException("n should be a positive number.");
+        int size = this.size();
+        for (int i = 0; i < size; i += n) {
+            action.accept(this.subSeq(i, i + n > size ? size : i + n));
+        }
+    }
+
+    /**
+     * Performs a reduction on the elements of this seq, using the provided binary operation.
+     *
+     * @return the result of the reduction, or empty if the seq is empty
+     * @throws NullPointerException if accumulator is null
+     */
+    OptionalDouble reduce(DoubleBinaryOperator accumulator);
+
+    /**
+     * Performs a reduction on the elements of this seq, using the provided initial value and binary operation.
+     *
+     * @throws NullPointerException if accumulator is null
+     */
+    double reduce(double init, DoubleBinaryOperator accumulator);
+
+    /**
+     * @return the new seq with elements in reverse order
+     */
+    DoubleSeq reverse();
+
+    /**
+     * Check whether any element of the seq satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    boolean any(DoublePredicate condition);
+
+    /**
+     * Check whether all elements of the seq satisfy the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    boolean all(DoublePredicate condition);
+
+    /**
+     * Check whether no element of the seq satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    boolean none(DoublePredicate condition);
+
+    /**
+     * @return the index of the first occurrence of the value, or -1 if the seq does not contain it
+     */
+    int indexOf(double value);
+
+    /**
+     * @return the index of the last occurrence of the value, or -1 if the seq does not contain it
+     */
+    int lastIndexOf(double value);
+
+    /**
+     * @return the index of the first occurrence of the sub seq, or -1 if there is none; 0 if the sub seq is empty
+     * @throws NullPointerException if seq is null
+     */
+    int indexOfSubSeq(DoubleSeq seq);
+
+    /**
+     * @return the index of the last occurrence of the sub seq, or -1 if there is none; 0 if the sub seq is empty
+     * @throws NullPointerException if seq is null
+     */
+    int lastIndexOfSubSeq(DoubleSeq seq);
+
+    /**
+     * @return whether the seq contains the sub seq, which is always true if the sub seq is empty
+     * @throws NullPointerException if seq is null
+     */
+    default boolean containsSubSeq(DoubleSeq seq) {
+        return indexOfSubSeq(seq) >= 0;
+    }
+
+    /**
+     * Computes the multiset intersection between this seq and another seq.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    DoubleSeq intersect(DoubleSeq seq);
+
+    /**
+     * Computes the multiset difference between this seq and another seq.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    DoubleSeq difference(DoubleSeq seq);
+
+    /**
+     * @return the maximum element, or empty if the seq is empty
+     */
+    OptionalDouble max();
+
+    /**
+     * @return the minimum element, or empty if the seq is empty
+     */
+    OptionalDouble min();
+
+    /**
+     * @return the sum of the elements, or 0 if the seq is empty
+     */
+    double sum();
+
+    /**
+     * Swaps the elements at the specified positions in a new seq.
+     *
+     * @throws IndexOutOfBoundsException if either <tt>i</tt> or <tt>j</tt> is out of range
+     */
+    DoubleSeq swap(int i, int j);
+
+    /**
+     * Rotates the elements by the specified distance in a new seq, as {@link Seq#rotate(int)} does.
+     */
+    DoubleSeq rotate(int distance);
+}
@@ -18,6 +18,8 @@ package com.worksap.icefig.lang;
 
 import java.util.ConcurrentModificationException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 
@@ -244,4 +246,23 @@ public interface Hash<K, V> {
      * @throws NullPointerException if condition is null
      */
     int countIf(BiPredicate<K, V> condition);
+
+    /**
+     * Create a parallel view of this hash, whose bulk operations run in the common {@link ForkJoinPool}.
+     * Hashes with no more entries than the threshold ({@link ParHash#withThreshold(int)}, 8192 by default) are processed sequentially.
+     */
+    default ParHash<K, V> par() {
+        return par(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a parallel view of this hash, whose bulk operations run in the pool.
+     *
+     * @throws NullPointerException if pool is null
+     * @see #par()
+     */
+    default ParHash<K, V> par(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new ParHashImpl<>(this, pool, ParSeqImpl.DEFAULT_THRESHOLD);
+    }
 }
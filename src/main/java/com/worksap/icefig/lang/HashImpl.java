@@ -16,10 +16,15 @@
 
 package com.worksap.icefig.lang;
 
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 
@@ -29,6 +34,11 @@ import java.util.function.BiPredicate;
 class HashImpl<K, V> implements MutableHash<K, V> {
     private Map<K, V> hash;
 
+    /**
+     * The number of in-place changes, so that the seq views know when their snapshots are outdated.
+     */
+    private int version;
+
     protected HashImpl() {
         this.hash = new HashMap<>();
     }
@@ -37,6 +47,35 @@ class HashImpl<K, V> implements MutableHash<K, V> {
         this.hash = new HashMap<>(m);
     }
 
+    /**
+     * Use the map as the backing map if copy is false. Every change of such a map must go through this hash,
+     * or be reported by overriding {@link #version()}.
+     */
+    HashImpl(Map<K, V> map, boolean copy) {
+        this.hash = copy ? new HashMap<>(map) : map;
+    }
+
+    /**
+     * Wrap the map without copying it, for maps freshly created by the copying methods.
+     */
+    private static <K, V> HashImpl<K, V> wrap(Map<K, V> map) {
+        return new HashImpl<>(map, false);
+    }
+
+    /**
+     * @return the backing map, which must only be read
+     */
+    Map<K, V> map() {
+        return hash;
+    }
+
+    /**
+     * @return a number which changes with each in-place change of the hash
+     */
+    int version() {
+        return version;
+    }
+
     @Override
     public boolean containsAny(BiPredicate<K, V> condition) {
         for (Map.Entry<K, V> entry : hash.entrySet()) {
@@ -64,13 +103,20 @@ class HashImpl<K, V> implements MutableHash<K, V> {
 
     @Override
     public boolean equals(Object o) {
-        if (o == this)
-            return true;
         if (o instanceof HashImpl) {
-            HashImpl<K, V> h = (HashImpl<K, V>)o;
-            return hash.equals(h.hash);
+            return hash.equals(((HashImpl<?, ?>) o).hash);
         }
-        return false;
+        return Hashes.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return hash.toString();
     }
 
     @Override
@@ -85,31 +131,119 @@ class HashImpl<K, V> implements MutableHash<K, V> {
 
     @Override
     public Seq<V> values() {
-        return Seqs.newMutableSeq(hash.values());
+        return SeqImpl.view(new View<V>() {
+            @Override
+            Object[] copy() {
+                return hash.values().toArray();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return hash.containsValue(o);
+            }
+        });
     }
 
     @Override
     public Seq<K> keys() {
-        return Seqs.newMutableSeq(hash.keySet());
+        return SeqImpl.view(new View<K>() {
+            @Override
+            Object[] copy() {
+                return hash.keySet().toArray();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return hash.containsKey(o);
+            }
+        });
     }
 
     @Override
     public Seq<Map.Entry<K, V>> entrySeq() {
-        return Seqs.newMutableSeq(hash.entrySet());
+        return SeqImpl.view(new View<Map.Entry<K, V>>() {
+            @Override
+            Object[] copy() {
+                return hash.entrySet().toArray();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return hash.entrySet().contains(o);
+            }
+        });
+    }
+
+    /**
+     * A read-only list over the keys, values or entries of the hash, which is created in O(1).
+     * The size and membership are read from the map directly, and the elements are copied into an array
+     * at the first indexed access after each in-place change of the hash.
+     * <p>
+     * The arrays are never changed, so the sub lists (from which the windows of the seq, such as subSeq and eachCons,
+     * are made) are pinned to the array of the version they are taken at, and keep their elements after later changes.
+     * Like the map, the view must not be read while the hash is changed by another thread, but it can be read
+     * by several threads at once: each snapshot is published as a whole through a volatile field.
+     * </p>
+     */
+    private abstract class View<E> extends AbstractList<E> implements RandomAccess {
+        private volatile Snapshot snapshot;
+
+        abstract Object[] copy();
+
+        private Object[] elements() {
+            Snapshot current = snapshot;
+            int version = version();
+            if (current == null || current.version != version) {
+                current = new Snapshot(copy(), version);
+                snapshot = current;
+            }
+            return current.elements;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            return (E) elements()[index];
+        }
+
+        @Override
+        public int size() {
+            return hash.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<E> subList(int fromIndex, int toIndex) {
+            List<E> pinned = (List<E>) Arrays.asList(elements());
+            return Collections.unmodifiableList(pinned.subList(fromIndex, toIndex));
+        }
+    }
+
+    /**
+     * The elements of a view at a version of the hash.
+     */
+    private static final class Snapshot {
+        final Object[] elements;
+        final int version;
+
+        Snapshot(Object[] elements, int version) {
+            this.elements = elements;
+            this.version = version;
+        }
     }
 
     @Override
     public MutableHash<K, V> put(K k, V v) {
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.put(k, v);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
     public MutableHash<K, V> putIfAbsent(K k, V v) {
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.putIfAbsent(k, v);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
@@ -122,7 +256,7 @@ class HashImpl<K, V> implements MutableHash<K, V> {
                 newHash.put(k, v);
             }
         });
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
@@ -135,7 +269,7 @@ class HashImpl<K, V> implements MutableHash<K, V> {
                 newHash.put(k, v);
             }
         });
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
@@ -143,32 +277,42 @@ class HashImpl<K, V> implements MutableHash<K, V> {
         Map<V, K> newHash = new HashMap<>();
 
         hash.forEach((k, v) -> newHash.put(v, k));
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
     public MutableHash<K, V> merge(Hash<? extends K, ? extends V> another) {
         Map<K, V> newHash = new HashMap<>(hash);
         if (another != null) {
-            another.entrySeq().forEach(entry -> {
-                newHash.put(entry.getKey(), entry.getValue());
-            });
+            putAll(newHash, another);
+        }
+        return wrap(newHash);
+    }
+
+    /**
+     * Put the entries of another hash into the map, reading the map of another HashImpl
+     * or the trie of a ChampHash directly.
+     */
+    private static <K, V> void putAll(Map<K, V> map, Hash<? extends K, ? extends V> another) {
+        if (another instanceof HashImpl) {
+            map.putAll(((HashImpl<? extends K, ? extends V>) another).map());
+        } else {
+            Hashes.forEach(another, map::put);
         }
-        return new HashImpl<>(newHash);
     }
 
     @Override
     public MutableHash<K, V> remove(K k) {
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.remove(k);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
     public MutableHash<K, V> remove(K k, V v) {
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.remove(k, v);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
@@ -181,6 +325,7 @@ class HashImpl<K, V> implements MutableHash<K, V> {
                 each.remove();
             }
         }
+        version++;
         return this;
     }
 
@@ -194,15 +339,15 @@ class HashImpl<K, V> implements MutableHash<K, V> {
                 each.remove();
             }
         }
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> mergeInPlace(Hash<? extends K, ? extends V> another) {
         if (another != null) {
-            another.entrySeq().forEach(entry -> {
-                hash.put(entry.getKey(), entry.getValue());
-            });
+            putAll(hash, another);
+            version++;
         }
         return this;
     }
@@ -210,18 +355,21 @@ class HashImpl<K, V> implements MutableHash<K, V> {
     @Override
     public MutableHash<K, V> clear() {
         hash.clear();
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> replaceInPlace(K k, V v) {
         hash.replace(k, v);
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> replaceInPlace(K k, V oldValue, V newValue) {
         hash.replace(k, oldValue, newValue);
+        version++;
         return this;
     }
 
@@ -229,30 +377,35 @@ class HashImpl<K, V> implements MutableHash<K, V> {
     public MutableHash<K, V> replaceAllInPlace(BiFunction<? super K, ? super V, ? extends V> function) {
         Objects.requireNonNull(function);
         hash.replaceAll(function);
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> putInPlace(K k, V v) {
         hash.put(k, v);
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> putIfAbsentInPlace(K k, V v) {
         hash.putIfAbsent(k, v);
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> removeInPlace(K k) {
         hash.remove(k);
+        version++;
         return this;
     }
 
     @Override
     public MutableHash<K, V> removeInPlace(K k, V v) {
         hash.remove(k, v);
+        version++;
         return this;
     }
 
@@ -272,14 +425,14 @@ class HashImpl<K, V> implements MutableHash<K, V> {
     public MutableHash<K, V> replace(K k, V v) {
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.replace(k, v);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
     public MutableHash<K, V> replace(K k, V oldValue, V newValue) {
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.replace(k, oldValue, newValue);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
@@ -287,12 +440,18 @@ class HashImpl<K, V> implements MutableHash<K, V> {
         Objects.requireNonNull(function);
         Map<K, V> newHash = new HashMap<>(hash);
         newHash.replaceAll(function);
-        return new HashImpl<>(newHash);
+        return wrap(newHash);
     }
 
     @Override
     public int count(V value) {
-        return this.values().count(value);
+        int count = 0;
+        for (V v : hash.values()) {
+            if (Objects.equals(v, value)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     @Override
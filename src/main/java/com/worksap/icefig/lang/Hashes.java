@@ -17,6 +17,8 @@
 package com.worksap.icefig.lang;
 
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
 
 /**
  * Factory class for construct Hash and MutableHash
@@ -26,12 +28,22 @@ public class Hashes {
 
     }
 
+    /**
+     * Create an empty Hash.
+     * <p>
+     * The Hash is persistent: put, remove and the other copying operations share structure with the
+     * original hash instead of copying all its entries.
+     * </p>
+     */
     public static <K, V> Hash<K, V> newHash() {
-        return new HashImpl<>();
+        return ChampHash.empty();
     }
 
+    /**
+     * Create a Hash with the mappings of the map
+     */
     public static <K, V> Hash<K, V> newHash(Map<K, V> map) {
-        return new HashImpl<>(map);
+        return ChampHash.of(map);
     }
 
     public static <K, V> MutableHash<K, V> newMutableHash() {
@@ -41,4 +53,127 @@ public class Hashes {
     public static <K, V> MutableHash<K, V> newMutableHash(Map<K, V> map) {
         return new HashImpl<>(map);
     }
+
+    /**
+     * Create an empty MutableHash backed by a {@link java.util.concurrent.ConcurrentHashMap}, which can be shared
+     * by threads without external locking.
+     * <p>
+     * The in-place methods on a single key (such as putIfAbsentInPlace and replaceInPlace) are atomic, and the bulk
+     * methods are weakly consistent. The seq views of keys, values and entries are snapshots.
+     * Null keys and values are not supported.
+     * </p>
+     */
+    public static <K, V> MutableHash<K, V> newConcurrentHash() {
+        return new ConcurrentHashImpl<>();
+    }
+
+    /**
+     * Create a concurrent MutableHash with the mappings of the map
+     *
+     * @throws NullPointerException if the map contains null keys or values
+     * @see #newConcurrentHash()
+     */
+    public static <K, V> MutableHash<K, V> newConcurrentHash(Map<K, V> map) {
+        return new ConcurrentHashImpl<>(map);
+    }
+
+    /**
+     * Create an empty BiHash, which maintains the reverse index from values to keys.
+     */
+    public static <K, V> BiHash<K, V> newBiHash() {
+        return new BiHashImpl<>();
+    }
+
+    /**
+     * Create a BiHash with the mappings of the map
+     */
+    public static <K, V> BiHash<K, V> newBiHash(Map<K, V> map) {
+        return new BiHashImpl<>(map);
+    }
+
+    /**
+     * Create an empty hash of int keys and object values, stored without boxing.
+     */
+    public static <V> IntObjHash<V> newIntObjHash() {
+        return new IntObjHashImpl<>();
+    }
+
+    public static <V> MutableIntObjHash<V> newMutableIntObjHash() {
+        return new IntObjHashImpl<>();
+    }
+
+    /**
+     * Create an empty mutable hash which holds the expected number of entries without growing.
+     *
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public static <V> MutableIntObjHash<V> newMutableIntObjHash(int expectedSize) {
+        return new IntObjHashImpl<>(expectedSize);
+    }
+
+    /**
+     * Create an empty hash of object keys and int values, stored without boxing.
+     */
+    public static <K> ObjIntHash<K> newObjIntHash() {
+        return new ObjIntHashImpl<>();
+    }
+
+    public static <K> MutableObjIntHash<K> newMutableObjIntHash() {
+        return new ObjIntHashImpl<>();
+    }
+
+    /**
+     * Create an empty mutable hash which holds the expected number of entries without growing.
+     *
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public static <K> MutableObjIntHash<K> newMutableObjIntHash(int expectedSize) {
+        return new ObjIntHashImpl<>(expectedSize);
+    }
+
+    /**
+     * Create an empty hash of long keys and long values, stored without boxing.
+     */
+    public static LongLongHash newLongLongHash() {
+        return new LongLongHashImpl();
+    }
+
+    public static MutableLongLongHash newMutableLongLongHash() {
+        return new LongLongHashImpl();
+    }
+
+    /**
+     * Create an empty mutable hash which holds the expected number of entries without growing.
+     *
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public static MutableLongLongHash newMutableLongLongHash(int expectedSize) {
+        return new LongLongHashImpl(expectedSize);
+    }
+
+    /**
+     * Mapping equality shared by all Hash implementations, following the contract of {@link Map#equals(Object)}.
+     */
+    static boolean equals(Hash<?, ?> hash, Object o) {
+        if (hash == o) return true;
+        if (!(o instanceof Hash)) return false;
+        @SuppressWarnings("unchecked")
+        Hash<Object, Object> another = (Hash<Object, Object>) o;
+        if (hash.size() != another.size()) return false;
+        return !hash.containsAny((k, v) -> !Objects.equals(v, another.get(k)) || v == null && !another.containsKey(k));
+    }
+
+    /**
+     * Iterate the entries of a hash, walking the map of a HashImpl or the trie of a ChampHash directly
+     * instead of copying the entries into a seq first.
+     */
+    static <K, V> void forEach(Hash<K, V> hash, BiConsumer<? super K, ? super V> action) {
+        if (hash instanceof HashImpl) {
+            ((HashImpl<K, V>) hash).map().forEach(action);
+        } else if (hash instanceof ChampHash) {
+            ((ChampHash<K, V>) hash).forEach(action);
+        } else {
+            hash.entrySeq().forEach(entry -> action.accept(entry.getKey(), entry.getValue()));
+        }
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+/**
+ * A hash from int keys to object values, stored in open-addressing arrays instead of boxed keys, boxed values
+ * and entry nodes. The methods follow those of {@link Hash}.
+ * <p>
+ * The copying methods copy the arrays. The iteration order is the order of the slots, which changes as the hash grows.
+ * </p>
+ */
+public interface IntObjHash<V> {
+    /**
+     * An action on an entry of the hash.
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+        void accept(int k, V v);
+    }
+
+    /**
+     * A condition on an entry of the hash.
+     */
+    @FunctionalInterface
+    interface EntryPredicate<V> {
+        boolean test(int k, V v);
+    }
+
+    int size();
+
+    boolean isEmpty();
+
+    boolean containsKey(int k);
+
+    boolean containsValue(V v);
+
+    /**
+     * @return the value of the key, or null if the hash does not contain the key
+     */
+    V get(int k);
+
+    /**
+     * @return the value of the key, or defaultValue if the hash does not contain the key
+     */
+    V getOrDefault(int k, V defaultValue);
+
+    /**
+     * @return the keys, in the same order as {@link #values()}
+     */
+    IntSeq keys();
+
+    /**
+     * @return the values, in the same order as {@link #keys()}
+     */
+    Seq<V> values();
+
+    /**
+     * Performs the action for each entry, without boxing.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(EntryConsumer<V> action);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#containsAny(java.util.function.BiPredicate)
+     */
+    boolean containsAny(EntryPredicate<V> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#countIf(java.util.function.BiPredicate)
+     */
+    int countIf(EntryPredicate<V> condition);
+
+    IntObjHash<V> put(int k, V v);
+
+    /**
+     * @return a copy with the key mapped to the value, unless this hash already contains the key
+     */
+    IntObjHash<V> putIfAbsent(int k, V v);
+
+    IntObjHash<V> remove(int k);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#filter(java.util.function.BiPredicate)
+     */
+    IntObjHash<V> filter(EntryPredicate<V> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#reject(java.util.function.BiPredicate)
+     */
+    IntObjHash<V> reject(EntryPredicate<V> condition);
+
+    /**
+     * @see Hash#merge(Hash)
+     */
+    IntObjHash<V> merge(IntObjHash<? extends V> another);
+}
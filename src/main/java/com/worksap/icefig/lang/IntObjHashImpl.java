@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The implementation of IntObjHash and MutableIntObjHash: an open-addressing table with linear probing.
+ * Removal shifts the following entries of the probe run backwards instead of leaving tombstones,
+ * so that lookups never walk over deleted slots. The key 0 marks free slots, so its entry is kept out of the table.
+ */
+final class IntObjHashImpl<V> implements MutableIntObjHash<V> {
+    private static final int MIN_CAPACITY = 4;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] keys;
+    private Object[] values;
+    // the slot of a key is the top bits of its hash, shifted by this
+    private int shift;
+    // the number of entries in the table, which grows before exceeding the limit
+    private int used;
+    private int limit;
+
+    private boolean hasFreeKey;
+    private V freeKeyValue;
+
+    IntObjHashImpl() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Create a hash which holds the expected number of entries without growing.
+     *
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    IntObjHashImpl(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize should not be negative.");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity - (capacity >> 2) < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private IntObjHashImpl(IntObjHashImpl<V> another) {
+        keys = another.keys.clone();
+        values = another.values.clone();
+        shift = another.shift;
+        used = another.used;
+        limit = another.limit;
+        hasFreeKey = another.hasFreeKey;
+        freeKeyValue = another.freeKeyValue;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        limit = capacity - (capacity >> 2);
+    }
+
+    private int slot(int k) {
+        return (k * 0x9E3779B9) >>> shift;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) values[i];
+    }
+
+    /**
+     * @return the slot of the key, or the bitwise complement of the free slot where it would be put
+     */
+    private int indexOf(int k) {
+        int mask = keys.length - 1;
+        for (int i = slot(k); ; i = (i + 1) & mask) {
+            int key = keys[i];
+            if (key == 0) {
+                return ~i;
+            }
+            if (key == k) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Put a new entry into the free slot i, or into its new free slot if the table has to grow first.
+     */
+    private void insert(int i, int k, Object v) {
+        if (used == limit) {
+            grow();
+            i = ~indexOf(k);
+        }
+        keys[i] = k;
+        values[i] = v;
+        used++;
+    }
+
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The hash cannot hold more than " + limit + " entries.");
+        }
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k != 0) {
+                int j = slot(k);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = k;
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Empty the slot, moving back each following entry of the run whose home slot is not between the hole and it.
+     */
+    private void removeAt(int i) {
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (hole <= j ? home <= hole || home > j : home <= hole && home > j) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        used--;
+    }
+
+    @Override
+    public int size() {
+        return hasFreeKey ? used + 1 : used;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(int k) {
+        return k == 0 ? hasFreeKey : indexOf(k) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V v) {
+        if (hasFreeKey && Objects.equals(freeKeyValue, v)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && Objects.equals(values[i], v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(int k) {
+        return getOrDefault(k, null);
+    }
+
+    @Override
+    public V getOrDefault(int k, V defaultValue) {
+        if (k == 0) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int i = indexOf(k);
+        return i >= 0 ? valueAt(i) : defaultValue;
+    }
+
+    @Override
+    public IntSeq keys() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasFreeKey) {
+            result[n++] = 0;
+        }
+        for (int k : keys) {
+            if (k != 0) {
+                result[n++] = k;
+            }
+        }
+        return new IntSeqImpl(result, result.length);
+    }
+
+    @Override
+    public Seq<V> values() {
+        Object[] result = new Object[size()];
+        int n = 0;
+        if (hasFreeKey) {
+            result[n++] = freeKeyValue;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                result[n++] = values[i];
+            }
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public void forEach(EntryConsumer<V> action) {
+        Objects.requireNonNull(action);
+        if (hasFreeKey) {
+            action.accept(0, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean containsAny(EntryPredicate<V> condition) {
+        Objects.requireNonNull(condition);
+        if (hasFreeKey && condition.test(0, freeKeyValue)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && condition.test(keys[i], valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countIf(EntryPredicate<V> condition) {
+        Objects.requireNonNull(condition);
+        int count = hasFreeKey && condition.test(0, freeKeyValue) ? 1 : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && condition.test(keys[i], valueAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public MutableIntObjHash<V> putInPlace(int k, V v) {
+        if (k == 0) {
+            hasFreeKey = true;
+            freeKeyValue = v;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            values[i] = v;
+        } else {
+            insert(~i, k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableIntObjHash<V> putIfAbsentInPlace(int k, V v) {
+        if (k == 0) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                freeKeyValue = v;
+            }
+            return this;
+        }
+        int i = indexOf(k);
+        if (i < 0) {
+            insert(~i, k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableIntObjHash<V> removeInPlace(int k) {
+        if (k == 0) {
+            hasFreeKey = false;
+            freeKeyValue = null;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            removeAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * The scan starts after a free slot, so that each run of entries is visited from its start.
+     * Then the entries moved back by a removal always come from the unvisited part of the run, and are tested at the hole.
+     */
+    @Override
+    public MutableIntObjHash<V> filterInPlace(EntryPredicate<V> condition) {
+        Objects.requireNonNull(condition);
+        if (hasFreeKey && !condition.test(0, freeKeyValue)) {
+            hasFreeKey = false;
+            freeKeyValue = null;
+        }
+        int mask = keys.length - 1;
+        int start = 0;
+        while (keys[start] != 0) {
+            start++;
+        }
+        for (int n = 0, i = start; n < keys.length; n++) {
+            i = (i + 1) & mask;
+            while (keys[i] != 0 && !condition.test(keys[i], valueAt(i))) {
+                removeAt(i);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public MutableIntObjHash<V> rejectInPlace(EntryPredicate<V> condition) {
+        Objects.requireNonNull(condition);
+        return filterInPlace((k, v) -> !condition.test(k, v));
+    }
+
+    @Override
+    public MutableIntObjHash<V> mergeInPlace(IntObjHash<? extends V> another) {
+        if (another != null) {
+            another.forEach(this::putInPlace);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableIntObjHash<V> clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        used = 0;
+        hasFreeKey = false;
+        freeKeyValue = null;
+        return this;
+    }
+
+    @Override
+    public MutableIntObjHash<V> put(int k, V v) {
+        return new IntObjHashImpl<>(this).putInPlace(k, v);
+    }
+
+    @Override
+    public MutableIntObjHash<V> putIfAbsent(int k, V v) {
+        return new IntObjHashImpl<>(this).putIfAbsentInPlace(k, v);
+    }
+
+    @Override
+    public MutableIntObjHash<V> remove(int k) {
+        return new IntObjHashImpl<>(this).removeInPlace(k);
+    }
+
+    @Override
+    public MutableIntObjHash<V> filter(EntryPredicate<V> condition) {
+        Objects.requireNonNull(condition);
+        return new IntObjHashImpl<>(this).filterInPlace(condition);
+    }
+
+    @Override
+    public MutableIntObjHash<V> reject(EntryPredicate<V> condition) {
+        Objects.requireNonNull(condition);
+        return new IntObjHashImpl<>(this).rejectInPlace(condition);
+    }
+
+    @Override
+    public MutableIntObjHash<V> merge(IntObjHash<? extends V> another) {
+        return new IntObjHashImpl<>(this).mergeInPlace(another);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof IntObjHash)) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        IntObjHash<Object> another = (IntObjHash<Object>) o;
+        return size() == another.size() && !containsAny((k, v) -> !another.containsKey(k) || !(Objects.equals(v, another.get(k))));
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        forEach((k, v) -> hash[0] += Integer.hashCode(k) ^ Objects.hashCode(v));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(k).append('=').append(v);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.AbstractList;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An arithmetic progression of {@code int} values: from a start point to an end point by a fixed step.
+ * <p>
+ * Unlike {@link Range}, which can only walk its elements one by one, the size, the element at an index,
+ * whether a value is contained, and sub ranges are all computed in constant time, and the elements are never stored.
+ * A range is immutable, and can hold at most {@code Integer.MAX_VALUE} elements.
+ * </p>
+ */
+public final class IntRange {
+    private final int first;
+    private final int step;
+    private final int size;
+
+    private IntRange(int first, int step, int size) {
+        this.first = first;
+        this.step = step;
+        this.size = size;
+    }
+
+    /**
+     * @return the range from the start point to the end point (included), by 1 if from &lt;= to, otherwise by -1
+     * @throws IllegalArgumentException if the range has more than {@code Integer.MAX_VALUE} elements
+     */
+    public static IntRange of(int from, int to) {
+        return of(from, to, from <= to ? 1 : -1);
+    }
+
+    /**
+     * @return the range from the start point to the end point (included if reached) by the step,
+     * which is empty if the step goes away from the end point
+     * @throws IllegalArgumentException if the step is 0, or the range has more than {@code Integer.MAX_VALUE} elements
+     */
+    public static IntRange of(int from, int to, int step) {
+        return new IntRange(from, step, count(from, to, step, true));
+    }
+
+    /**
+     * @return the range from the start point until the end point (excluded), by 1 if from &lt;= to, otherwise by -1
+     * @throws IllegalArgumentException if the range has more than {@code Integer.MAX_VALUE} elements
+     */
+    public static IntRange until(int from, int to) {
+        return until(from, to, from <= to ? 1 : -1);
+    }
+
+    /**
+     * @return the range from the start point until the end point (excluded) by the step,
+     * which is empty if the step goes away from the end point
+     * @throws IllegalArgumentException if the step is 0, or the range has more than {@code Integer.MAX_VALUE} elements
+     */
+    public static IntRange until(int from, int to, int step) {
+        return new IntRange(from, step, count(from, to, step, false));
+    }
+
+    /**
+     * @return the number of elements, computed on unsigned differences so that the full range of int does not overflow
+     */
+    private static int count(int from, int to, int step, boolean toIncluded) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step should not be 0.");
+        }
+        if (step > 0 ? from > to : from < to) {
+            return 0;
+        }
+        long distance = step > 0 ? (long) to - from : (long) from - to;
+        if (!toIncluded) {
+            if (distance == 0) {
+                return 0;
+            }
+            distance--;
+        }
+        long quotient = Long.divideUnsigned(distance, stride(step));
+        if (Long.compareUnsigned(quotient, Integer.MAX_VALUE - 1) > 0) {
+            throw new IllegalArgumentException("The range has more than " + Integer.MAX_VALUE + " elements.");
+        }
+        return (int) quotient + 1;
+    }
+
+    /**
+     * @return the absolute value of the step, as an unsigned long
+     */
+    private static long stride(int step) {
+        return step > 0 ? step : -(long) step;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return the first element
+     * @throws NoSuchElementException if the range is empty
+     */
+    public int first() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return first;
+    }
+
+    /**
+     * @return the last element
+     * @throws NoSuchElementException if the range is empty
+     */
+    public int last() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return at(size - 1);
+    }
+
+    private int at(int index) {
+        return (int) (first + (long) index * step);
+    }
+
+    /**
+     * Returns the element at index. A negative index counts from the end of self.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *                                   (<tt>index &gt;= size() || index &lt; -size()</tt>)
+     */
+    public int get(int index) {
+        if (index >= size || index < -size)
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size + ", should be within [" + (-size) + ", " + size + ")");
+        return at(index >= 0 ? index : size + index);
+    }
+
+    /**
+     * @return the index of the value in the range, or -1 if the range does not contain it
+     */
+    public int indexOf(int value) {
+        if (size == 0 || (step > 0 ? value < first : value > first)) {
+            return -1;
+        }
+        long distance = step > 0 ? (long) value - first : (long) first - value;
+        long stride = stride(step);
+        if (Long.remainderUnsigned(distance, stride) != 0) {
+            return -1;
+        }
+        long index = Long.divideUnsigned(distance, stride);
+        return Long.compareUnsigned(index, size) < 0 ? (int) index : -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * @return the range of the elements in [fromIndex, toIndex)
+     * @throws IndexOutOfBoundsException if <tt>fromIndex &lt; 0 || toIndex &gt; size() || fromIndex &gt; toIndex</tt>
+     */
+    public IntRange subRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex " + fromIndex + ", toIndex " + toIndex + ", size " + size);
+        return new IntRange(fromIndex < size ? at(fromIndex) : first, step, toIndex - fromIndex);
+    }
+
+    /**
+     * @return the range of the same elements in reverse order
+     */
+    public IntRange reverse() {
+        return size <= 1 ? this : new IntRange(at(size - 1), -step, size);
+    }
+
+    /**
+     * Performs the action for each element, without boxing.
+     *
+     * @throws NullPointerException if action is null
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        int value = first;
+        for (int i = 0; i < size; i++) {
+            action.accept(value);
+            value += step;
+        }
+    }
+
+    /**
+     * Performs the action for each element in parallel, in no particular order.
+     * The range is split in halves in the common {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @throws NullPointerException if action is null
+     */
+    public void parallelForEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        StreamSupport.intStream(spliterator(), true).forEach(action);
+    }
+
+    /**
+     * @return a sequential stream of the elements
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * @return a spliterator of the elements, which knows its exact size and splits in halves in constant time
+     */
+    public Spliterator.OfInt spliterator() {
+        return new ElementSpliterator(0, size);
+    }
+
+    private final class ElementSpliterator implements Spliterator.OfInt {
+        private int index;
+        private final int fence;
+
+        ElementSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int mid = (index + fence) >>> 1;
+            return mid <= index ? null : new ElementSpliterator(index, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(at(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= fence) {
+                return;
+            }
+            int value = at(index);
+            for (int i = index; i < fence; i++) {
+                action.accept(value);
+                value += step;
+            }
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+        }
+    }
+
+    /**
+     * @return the elements stored into a new primitive seq
+     */
+    public IntSeq toIntSeq() {
+        int[] values = new int[size];
+        int value = first;
+        for (int i = 0; i < size; i++) {
+            values[i] = value;
+            value += step;
+        }
+        return new IntSeqImpl(values, size);
+    }
+
+    /**
+     * @return a seq view of the range, which computes each element when it is read instead of storing them.
+     * The in-place methods of the seq copy the elements first, so the range is never changed.
+     */
+    public Seq<Integer> asSeq() {
+        return SeqImpl.view(new ElementList());
+    }
+
+    private final class ElementList extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            return at(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Integer ? IntRange.this.indexOf((Integer) o) : -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return indexOf(o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
+        }
+    }
+
+    /**
+     * Two ranges are equal if they have the same elements in the same order.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof IntRange)) {
+            return false;
+        }
+        IntRange another = (IntRange) o;
+        if (size != another.size) {
+            return false;
+        }
+        return size == 0 || first == another.first && (size == 1 || step == another.step);
+    }
+
+    @Override
+    public int hashCode() {
+        if (size == 0) {
+            return 0;
+        }
+        int hash = Integer.hashCode(first) * 31 + size;
+        return size == 1 ? hash : hash * 31 + Integer.hashCode(step);
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "IntRange[]";
+        }
+        return "IntRange[" + first + ".." + last() + " by " + step + "]";
+    }
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.function.*;
+import java.util.stream.IntStream;
+
+/**
+ * Seq of primitive <tt>int</tt> values, stored in a <tt>int[]</tt> without boxing.
+ * <p>
+ * It mirrors the operations of {@link Seq} with the primitive functional interfaces.
+ * Elements are compared as {@link Integer#compare} does, the same as the boxed values are by {@link Integer#equals(Object)}.
+ * </p>
+ */
+public interface IntSeq {
+    /**
+     * Transform each element of the seq into another value.
+     *
+     * @throws NullPointerException if func is null
+     */
+    IntSeq map(IntUnaryOperator func);
+
+    /**
+     * Transform each element of the seq into an object.
+     *
+     * @throws NullPointerException if func is null
+     */
+    <R> Seq<R> mapToObj(IntFunction<R> func);
+
+    /**
+     * Transform each element into a seq, and concat all seqs together into a new seq.
+     *
+     * @throws NullPointerException if func is null
+     */
+    IntSeq flatMap(IntFunction<IntSeq> func);
+
+    /**
+     * @return The beginning element of the seq.
+     * @throws IndexOutOfBoundsException if the seq is empty
+     */
+    default int first() {
+        return get(0);
+    }
+
+    /**
+     * @return The ending element of the seq.
+     * @throws IndexOutOfBoundsException if the seq is empty
+     */
+    default int last() {
+        return get(size() - 1);
+    }
+
+    /**
+     * Convert all elements into String, and connect each String together to a single String, following the same order of the seq.
+     */
+    default CharSeq join() {
+        return join("");
+    }
+
+    /**
+     * Convert all elements into String, and connect each String together to a single String, following the same order of the seq.
+     * Insert a delimiter at each connection point.
+     */
+    default CharSeq join(CharSequence delimiter) {
+        return join(delimiter, "", "");
+    }
+
+    /**
+     * Convert all elements into String, and connect each String together to a single String, following the same order of the seq.
+     * Insert a delimiter at each connection point. Add prefix and suffix to the final result.
+     */
+    default CharSeq join(CharSequence delimiter, CharSequence prefix, CharSequence suffix) {
+        StringBuilder stringBuilder = new StringBuilder(prefix);
+        for (int i = 0; i < size(); i++) {
+            if (i != 0) {
+                stringBuilder.append(delimiter);
+            }
+            stringBuilder.append(get(i));
+        }
+        stringBuilder.append(suffix);
+        return CharSeq.of(stringBuilder.toString());
+    }
+
+    /**
+     * Randomly find an element in the seq.
+     *
+     * @return The selected element, or empty if the seq is empty.
+     */
+    OptionalInt sample();
+
+    /**
+     * Randomly find n elements in the seq.
+     *
+     * @return A new seq of the selected elements. If the size of seq is lower than n, return all elements.
+     */
+    IntSeq sample(int n);
+
+    /**
+     * Get the number of elements in this seq.
+     */
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    IntSeq shuffle();
+
+    /**
+     * @return a new array of the elements in this seq
+     */
+    int[] toArray();
+
+    /**
+     * @return a seq of the boxed elements
+     */
+    Seq<Integer> boxed();
+
+    /**
+     * @return a sequential stream of the elements
+     */
+    IntStream stream();
+
+    /**
+     * Performs the action for each element of the seq.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(IntConsumer action);
+
+    /**
+     * Similar to {@link #forEach(IntConsumer)}, but in reverse order.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEachReverse(IntConsumer action);
+
+    /**
+     * Construct all the seqs of <tt>n</tt> consecutive elements in the original order.
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     */
+    Seq<? extends IntSeq> eachCons(int n);
+
+    /**
+     * Similar to {@link #eachCons(int)}, but takes action on each seq of consecutive elements instead of returning them.
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     * @throws NullPointerException     if action is null
+     */
+    default void forEachCons(int n, Consumer<IntSeq> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number!");
+        }
+        for (int i = 0; i <= size() - n; i++) {
+            action.accept(subSeq(i, i + n));
+        }
+    }
+
+    /**
+     * @return a new seq of the elements in ascending order
+     */
+    IntSeq sort();
+
+    /**
+     * @return a new seq without the duplicated elements, keeping the first occurrence of each element
+     */
+    IntSeq distinct();
+
+    /**
+     * Find the first element which satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    default OptionalInt findFirst(IntPredicate condition) {
+        int index = findFirstIndex(condition);
+        return index < 0 ? OptionalInt.empty() : OptionalInt.of(get(index));
+    }
+
+    /**
+     * Find the last element which satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    default OptionalInt findLast(IntPredicate condition) {
+        int index = findLastIndex(condition);
+        return index < 0 ? OptionalInt.empty() : OptionalInt.of(get(index));
+    }
+
+    /**
+     * Find the index of the first element which satisfies the condition.
+     *
+     * @return the index, or -1 if no element satisfies the condition
+     * @throws NullPointerException if condition is null
+     */
+    int findFirstIndex(IntPredicate condition);
+
+    /**
+     * Find the index of the last element which satisfies the condition.
+     *
+     * @return the index, or -1 if no element satisfies the condition
+     * @throws NullPointerException if condition is null
+     */
+    int findLastIndex(IntPredicate condition);
+
+    /**
+     * Create a new seq with the value appended.
+     */
+    IntSeq append(int value);
+
+    /**
+     * Create a new seq with the values appended.
+     *
+     * @throws NullPointerException if values is null
+     */
+    IntSeq append(int... values);
+
+    /**
+     * Create a new seq with the elements of another seq appended.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    IntSeq append(IntSeq seq);
+
+    /**
+     * Create a new seq with the value prepended.
+     */
+    IntSeq prepend(int value);
+
+    /**
+     * Create a new seq with the values prepended.
+     *
+     * @throws NullPointerException if values is null
+     */
+    IntSeq prepend(int... values);
+
+    /**
+     * Create a new seq with the elements of another seq prepended.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    IntSeq prepend(IntSeq seq);
+
+    /**
+     * Create a new seq of the elements between <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive.
+     *
+     * @throws IndexOutOfBoundsException if <tt>fromIndex &lt; 0 || toIndex &gt; size()</tt>
+     * @throws IllegalArgumentException  if <tt>fromIndex &gt; toIndex</tt>
+     */
+    IntSeq subSeq(int fromIndex, int toIndex);
+
+    /**
+     * @return a new seq without the elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    IntSeq reject(IntPredicate condition);
+
+    /**
+     * @return a new seq without the leading elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    IntSeq rejectWhile(IntPredicate condition);
+
+    /**
+     * @return a new seq of the elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    IntSeq filter(IntPredicate condition);
+
+    /**
+     * @return a new seq of the leading elements which satisfy the condition
+     * @throws NullPointerException if condition is null
+     */
+    IntSeq filterWhile(IntPredicate condition);
+
+    /**
+     * Returns a new seq built by concatenating the <tt>times</tt> copies of this seq.
+     *
+     * @throws IllegalArgumentException if <tt>times &lt;= 0</tt>
+     */
+    IntSeq repeat(int times);
+
+    /**
+     * Returns the number of the specified element.
+     */
+    int count(int value);
+
+    /**
+     * Returns the number of elements which satisfy the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    int countIf(IntPredicate condition);
+
+    /**
+     * Returns the element at index. A negative index counts from the end of self.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *                                   (<tt>index &gt;= size() || index &lt; -size()</tt>)
+     */
+    int get(int index);
+
+    /**
+     * Returns the element at index. A negative index counts from the end of self.
+     * If the index is out of range(<tt>index &lt; -size() || index &gt;= size()</tt>), a default value is returned.
+     */
+    default int get(int index, int defaultValue) {
+        if (index < -this.size() || index >= this.size()) {
+            return defaultValue;
+        }
+        return this.get(index);
+    }
+
+    /**
+     * Slices this seq into seqs of <tt>n</tt> elements (only the last slice can contain less than <tt>n</tt> elements).
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     */
+    Seq<? extends IntSeq> eachSlice(int n);
+
+    /**
+     * Similar to {@link #eachSlice(int)}, but takes action on each slice instead of returning them.
+     *
+     * @throws IllegalArgumentException if <tt>n &lt;= 0</tt>
+     * @throws NullPointerException     if action is null
+     */
+    default void forEachSlice(int n, Consumer<IntSeq> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0)
+            throw new IllegalArgumentException("n should be a positive number.");
+        int size = this.size();
+        for (int i = 0; i < size; i += n) {
+            action.accept(this.subSeq(i, i + n > size ? size : i + n));
+        }
+    }
+
+    /**
+     * Performs a reduction on the elements of this seq, using the provided binary operation.
+     *
+     * @return the result of the reduction, or empty if the seq is empty
+     * @throws NullPointerException if accumulator is null
+     */
+    OptionalInt reduce(IntBinaryOperator accumulator);
+
+    /**
+     * Performs a reduction on the elements of this seq, using the provided initial value and binary operation.
+     *
+     * @throws NullPointerException if accumulator is null
+     */
+    int reduce(int init, IntBinaryOperator accumulator);
+
+    /**
+     * @return the new seq with elements in reverse order
+     */
+    IntSeq reverse();
+
+    /**
+     * Check whether any element of the seq satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    boolean any(IntPredicate condition);
+
+    /**
+     * Check whether all elements of the seq satisfy the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    boolean all(IntPredicate condition);
+
+    /**
+     * Check whether no element of the seq satisfies the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    boolean none(IntPredicate condition);
+
+    /**
+     * @return the index of the first occurrence of the value, or -1 if the seq does not contain it
+     */
+    int indexOf(int value);
+
+    /**
+     * @return the index of the last occurrence of the value, or -1 if the seq does not contain it
+     */
+    int lastIndexOf(int value);
+
+    /**
+     * @return the index of the first occurrence of the sub seq, or -1 if there is none; 0 if the sub seq is empty
+     * @throws NullPointerException if seq is null
+     */
+    int indexOfSubSeq(IntSeq seq);
+
+    /**
+     * @return the index of the last occurrence of the sub seq, or -1 if there is none; 0 if the sub seq is empty
+     * @throws NullPointerException if seq is null
+     */
+    int lastIndexOfSubSeq(IntSeq seq);
+
+    /**
+     * @return whether the seq contains the sub seq, which is always true if the sub seq is empty
+     * @throws NullPointerException if seq is null
+     */
+    default boolean containsSubSeq(IntSeq seq) {
+        return indexOfSubSeq(seq) >= 0;
+    }
+
+    /**
+     * Computes the multiset intersection between this seq and another seq.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    IntSeq intersect(IntSeq seq);
+
+    /**
+     * Computes the multiset difference between this seq and another seq.
+     *
+     * @throws NullPointerException if seq is null
+     */
+    IntSeq difference(IntSeq seq);
+
+    /**
+     * @return the maximum element, or empty if the seq is empty
+     */
+    OptionalInt max();
+
+    /**
+     * @return the minimum element, or empty if the seq is empty
+     */
+    OptionalInt min();
+
+    /**
+     * @return the sum of the elements, or 0 if the seq is empty
+     */
+    long sum();
+
+    /**
+     * Swaps the elements at the specified positions in a new seq.
+     *
+     * @throws IndexOutOfBoundsException if either <tt>i</tt> or <tt>j</tt> is out of range
+     */
+    IntSeq swap(int i, int j);
+
+    /**
+     * Rotates the elements by the specified distance in a new seq, as {@link Seq#rotate(int)} does.
+     */
+    IntSeq rotate(int distance);
+}
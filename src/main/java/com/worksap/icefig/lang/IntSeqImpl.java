@@ -0,0 +1,764 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.*;
+import java.util.stream.IntStream;
+
+/**
+ * The implementation of IntSeq and MutableIntSeq, backed by a growable <tt>int[]</tt>.
+ */
+final class IntSeqImpl implements MutableIntSeq {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] array;
+    private int size;
+
+    IntSeqImpl() {
+        this.array = EMPTY;
+    }
+
+    /**
+     * Create a seq holding the first <tt>size</tt> elements of the array, which is owned by the seq afterwards.
+     */
+    IntSeqImpl(int[] array, int size) {
+        this.array = array;
+        this.size = size;
+    }
+
+    static IntSeqImpl of(int[] values) {
+        return new IntSeqImpl(Arrays.copyOf(values, values.length), values.length);
+    }
+
+    private IntSeqImpl copy() {
+        return new IntSeqImpl(toArray(), size);
+    }
+
+    private static boolean same(int a, int b) {
+        return Integer.compare(a, b) == 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > array.length) {
+            array = Arrays.copyOf(array, Math.max(capacity, Math.max(10, array.length + (array.length >> 1))));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public int get(int index) {
+        if (index >= size || index < -size)
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size + ", should be within [" + (-size) + ", " + size + ")");
+        return index >= 0 ? array[index] : array[size + index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public MutableIntSeq map(IntUnaryOperator func) {
+        Objects.requireNonNull(func);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = func.applyAsInt(array[i]);
+        }
+        return new IntSeqImpl(result, size);
+    }
+
+    @Override
+    public <R> Seq<R> mapToObj(IntFunction<R> func) {
+        Objects.requireNonNull(func);
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = func.apply(array[i]);
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public MutableIntSeq flatMap(IntFunction<IntSeq> func) {
+        Objects.requireNonNull(func);
+        IntSeqImpl result = new IntSeqImpl();
+        for (int i = 0; i < size; i++) {
+            result.appendInPlace(func.apply(array[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalInt sample() {
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(array[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Override
+    public MutableIntSeq sample(int n) {
+        return shuffle().subSeq(0, Math.min(n, size));
+    }
+
+    @Override
+    public MutableIntSeq shuffle() {
+        return copy().shuffleInPlace();
+    }
+
+    @Override
+    public int[] toArray() {
+        return Arrays.copyOf(array, size);
+    }
+
+    @Override
+    public Seq<Integer> boxed() {
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = array[i];
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public IntStream stream() {
+        return Arrays.stream(array, 0, size);
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < size; i++) {
+            action.accept(array[i]);
+        }
+    }
+
+    @Override
+    public void forEachReverse(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = size - 1; i >= 0; i--) {
+            action.accept(array[i]);
+        }
+    }
+
+    @Override
+    public MutableSeq<MutableIntSeq> eachCons(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be positive number!");
+        }
+        MutableSeq<MutableIntSeq> result = new SeqImpl<>();
+        for (int i = 0; i <= size - n; i++) {
+            result.appendInPlace(subSeq(i, i + n));
+        }
+        return result;
+    }
+
+    @Override
+    public MutableIntSeq sort() {
+        return copy().sortInPlace();
+    }
+
+    @Override
+    public MutableIntSeq distinct() {
+        int[] result = distinctArray();
+        return new IntSeqImpl(result, result.length);
+    }
+
+    /**
+     * @return the distinct elements in the order of their first occurrence, found through a sorted copy
+     * of the elements instead of a hash set of boxed values
+     */
+    private int[] distinctArray() {
+        int[] sorted = toArray();
+        int unique = sortUnique(sorted);
+        BitSet seen = new BitSet(unique);
+        int[] result = new int[unique];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int pos = Arrays.binarySearch(sorted, 0, unique, array[i]);
+            if (!seen.get(pos)) {
+                seen.set(pos);
+                result[count++] = array[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sort the array and move its distinct elements to the front.
+     *
+     * @return the number of distinct elements
+     */
+    private static int sortUnique(int[] values) {
+        Arrays.sort(values);
+        int unique = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (unique == 0 || !same(values[i], values[unique - 1])) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique;
+    }
+
+    @Override
+    public int findFirstIndex(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        for (int i = 0; i < size; i++) {
+            if (condition.test(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int findLastIndex(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        for (int i = size - 1; i >= 0; i--) {
+            if (condition.test(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public MutableIntSeq append(int value) {
+        return copy().appendInPlace(value);
+    }
+
+    @Override
+    public MutableIntSeq append(int... values) {
+        return copy().appendInPlace(values);
+    }
+
+    @Override
+    public MutableIntSeq append(IntSeq seq) {
+        return copy().appendInPlace(seq);
+    }
+
+    @Override
+    public MutableIntSeq prepend(int value) {
+        return copy().prependInPlace(value);
+    }
+
+    @Override
+    public MutableIntSeq prepend(int... values) {
+        return copy().prependInPlace(values);
+    }
+
+    @Override
+    public MutableIntSeq prepend(IntSeq seq) {
+        return copy().prependInPlace(seq);
+    }
+
+    @Override
+    public MutableIntSeq subSeq(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+        if (toIndex > size)
+            throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        return new IntSeqImpl(Arrays.copyOfRange(array, fromIndex, toIndex), toIndex - fromIndex);
+    }
+
+    @Override
+    public MutableIntSeq reject(IntPredicate condition) {
+        return copy().rejectInPlace(condition);
+    }
+
+    @Override
+    public MutableIntSeq rejectWhile(IntPredicate condition) {
+        return copy().rejectWhileInPlace(condition);
+    }
+
+    @Override
+    public MutableIntSeq filter(IntPredicate condition) {
+        return copy().filterInPlace(condition);
+    }
+
+    @Override
+    public MutableIntSeq filterWhile(IntPredicate condition) {
+        return copy().filterWhileInPlace(condition);
+    }
+
+    @Override
+    public MutableIntSeq repeat(int times) {
+        return copy().repeatInPlace(times);
+    }
+
+    @Override
+    public int count(int value) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (same(array[i], value))
+                count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int countIf(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (condition.test(array[i]))
+                count++;
+        }
+        return count;
+    }
+
+    @Override
+    public MutableSeq<MutableIntSeq> eachSlice(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("n should be a positive number.");
+        MutableSeq<MutableIntSeq> result = new SeqImpl<>();
+        for (int i = 0; i < size; i += n) {
+            result.appendInPlace(subSeq(i, i + n > size ? size : i + n));
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalInt reduce(IntBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator);
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+        int result = array[0];
+        for (int i = 1; i < size; i++) {
+            result = accumulator.applyAsInt(result, array[i]);
+        }
+        return OptionalInt.of(result);
+    }
+
+    @Override
+    public int reduce(int init, IntBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator);
+        int result = init;
+        for (int i = 0; i < size; i++) {
+            result = accumulator.applyAsInt(result, array[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public MutableIntSeq reverse() {
+        return copy().reverseInPlace();
+    }
+
+    @Override
+    public boolean any(IntPredicate condition) {
+        return findFirstIndex(condition) >= 0;
+    }
+
+    @Override
+    public boolean all(IntPredicate condition) {
+        return findFirstIndex(condition.negate()) < 0;
+    }
+
+    @Override
+    public boolean none(IntPredicate condition) {
+        return findFirstIndex(condition) < 0;
+    }
+
+    @Override
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (same(array[i], value))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(int value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (same(array[i], value))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOfSubSeq(IntSeq seq) {
+        // Knuth-Morris-Pratt
+        int[] pattern = seq.toArray();
+        int len = pattern.length;
+        if (len == 0) {
+            return 0;
+        }
+        int[] failure = failure(pattern);
+        for (int i = 0, k = 0; i < size; i++) {
+            while (k > 0 && !same(array[i], pattern[k])) {
+                k = failure[k - 1];
+            }
+            if (same(array[i], pattern[k]) && ++k == len) {
+                return i - len + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOfSubSeq(IntSeq seq) {
+        // Knuth-Morris-Pratt from the end, with the reversed pattern
+        int[] pattern = seq.toArray();
+        int len = pattern.length;
+        if (len == 0) {
+            return 0;
+        }
+        for (int i = 0, j = len - 1; i < j; i++, j--) {
+            int temp = pattern[i];
+            pattern[i] = pattern[j];
+            pattern[j] = temp;
+        }
+        int[] failure = failure(pattern);
+        for (int i = size - 1, k = 0; i >= 0; i--) {
+            while (k > 0 && !same(array[i], pattern[k])) {
+                k = failure[k - 1];
+            }
+            if (same(array[i], pattern[k]) && ++k == len) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the length of the longest proper border of each prefix of the pattern
+     */
+    private static int[] failure(int[] pattern) {
+        int[] failure = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && !same(pattern[i], pattern[k])) {
+                k = failure[k - 1];
+            }
+            if (same(pattern[i], pattern[k])) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+
+    @Override
+    public MutableIntSeq intersect(IntSeq seq) {
+        return multisetFilter(seq, true);
+    }
+
+    @Override
+    public MutableIntSeq difference(IntSeq seq) {
+        return multisetFilter(seq, false);
+    }
+
+    /**
+     * Keep each element which is matched (or not matched) by a remaining occurrence in another seq,
+     * consuming the occurrence. The occurrences are counted on a sorted copy of the other seq.
+     */
+    private MutableIntSeq multisetFilter(IntSeq seq, boolean keepMatched) {
+        Objects.requireNonNull(seq);
+        int[] keys = seq.toArray();
+        int[] counts = new int[keys.length];
+        Arrays.sort(keys);
+        int unique = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (unique == 0 || !same(keys[i], keys[unique - 1])) {
+                keys[unique++] = keys[i];
+            }
+            counts[unique - 1]++;
+        }
+
+        IntSeqImpl result = new IntSeqImpl();
+        for (int i = 0; i < size; i++) {
+            int pos = Arrays.binarySearch(keys, 0, unique, array[i]);
+            boolean matched = pos >= 0 && counts[pos] > 0;
+            if (matched) {
+                counts[pos]--;
+            }
+            if (matched == keepMatched) {
+                result.appendInPlace(array[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalInt max() {
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+        int candidate = array[0];
+        for (int i = 1; i < size; i++) {
+            if (Integer.compare(array[i], candidate) > 0) {
+                candidate = array[i];
+            }
+        }
+        return OptionalInt.of(candidate);
+    }
+
+    @Override
+    public OptionalInt min() {
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+        int candidate = array[0];
+        for (int i = 1; i < size; i++) {
+            if (Integer.compare(array[i], candidate) < 0) {
+                candidate = array[i];
+            }
+        }
+        return OptionalInt.of(candidate);
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public MutableIntSeq swap(int i, int j) {
+        return copy().swapInPlace(i, j);
+    }
+
+    @Override
+    public MutableIntSeq rotate(int distance) {
+        return copy().rotateInPlace(distance);
+    }
+
+    @Override
+    public MutableIntSeq mapInPlace(IntUnaryOperator func) {
+        Objects.requireNonNull(func);
+        for (int i = 0; i < size; i++) {
+            array[i] = func.applyAsInt(array[i]);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq appendInPlace(int value) {
+        ensureCapacity(size + 1);
+        array[size++] = value;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq appendInPlace(int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, array, size, values.length);
+        size += values.length;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq appendInPlace(IntSeq seq) {
+        return appendInPlace(seq.toArray());
+    }
+
+    @Override
+    public MutableIntSeq prependInPlace(int value) {
+        ensureCapacity(size + 1);
+        System.arraycopy(array, 0, array, 1, size);
+        array[0] = value;
+        size++;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq prependInPlace(int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(array, 0, array, values.length, size);
+        System.arraycopy(values, 0, array, 0, values.length);
+        size += values.length;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq prependInPlace(IntSeq seq) {
+        return prependInPlace(seq.toArray());
+    }
+
+    @Override
+    public MutableIntSeq clear() {
+        array = EMPTY;
+        size = 0;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq set(int i, int value) {
+        checkIndex(i);
+        array[i] = value;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq shuffleInPlace() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = size - 1; i > 0; i--) {
+            swapElements(i, random.nextInt(i + 1));
+        }
+        return this;
+    }
+
+    private void swapElements(int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    @Override
+    public MutableIntSeq reverseInPlace() {
+        reverseRange(0, size);
+        return this;
+    }
+
+    private void reverseRange(int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            swapElements(i, j);
+        }
+    }
+
+    @Override
+    public MutableIntSeq distinctInPlace() {
+        array = distinctArray();
+        size = array.length;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq repeatInPlace(int times) {
+        if (times <= 0)
+            throw new IllegalArgumentException("times must be a positive number.");
+        ensureCapacity(Math.multiplyExact(size, times));
+        for (int i = 1; i < times; i++) {
+            System.arraycopy(array, 0, array, size * i, size);
+        }
+        size *= times;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq sortInPlace() {
+        Arrays.sort(array, 0, size);
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq filterInPlace(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (condition.test(array[i])) {
+                array[kept++] = array[i];
+            }
+        }
+        size = kept;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq filterWhileInPlace(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        int kept = 0;
+        while (kept < size && condition.test(array[kept])) {
+            kept++;
+        }
+        size = kept;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq rejectInPlace(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        return filterInPlace(condition.negate());
+    }
+
+    @Override
+    public MutableIntSeq rejectWhileInPlace(IntPredicate condition) {
+        Objects.requireNonNull(condition);
+        int rejected = 0;
+        while (rejected < size && condition.test(array[rejected])) {
+            rejected++;
+        }
+        System.arraycopy(array, rejected, array, 0, size - rejected);
+        size -= rejected;
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq swapInPlace(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        swapElements(i, j);
+        return this;
+    }
+
+    @Override
+    public MutableIntSeq rotateInPlace(int distance) {
+        if (size == 0) {
+            return this;
+        }
+        distance = distance % size;
+        if (distance < 0) {
+            distance += size;
+        }
+        reverseRange(0, size);
+        reverseRange(0, distance);
+        reverseRange(distance, size);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntSeq)) return false;
+        IntSeq another = (IntSeq) o;
+        if (size != another.size()) return false;
+        for (int i = 0; i < size; i++) {
+            if (!same(array[i], another.get(i))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < size; i++) {
+            hashCode = 31 * hashCode + Integer.hashCode(array[i]);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return join(", ", "[", "]").toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.function.*;
+
+/**
+ * A lazily evaluated pipeline over the elements of a seq, created by {@link Seq#lazy()}.
+ * <p>
+ * The intermediate operations only record what to do. A terminal operation (such as {@link #join()}, {@link #reduce(BinaryOperator)}
+ * or {@link #toSeq()}) pushes each element through all the recorded operations in a single pass, without
+ * building an intermediate seq for each of them. Short-circuiting terminal operations ({@link #findFirst(Predicate)},
+ * {@link #any(Predicate)}, {@link #all(Predicate)} and {@link #none(Predicate)}) stop pulling elements from the source
+ * as soon as the result is known.
+ * </p>
+ * <p>
+ * The pipeline is evaluated again by each terminal operation, so it reflects the current content of a mutable source.
+ * </p>
+ */
+public interface LazySeq<T> {
+    /**
+     * Transform each element with the function.
+     *
+     * @throws NullPointerException if func is null
+     */
+    <R> LazySeq<R> map(Function<T, R> func);
+
+    /**
+     * Transform each element into a seq, and concat the elements of all the seqs.
+     *
+     * @throws NullPointerException if func is null
+     */
+    <R> LazySeq<R> flatMap(Function<T, Seq<R>> func);
+
+    /**
+     * Keep only the elements which satisfy the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    LazySeq<T> filter(Predicate<T> condition);
+
+    /**
+     * Remove the elements which satisfy the condition.
+     *
+     * @throws NullPointerException if condition is null
+     */
+    LazySeq<T> reject(Predicate<T> condition);
+
+    /**
+     * Remove the duplicated elements, keeping the first occurrence of each one.
+     */
+    LazySeq<T> distinct();
+
+    /**
+     * Reverse the order of the elements. All the elements from the upstream operations are buffered
+     * before the first one is passed down, so the operations before it do not short-circuit.
+     */
+    LazySeq<T> reverse();
+
+    /**
+     * Performs the action for each element.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(Consumer<? super T> action);
+
+    /**
+     * @return the elements collected into a new seq
+     */
+    Seq<T> toSeq();
+
+    /**
+     * @return the number of elements
+     */
+    int count();
+
+    /**
+     * @return the first element which satisfies the condition, or null if there is none
+     * @throws NullPointerException if condition is null
+     */
+    T findFirst(Predicate<T> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#any(Predicate)
+     */
+    boolean any(Predicate<T> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#all(Predicate)
+     */
+    boolean all(Predicate<T> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#none(Predicate)
+     */
+    boolean none(Predicate<T> condition);
+
+    /**
+     * @return the result of the reduction, or null if there is no element
+     * @throws NullPointerException if accumulator is null
+     * @see Seq#reduce(BinaryOperator)
+     */
+    T reduce(BinaryOperator<T> accumulator);
+
+    /**
+     * @throws NullPointerException if accumulator is null
+     * @see Seq#reduce(Object, BiFunction)
+     */
+    <R> R reduce(R init, BiFunction<R, T, R> accumulator);
+
+    /**
+     * @see Seq#join()
+     */
+    default CharSeq join() {
+        return join("");
+    }
+
+    /**
+     * @see Seq#join(CharSequence)
+     */
+    default CharSeq join(CharSequence delimiter) {
+        return join(delimiter, "", "");
+    }
+
+    /**
+     * @see Seq#join(CharSequence, CharSequence, CharSequence)
+     */
+    CharSeq join(CharSequence delimiter, CharSequence prefix, CharSequence suffix);
+}
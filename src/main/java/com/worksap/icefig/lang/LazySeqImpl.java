@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.*;
+
+/**
+ * The implementation of LazySeq. Each operation wraps the source of the previous one,
+ * so that a terminal operation pushes every element through the whole chain at once.
+ */
+final class LazySeqImpl<T> implements LazySeq<T> {
+
+    /**
+     * A push-based source of elements.
+     */
+    @FunctionalInterface
+    interface Source<T> {
+        /**
+         * Pass the elements to the sink in order, until the sink returns false.
+         *
+         * @return false if the sink stopped the iteration, true if all elements are passed
+         */
+        boolean forEachWhile(Predicate<? super T> sink);
+    }
+
+    private final Source<T> source;
+
+    LazySeqImpl(Source<T> source) {
+        this.source = source;
+    }
+
+    static <T> LazySeq<T> of(Seq<T> seq) {
+        return new LazySeqImpl<>(sink -> {
+            for (int i = 0; i < seq.size(); i++) {
+                if (!sink.test(seq.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public <R> LazySeq<R> map(Function<T, R> func) {
+        Objects.requireNonNull(func);
+        return new LazySeqImpl<>(sink -> source.forEachWhile(t -> sink.test(func.apply(t))));
+    }
+
+    @Override
+    public <R> LazySeq<R> flatMap(Function<T, Seq<R>> func) {
+        Objects.requireNonNull(func);
+        return new LazySeqImpl<>(sink -> source.forEachWhile(t -> {
+            Seq<R> seq = func.apply(t);
+            for (int i = 0; i < seq.size(); i++) {
+                if (!sink.test(seq.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+    }
+
+    @Override
+    public LazySeq<T> filter(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return new LazySeqImpl<>(sink -> source.forEachWhile(t -> !condition.test(t) || sink.test(t)));
+    }
+
+    @Override
+    public LazySeq<T> reject(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return new LazySeqImpl<>(sink -> source.forEachWhile(t -> condition.test(t) || sink.test(t)));
+    }
+
+    @Override
+    public LazySeq<T> distinct() {
+        return new LazySeqImpl<>(sink -> {
+            Set<T> seen = new HashSet<>();
+            return source.forEachWhile(t -> !seen.add(t) || sink.test(t));
+        });
+    }
+
+    @Override
+    public LazySeq<T> reverse() {
+        return new LazySeqImpl<>(sink -> {
+            ArrayList<T> buffer = new ArrayList<>();
+            source.forEachWhile(buffer::add);
+            for (int i = buffer.size() - 1; i >= 0; i--) {
+                if (!sink.test(buffer.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        source.forEachWhile(t -> {
+            action.accept(t);
+            return true;
+        });
+    }
+
+    @Override
+    public Seq<T> toSeq() {
+        ArrayList<T> result = new ArrayList<>();
+        source.forEachWhile(result::add);
+        return Seqs.newSeq(result);
+    }
+
+    @Override
+    public int count() {
+        int[] count = {0};
+        source.forEachWhile(t -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    @Override
+    public T findFirst(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        Box<T> found = new Box<>(null);
+        source.forEachWhile(t -> {
+            if (condition.test(t)) {
+                found.value = t;
+                return false;
+            }
+            return true;
+        });
+        return found.value;
+    }
+
+    @Override
+    public boolean any(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return !source.forEachWhile(t -> !condition.test(t));
+    }
+
+    @Override
+    public boolean all(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return source.forEachWhile(condition);
+    }
+
+    @Override
+    public boolean none(Predicate<T> condition) {
+        return !any(condition);
+    }
+
+    @Override
+    public T reduce(BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        boolean[] foundAny = {false};
+        Box<T> result = new Box<>(null);
+        source.forEachWhile(t -> {
+            if (!foundAny[0]) {
+                foundAny[0] = true;
+                result.value = t;
+            } else {
+                result.value = accumulator.apply(result.value, t);
+            }
+            return true;
+        });
+        return result.value;
+    }
+
+    @Override
+    public <R> R reduce(R init, BiFunction<R, T, R> accumulator) {
+        Objects.requireNonNull(accumulator);
+        Box<R> result = new Box<>(init);
+        source.forEachWhile(t -> {
+            result.value = accumulator.apply(result.value, t);
+            return true;
+        });
+        return result.value;
+    }
+
+    @Override
+    public CharSeq join(CharSequence delimiter, CharSequence prefix, CharSequence suffix) {
+        StringBuilder stringBuilder = new StringBuilder(prefix);
+        boolean[] first = {true};
+        source.forEachWhile(t -> {
+            if (!first[0]) {
+                stringBuilder.append(delimiter);
+            }
+            first[0] = false;
+            stringBuilder.append(t);
+            return true;
+        });
+        stringBuilder.append(suffix);
+        return CharSeq.of(stringBuilder.toString());
+    }
+
+    /**
+     * Holder of a value updated by the lambdas of the terminal operations.
+     */
+    private static final class Box<E> {
+        E value;
+
+        Box(E value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+
+/**
+ * Splits the text of a reader into lines chunk by chunk, with the same rules as {@link CharSeq#eachLine()}.
+ * Only one chunk and the current line are held in memory.
+ */
+final class LineReader {
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private LineReader() {
+    }
+
+    /**
+     * @return the lines of the file, read again by each terminal operation
+     */
+    static LazySeq<CharSeq> lines(Path path, Charset charset) {
+        return new LazySeqImpl<>(sink -> {
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                 Reader reader = Channels.newReader(channel, decoder, CHUNK_SIZE)) {
+                return forEachLineWhile(reader, sink);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @return the lines of the reader, which can only be read once
+     */
+    static LazySeq<CharSeq> lines(Reader reader) {
+        return new LazySeqImpl<>(sink -> {
+            try {
+                return forEachLineWhile(reader, sink);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Pass the lines to the sink in order, until the sink returns false.
+     *
+     * @return false if the sink stopped the iteration, true if all lines are passed
+     */
+    static boolean forEachLineWhile(Reader reader, Predicate<? super CharSeq> sink) throws IOException {
+        char[] chunk = new char[CHUNK_SIZE];
+        // the beginning of the current line, read in the previous chunks
+        StringBuilder partial = new StringBuilder();
+        boolean newlineFound = false;
+        // empty lines are held back until a non-empty one follows, as the trailing empty lines are dropped
+        int emptyLines = 0;
+        int length;
+        while ((length = reader.read(chunk, 0, chunk.length)) >= 0) {
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] != '\n') {
+                    continue;
+                }
+                newlineFound = true;
+                String line;
+                if (partial.length() == 0) {
+                    int end = i > start && chunk[i - 1] == '\r' ? i - 1 : i;
+                    line = new String(chunk, start, end - start);
+                } else {
+                    partial.append(chunk, start, i - start);
+                    if (partial.charAt(partial.length() - 1) == '\r') {
+                        partial.setLength(partial.length() - 1);
+                    }
+                    line = partial.toString();
+                    partial.setLength(0);
+                }
+                start = i + 1;
+                if (line.isEmpty()) {
+                    emptyLines++;
+                    continue;
+                }
+                for (; emptyLines > 0; emptyLines--) {
+                    if (!sink.test(CharSeq.of(""))) {
+                        return false;
+                    }
+                }
+                if (!sink.test(CharSeq.of(line))) {
+                    return false;
+                }
+            }
+            partial.append(chunk, start, length - start);
+        }
+        if (partial.length() == 0 && newlineFound) {
+            return true;
+        }
+        for (; emptyLines > 0; emptyLines--) {
+            if (!sink.test(CharSeq.of(""))) {
+                return false;
+            }
+        }
+        return sink.test(CharSeq.of(partial.toString()));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+/**
+ * A hash from long keys to long values, stored in open-addressing arrays instead of boxed keys, boxed values
+ * and entry nodes. The methods follow those of {@link Hash}.
+ * <p>
+ * The copying methods copy the arrays. The iteration order is the order of the slots, which changes as the hash grows.
+ * </p>
+ */
+public interface LongLongHash {
+    /**
+     * An action on an entry of the hash.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long k, long v);
+    }
+
+    /**
+     * A condition on an entry of the hash.
+     */
+    @FunctionalInterface
+    interface EntryPredicate {
+        boolean test(long k, long v);
+    }
+
+    int size();
+
+    boolean isEmpty();
+
+    boolean containsKey(long k);
+
+    boolean containsValue(long v);
+
+    /**
+     * @return the value of the key, or 0 if the hash does not contain the key
+     */
+    long get(long k);
+
+    /**
+     * @return the value of the key, or defaultValue if the hash does not contain the key
+     */
+    long getOrDefault(long k, long defaultValue);
+
+    /**
+     * @return the keys, in the same order as {@link #values()}
+     */
+    LongSeq keys();
+
+    /**
+     * @return the values, in the same order as {@link #keys()}
+     */
+    LongSeq values();
+
+    /**
+     * Performs the action for each entry, without boxing.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(EntryConsumer action);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#containsAny(java.util.function.BiPredicate)
+     */
+    boolean containsAny(EntryPredicate condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#countIf(java.util.function.BiPredicate)
+     */
+    int countIf(EntryPredicate condition);
+
+    LongLongHash put(long k, long v);
+
+    /**
+     * @return a copy with the key mapped to the value, unless this hash already contains the key
+     */
+    LongLongHash putIfAbsent(long k, long v);
+
+    LongLongHash remove(long k);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#filter(java.util.function.BiPredicate)
+     */
+    LongLongHash filter(EntryPredicate condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#reject(java.util.function.BiPredicate)
+     */
+    LongLongHash reject(EntryPredicate condition);
+
+    /**
+     * @see Hash#merge(Hash)
+     */
+    LongLongHash merge(LongLongHash another);
+}
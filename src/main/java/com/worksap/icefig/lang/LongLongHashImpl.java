@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The implementation of LongLongHash and MutableLongLongHash: an open-addressing table with linear probing.
+ * Removal shifts the following entries of the probe run backwards instead of leaving tombstones,
+ * so that lookups never walk over deleted slots. The key 0 marks free slots, so its entry is kept out of the table.
+ */
+final class LongLongHashImpl implements MutableLongLongHash {
+    private static final int MIN_CAPACITY = 4;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private long[] values;
+    // the slot of a key is the top bits of its hash, shifted by this
+    private int shift;
+    // the number of entries in the table, which grows before exceeding the limit
+    private int used;
+    private int limit;
+
+    private boolean hasFreeKey;
+    private long freeKeyValue;
+
+    LongLongHashImpl() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Create a hash which holds the expected number of entries without growing.
+     *
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    LongLongHashImpl(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize should not be negative.");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity - (capacity >> 2) < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private LongLongHashImpl(LongLongHashImpl another) {
+        keys = another.keys.clone();
+        values = another.values.clone();
+        shift = another.shift;
+        used = another.used;
+        limit = another.limit;
+        hasFreeKey = another.hasFreeKey;
+        freeKeyValue = another.freeKeyValue;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        limit = capacity - (capacity >> 2);
+    }
+
+    private int slot(long k) {
+        return (int) ((k * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private long valueAt(int i) {
+        return values[i];
+    }
+
+    /**
+     * @return the slot of the key, or the bitwise complement of the free slot where it would be put
+     */
+    private int indexOf(long k) {
+        int mask = keys.length - 1;
+        for (int i = slot(k); ; i = (i + 1) & mask) {
+            long key = keys[i];
+            if (key == 0) {
+                return ~i;
+            }
+            if (key == k) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Put a new entry into the free slot i, or into its new free slot if the table has to grow first.
+     */
+    private void insert(int i, long k, long v) {
+        if (used == limit) {
+            grow();
+            i = ~indexOf(k);
+        }
+        keys[i] = k;
+        values[i] = v;
+        used++;
+    }
+
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The hash cannot hold more than " + limit + " entries.");
+        }
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k != 0) {
+                int j = slot(k);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = k;
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Empty the slot, moving back each following entry of the run whose home slot is not between the hole and it.
+     */
+    private void removeAt(int i) {
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (hole <= j ? home <= hole || home > j : home <= hole && home > j) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+        used--;
+    }
+
+    @Override
+    public int size() {
+        return hasFreeKey ? used + 1 : used;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(long k) {
+        return k == 0 ? hasFreeKey : indexOf(k) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(long v) {
+        if (hasFreeKey && freeKeyValue == v) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && values[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long get(long k) {
+        return getOrDefault(k, 0);
+    }
+
+    @Override
+    public long getOrDefault(long k, long defaultValue) {
+        if (k == 0) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int i = indexOf(k);
+        return i >= 0 ? valueAt(i) : defaultValue;
+    }
+
+    @Override
+    public LongSeq keys() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasFreeKey) {
+            result[n++] = 0;
+        }
+        for (long k : keys) {
+            if (k != 0) {
+                result[n++] = k;
+            }
+        }
+        return new LongSeqImpl(result, result.length);
+    }
+
+    @Override
+    public LongSeq values() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasFreeKey) {
+            result[n++] = freeKeyValue;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                result[n++] = values[i];
+            }
+        }
+        return new LongSeqImpl(result, result.length);
+    }
+
+    @Override
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        if (hasFreeKey) {
+            action.accept(0, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean containsAny(EntryPredicate condition) {
+        Objects.requireNonNull(condition);
+        if (hasFreeKey && condition.test(0, freeKeyValue)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && condition.test(keys[i], valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countIf(EntryPredicate condition) {
+        Objects.requireNonNull(condition);
+        int count = hasFreeKey && condition.test(0, freeKeyValue) ? 1 : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && condition.test(keys[i], valueAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public MutableLongLongHash putInPlace(long k, long v) {
+        if (k == 0) {
+            hasFreeKey = true;
+            freeKeyValue = v;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            values[i] = v;
+        } else {
+            insert(~i, k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableLongLongHash putIfAbsentInPlace(long k, long v) {
+        if (k == 0) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                freeKeyValue = v;
+            }
+            return this;
+        }
+        int i = indexOf(k);
+        if (i < 0) {
+            insert(~i, k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableLongLongHash addInPlace(long k, long delta) {
+        if (k == 0) {
+            freeKeyValue = hasFreeKey ? freeKeyValue + delta : delta;
+            hasFreeKey = true;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            values[i] += delta;
+        } else {
+            insert(~i, k, delta);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableLongLongHash removeInPlace(long k) {
+        if (k == 0) {
+            hasFreeKey = false;
+            freeKeyValue = 0;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            removeAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * The scan starts after a free slot, so that each run of entries is visited from its start.
+     * Then the entries moved back by a removal always come from the unvisited part of the run, and are tested at the hole.
+     */
+    @Override
+    public MutableLongLongHash filterInPlace(EntryPredicate condition) {
+        Objects.requireNonNull(condition);
+        if (hasFreeKey && !condition.test(0, freeKeyValue)) {
+            hasFreeKey = false;
+            freeKeyValue = 0;
+        }
+        int mask = keys.length - 1;
+        int start = 0;
+        while (keys[start] != 0) {
+            start++;
+        }
+        for (int n = 0, i = start; n < keys.length; n++) {
+            i = (i + 1) & mask;
+            while (keys[i] != 0 && !condition.test(keys[i], valueAt(i))) {
+                removeAt(i);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public MutableLongLongHash rejectInPlace(EntryPredicate condition) {
+        Objects.requireNonNull(condition);
+        return filterInPlace((k, v) -> !condition.test(k, v));
+    }
+
+    @Override
+    public MutableLongLongHash mergeInPlace(LongLongHash another) {
+        if (another != null) {
+            another.forEach(this::putInPlace);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableLongLongHash clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        used = 0;
+        hasFreeKey = false;
+        freeKeyValue = 0;
+        return this;
+    }
+
+    @Override
+    public MutableLongLongHash put(long k, long v) {
+        return new LongLongHashImpl(this).putInPlace(k, v);
+    }
+
+    @Override
+    public MutableLongLongHash putIfAbsent(long k, long v) {
+        return new LongLongHashImpl(this).putIfAbsentInPlace(k, v);
+    }
+
+    @Override
+    public MutableLongLongHash remove(long k) {
+        return new LongLongHashImpl(this).removeInPlace(k);
+    }
+
+    @Override
+    public MutableLongLongHash filter(EntryPredicate condition) {
+        Objects.requireNonNull(condition);
+        return new LongLongHashImpl(this).filterInPlace(condition);
+    }
+
+    @Override
+    public MutableLongLongHash reject(EntryPredicate condition) {
+        Objects.requireNonNull(condition);
+        return new LongLongHashImpl(this).rejectInPlace(condition);
+    }
+
+    @Override
+    public MutableLongLongHash merge(LongLongHash another) {
+        return new LongLongHashImpl(this).mergeInPlace(another);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof LongLongHash)) {
+            return false;
+        }
+        LongLongHash another = (LongLongHash) o;
+        return size() == another.size() && !containsAny((k, v) -> !another.containsKey(k) || !(v == another.get(k)));
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        forEach((k, v) -> hash[0] += Long.hashCode(k) ^ Long.hashCode(v));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(k).append('=').append(v);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,764 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.*;
+import java.util.stream.LongStream;
+
+/**
+ * The implementation of LongSeq and MutableLongSeq, backed by a growable <tt>long[]</tt>.
+ */
+final class LongSeqImpl implements MutableLongSeq {
+    private static final long[] EMPTY = new long[0];
+
+    private long[] array;
+    private int size;
+
+    LongSeqImpl() {
+        this.array = EMPTY;
+    }
+
+    /**
+     * Create a seq holding the first <tt>size</tt> elements of the array, which is owned by the seq afterwards.
+     */
+    LongSeqImpl(long[] array, int size) {
+        this.array = array;
+        this.size = size;
+    }
+
+    static LongSeqImpl of(long[] values) {
+        return new LongSeqImpl(Arrays.copyOf(values, values.length), values.length);
+    }
+
+    private LongSeqImpl copy() {
+        return new LongSeqImpl(toArray(), size);
+    }
+
+    private static boolean same(long a, long b) {
+        return Long.compare(a, b) == 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > array.length) {
+            array = Arrays.copyOf(array, Math.max(capacity, Math.max(10, array.length + (array.length >> 1))));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public long get(int index) {
+        if (index >= size || index < -size)
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size + ", should be within [" + (-size) + ", " + size + ")");
+        return index >= 0 ? array[index] : array[size + index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public MutableLongSeq map(LongUnaryOperator func) {
+        Objects.requireNonNull(func);
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = func.applyAsLong(array[i]);
+        }
+        return new LongSeqImpl(result, size);
+    }
+
+    @Override
+    public <R> Seq<R> mapToObj(LongFunction<R> func) {
+        Objects.requireNonNull(func);
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = func.apply(array[i]);
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public MutableLongSeq flatMap(LongFunction<LongSeq> func) {
+        Objects.requireNonNull(func);
+        LongSeqImpl result = new LongSeqImpl();
+        for (int i = 0; i < size; i++) {
+            result.appendInPlace(func.apply(array[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalLong sample() {
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(array[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Override
+    public MutableLongSeq sample(int n) {
+        return shuffle().subSeq(0, Math.min(n, size));
+    }
+
+    @Override
+    public MutableLongSeq shuffle() {
+        return copy().shuffleInPlace();
+    }
+
+    @Override
+    public long[] toArray() {
+        return Arrays.copyOf(array, size);
+    }
+
+    @Override
+    public Seq<Long> boxed() {
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = array[i];
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public LongStream stream() {
+        return Arrays.stream(array, 0, size);
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < size; i++) {
+            action.accept(array[i]);
+        }
+    }
+
+    @Override
+    public void forEachReverse(LongConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = size - 1; i >= 0; i--) {
+            action.accept(array[i]);
+        }
+    }
+
+    @Override
+    public MutableSeq<MutableLongSeq> eachCons(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be positive number!");
+        }
+        MutableSeq<MutableLongSeq> result = new SeqImpl<>();
+        for (int i = 0; i <= size - n; i++) {
+            result.appendInPlace(subSeq(i, i + n));
+        }
+        return result;
+    }
+
+    @Override
+    public MutableLongSeq sort() {
+        return copy().sortInPlace();
+    }
+
+    @Override
+    public MutableLongSeq distinct() {
+        long[] result = distinctArray();
+        return new LongSeqImpl(result, result.length);
+    }
+
+    /**
+     * @return the distinct elements in the order of their first occurrence, found through a sorted copy
+     * of the elements instead of a hash set of boxed values
+     */
+    private long[] distinctArray() {
+        long[] sorted = toArray();
+        int unique = sortUnique(sorted);
+        BitSet seen = new BitSet(unique);
+        long[] result = new long[unique];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int pos = Arrays.binarySearch(sorted, 0, unique, array[i]);
+            if (!seen.get(pos)) {
+                seen.set(pos);
+                result[count++] = array[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sort the array and move its distinct elements to the front.
+     *
+     * @return the number of distinct elements
+     */
+    private static int sortUnique(long[] values) {
+        Arrays.sort(values);
+        int unique = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (unique == 0 || !same(values[i], values[unique - 1])) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique;
+    }
+
+    @Override
+    public int findFirstIndex(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        for (int i = 0; i < size; i++) {
+            if (condition.test(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int findLastIndex(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        for (int i = size - 1; i >= 0; i--) {
+            if (condition.test(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public MutableLongSeq append(long value) {
+        return copy().appendInPlace(value);
+    }
+
+    @Override
+    public MutableLongSeq append(long... values) {
+        return copy().appendInPlace(values);
+    }
+
+    @Override
+    public MutableLongSeq append(LongSeq seq) {
+        return copy().appendInPlace(seq);
+    }
+
+    @Override
+    public MutableLongSeq prepend(long value) {
+        return copy().prependInPlace(value);
+    }
+
+    @Override
+    public MutableLongSeq prepend(long... values) {
+        return copy().prependInPlace(values);
+    }
+
+    @Override
+    public MutableLongSeq prepend(LongSeq seq) {
+        return copy().prependInPlace(seq);
+    }
+
+    @Override
+    public MutableLongSeq subSeq(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+        if (toIndex > size)
+            throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        return new LongSeqImpl(Arrays.copyOfRange(array, fromIndex, toIndex), toIndex - fromIndex);
+    }
+
+    @Override
+    public MutableLongSeq reject(LongPredicate condition) {
+        return copy().rejectInPlace(condition);
+    }
+
+    @Override
+    public MutableLongSeq rejectWhile(LongPredicate condition) {
+        return copy().rejectWhileInPlace(condition);
+    }
+
+    @Override
+    public MutableLongSeq filter(LongPredicate condition) {
+        return copy().filterInPlace(condition);
+    }
+
+    @Override
+    public MutableLongSeq filterWhile(LongPredicate condition) {
+        return copy().filterWhileInPlace(condition);
+    }
+
+    @Override
+    public MutableLongSeq repeat(int times) {
+        return copy().repeatInPlace(times);
+    }
+
+    @Override
+    public int count(long value) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (same(array[i], value))
+                count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int countIf(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (condition.test(array[i]))
+                count++;
+        }
+        return count;
+    }
+
+    @Override
+    public MutableSeq<MutableLongSeq> eachSlice(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("n should be a positive number.");
+        MutableSeq<MutableLongSeq> result = new SeqImpl<>();
+        for (int i = 0; i < size; i += n) {
+            result.appendInPlace(subSeq(i, i + n > size ? size : i + n));
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalLong reduce(LongBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator);
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+        long result = array[0];
+        for (int i = 1; i < size; i++) {
+            result = accumulator.applyAsLong(result, array[i]);
+        }
+        return OptionalLong.of(result);
+    }
+
+    @Override
+    public long reduce(long init, LongBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator);
+        long result = init;
+        for (int i = 0; i < size; i++) {
+            result = accumulator.applyAsLong(result, array[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public MutableLongSeq reverse() {
+        return copy().reverseInPlace();
+    }
+
+    @Override
+    public boolean any(LongPredicate condition) {
+        return findFirstIndex(condition) >= 0;
+    }
+
+    @Override
+    public boolean all(LongPredicate condition) {
+        return findFirstIndex(condition.negate()) < 0;
+    }
+
+    @Override
+    public boolean none(LongPredicate condition) {
+        return findFirstIndex(condition) < 0;
+    }
+
+    @Override
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (same(array[i], value))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(long value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (same(array[i], value))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOfSubSeq(LongSeq seq) {
+        // Knuth-Morris-Pratt
+        long[] pattern = seq.toArray();
+        int len = pattern.length;
+        if (len == 0) {
+            return 0;
+        }
+        int[] failure = failure(pattern);
+        for (int i = 0, k = 0; i < size; i++) {
+            while (k > 0 && !same(array[i], pattern[k])) {
+                k = failure[k - 1];
+            }
+            if (same(array[i], pattern[k]) && ++k == len) {
+                return i - len + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOfSubSeq(LongSeq seq) {
+        // Knuth-Morris-Pratt from the end, with the reversed pattern
+        long[] pattern = seq.toArray();
+        int len = pattern.length;
+        if (len == 0) {
+            return 0;
+        }
+        for (int i = 0, j = len - 1; i < j; i++, j--) {
+            long temp = pattern[i];
+            pattern[i] = pattern[j];
+            pattern[j] = temp;
+        }
+        int[] failure = failure(pattern);
+        for (int i = size - 1, k = 0; i >= 0; i--) {
+            while (k > 0 && !same(array[i], pattern[k])) {
+                k = failure[k - 1];
+            }
+            if (same(array[i], pattern[k]) && ++k == len) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the length of the longest proper border of each prefix of the pattern
+     */
+    private static int[] failure(long[] pattern) {
+        int[] failure = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && !same(pattern[i], pattern[k])) {
+                k = failure[k - 1];
+            }
+            if (same(pattern[i], pattern[k])) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+
+    @Override
+    public MutableLongSeq intersect(LongSeq seq) {
+        return multisetFilter(seq, true);
+    }
+
+    @Override
+    public MutableLongSeq difference(LongSeq seq) {
+        return multisetFilter(seq, false);
+    }
+
+    /**
+     * Keep each element which is matched (or not matched) by a remaining occurrence in another seq,
+     * consuming the occurrence. The occurrences are counted on a sorted copy of the other seq.
+     */
+    private MutableLongSeq multisetFilter(LongSeq seq, boolean keepMatched) {
+        Objects.requireNonNull(seq);
+        long[] keys = seq.toArray();
+        int[] counts = new int[keys.length];
+        Arrays.sort(keys);
+        int unique = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (unique == 0 || !same(keys[i], keys[unique - 1])) {
+                keys[unique++] = keys[i];
+            }
+            counts[unique - 1]++;
+        }
+
+        LongSeqImpl result = new LongSeqImpl();
+        for (int i = 0; i < size; i++) {
+            int pos = Arrays.binarySearch(keys, 0, unique, array[i]);
+            boolean matched = pos >= 0 && counts[pos] > 0;
+            if (matched) {
+                counts[pos]--;
+            }
+            if (matched == keepMatched) {
+                result.appendInPlace(array[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalLong max() {
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+        long candidate = array[0];
+        for (int i = 1; i < size; i++) {
+            if (Long.compare(array[i], candidate) > 0) {
+                candidate = array[i];
+            }
+        }
+        return OptionalLong.of(candidate);
+    }
+
+    @Override
+    public OptionalLong min() {
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+        long candidate = array[0];
+        for (int i = 1; i < size; i++) {
+            if (Long.compare(array[i], candidate) < 0) {
+                candidate = array[i];
+            }
+        }
+        return OptionalLong.of(candidate);
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public MutableLongSeq swap(int i, int j) {
+        return copy().swapInPlace(i, j);
+    }
+
+    @Override
+    public MutableLongSeq rotate(int distance) {
+        return copy().rotateInPlace(distance);
+    }
+
+    @Override
+    public MutableLongSeq mapInPlace(LongUnaryOperator func) {
+        Objects.requireNonNull(func);
+        for (int i = 0; i < size; i++) {
+            array[i] = func.applyAsLong(array[i]);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq appendInPlace(long value) {
+        ensureCapacity(size + 1);
+        array[size++] = value;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq appendInPlace(long... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, array, size, values.length);
+        size += values.length;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq appendInPlace(LongSeq seq) {
+        return appendInPlace(seq.toArray());
+    }
+
+    @Override
+    public MutableLongSeq prependInPlace(long value) {
+        ensureCapacity(size + 1);
+        System.arraycopy(array, 0, array, 1, size);
+        array[0] = value;
+        size++;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq prependInPlace(long... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(array, 0, array, values.length, size);
+        System.arraycopy(values, 0, array, 0, values.length);
+        size += values.length;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq prependInPlace(LongSeq seq) {
+        return prependInPlace(seq.toArray());
+    }
+
+    @Override
+    public MutableLongSeq clear() {
+        array = EMPTY;
+        size = 0;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq set(int i, long value) {
+        checkIndex(i);
+        array[i] = value;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq shuffleInPlace() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = size - 1; i > 0; i--) {
+            swapElements(i, random.nextInt(i + 1));
+        }
+        return this;
+    }
+
+    private void swapElements(int i, int j) {
+        long tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    @Override
+    public MutableLongSeq reverseInPlace() {
+        reverseRange(0, size);
+        return this;
+    }
+
+    private void reverseRange(int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            swapElements(i, j);
+        }
+    }
+
+    @Override
+    public MutableLongSeq distinctInPlace() {
+        array = distinctArray();
+        size = array.length;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq repeatInPlace(int times) {
+        if (times <= 0)
+            throw new IllegalArgumentException("times must be a positive number.");
+        ensureCapacity(Math.multiplyExact(size, times));
+        for (int i = 1; i < times; i++) {
+            System.arraycopy(array, 0, array, size * i, size);
+        }
+        size *= times;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq sortInPlace() {
+        Arrays.sort(array, 0, size);
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq filterInPlace(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (condition.test(array[i])) {
+                array[kept++] = array[i];
+            }
+        }
+        size = kept;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq filterWhileInPlace(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        int kept = 0;
+        while (kept < size && condition.test(array[kept])) {
+            kept++;
+        }
+        size = kept;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq rejectInPlace(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        return filterInPlace(condition.negate());
+    }
+
+    @Override
+    public MutableLongSeq rejectWhileInPlace(LongPredicate condition) {
+        Objects.requireNonNull(condition);
+        int rejected = 0;
+        while (rejected < size && condition.test(array[rejected])) {
+            rejected++;
+        }
+        System.arraycopy(array, rejected, array, 0, size - rejected);
+        size -= rejected;
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq swapInPlace(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        swapElements(i, j);
+        return this;
+    }
+
+    @Override
+    public MutableLongSeq rotateInPlace(int distance) {
+        if (size == 0) {
+            return this;
+        }
+        distance = distance % size;
+        if (distance < 0) {
+            distance += size;
+        }
+        reverseRange(0, size);
+        reverseRange(0, distance);
+        reverseRange(distance, size);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongSeq)) return false;
+        LongSeq another = (LongSeq) o;
+        if (size != another.size()) return false;
+        for (int i = 0; i < size; i++) {
+            if (!same(array[i], another.get(i))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < size; i++) {
+            hashCode = 31 * hashCode + Long.hashCode(array[i]);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return join(", ", "[", "]").toString();
+    }
+}
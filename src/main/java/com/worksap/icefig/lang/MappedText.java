@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only text backed by a memory-mapped UTF-8 file, so that the characters are never copied onto the heap as a whole.
+ * <p>
+ * The file is mapped in windows, as a single buffer cannot be larger than 2 GB. If every byte is ASCII,
+ * the character at an index is the byte at the same offset. Otherwise the file is divided into blocks starting
+ * at character boundaries, with the index of the first character of each block, and a block is decoded when
+ * one of its characters is accessed.
+ * </p>
+ * <p>
+ * A slice shares the mapping of the whole file.
+ * </p>
+ */
+final class MappedText implements CharSequence {
+    static final int DEFAULT_WINDOW_SHIFT = 30;
+
+    /**
+     * The number of bytes decoded at a time, before moving the end back to a character boundary.
+     */
+    static final int BLOCK_SIZE = 1 << 14;
+
+    private final Mapping mapping;
+    private final int offset;
+    private final int length;
+
+    private MappedText(Mapping mapping, int offset, int length) {
+        this.mapping = mapping;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file has more characters than a CharSequence can hold
+     */
+    static MappedText open(Path path) throws IOException {
+        return open(path, DEFAULT_WINDOW_SHIFT);
+    }
+
+    static MappedText open(Path path, int windowShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Mapping mapping = new Mapping(channel, windowShift);
+            return new MappedText(mapping, 0, mapping.length);
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return mapping.charAt(offset + index);
+    }
+
+    /**
+     * @return the slice as a string if it is short, otherwise as a text sharing the mapping
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+        }
+        if (start == 0 && end == length) {
+            return this;
+        }
+        if (end - start < Rope.FLAT_LIMIT) {
+            return copy(start, end);
+        }
+        return new MappedText(mapping, offset + start, end - start);
+    }
+
+    private String copy(int start, int end) {
+        char[] result = new char[end - start];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = mapping.charAt(offset + start + i);
+        }
+        return new String(result);
+    }
+
+    /**
+     * @return the characters copied into a new string
+     */
+    @Override
+    public String toString() {
+        return copy(0, length);
+    }
+
+    private static final class Mapping {
+        private final int windowShift;
+        private final MappedByteBuffer[] windows;
+        private final int length;
+
+        // the byte offset and the index of the first character of each block, followed by the totals;
+        // both are null if the file is all ASCII
+        private final long[] blockStarts;
+        private final int[] charStarts;
+
+        // the last decoded block, replaced as a whole so that it can be read without locking
+        private volatile Block cached;
+
+        Mapping(FileChannel channel, int windowShift) throws IOException {
+            this.windowShift = windowShift;
+            long size = channel.size();
+            long windowSize = 1L << windowShift;
+            // the windows overlap, so that any block is inside the window of its first byte
+            long overlap = 2 * BLOCK_SIZE;
+            windows = new MappedByteBuffer[(int) ((size + windowSize - 1) >>> windowShift)];
+            for (int i = 0; i < windows.length; i++) {
+                long position = (long) i << windowShift;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, windowSize + overlap));
+            }
+
+            int blockCount = (int) ((size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            long[] starts = new long[blockCount + 1];
+            int[] chars = new int[blockCount + 1];
+            CharsetDecoder decoder = newDecoder();
+            CharBuffer out = CharBuffer.allocate(BLOCK_SIZE + 4);
+            boolean ascii = true;
+            long charCount = 0;
+            for (int i = 0; i < blockCount; i++) {
+                long from = i == 0 ? 0 : boundary((long) i * BLOCK_SIZE);
+                long to = i == blockCount - 1 ? size : boundary((long) (i + 1) * BLOCK_SIZE);
+                starts[i] = from;
+                chars[i] = (int) charCount;
+                ByteBuffer in = bytes(from, to);
+                if (isAscii(in)) {
+                    charCount += to - from;
+                } else {
+                    ascii = false;
+                    out.clear();
+                    decoder.reset();
+                    decoder.decode(in, out, true);
+                    decoder.flush(out);
+                    charCount += out.position();
+                }
+                if (charCount > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("The file has more than " + Integer.MAX_VALUE + " characters.");
+                }
+            }
+            starts[blockCount] = size;
+            chars[blockCount] = (int) charCount;
+            this.length = (int) charCount;
+            this.blockStarts = ascii ? null : starts;
+            this.charStarts = ascii ? null : chars;
+        }
+
+        private static CharsetDecoder newDecoder() {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        private static boolean isAscii(ByteBuffer bytes) {
+            for (int i = bytes.position(); i < bytes.limit(); i++) {
+                if (bytes.get(i) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private byte byteAt(long position) {
+            return windows[(int) (position >>> windowShift)].get((int) (position & ((1L << windowShift) - 1)));
+        }
+
+        /**
+         * @return the position moved back over at most 3 continuation bytes, to the start of a UTF-8 sequence
+         */
+        private long boundary(long position) {
+            for (int i = 0; i < 3 && (byteAt(position) & 0xc0) == 0x80; i++) {
+                position--;
+            }
+            return position;
+        }
+
+        /**
+         * @return the bytes [from, to), which must be inside the window of the first byte
+         */
+        private ByteBuffer bytes(long from, long to) {
+            int window = (int) (from >>> windowShift);
+            int start = (int) (from - ((long) window << windowShift));
+            ByteBuffer bytes = windows[window].duplicate();
+            bytes.limit(start + (int) (to - from)).position(start);
+            return bytes;
+        }
+
+        char charAt(int index) {
+            if (charStarts == null) {
+                return (char) byteAt(index);
+            }
+            Block block = cached;
+            if (block == null || index < block.charStart || index - block.charStart >= block.chars.length) {
+                block = decode(index);
+                cached = block;
+            }
+            return block.chars[index - block.charStart];
+        }
+
+        private Block decode(int index) {
+            int found = Arrays.binarySearch(charStarts, index);
+            // the last block starting at or before the index
+            int i = found >= 0 ? found : -found - 2;
+            char[] chars = new char[charStarts[i + 1] - charStarts[i]];
+            CharsetDecoder decoder = newDecoder();
+            CharBuffer out = CharBuffer.wrap(chars);
+            decoder.decode(bytes(blockStarts[i], blockStarts[i + 1]), out, true);
+            decoder.flush(out);
+            return new Block(charStarts[i], chars);
+        }
+    }
+
+    private static final class Block {
+        final int charStart;
+        final char[] chars;
+
+        Block(int charStart, char[] chars) {
+            this.charStart = charStart;
+            this.chars = chars;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Mutable version of {@link DoubleSeq}, with the in-place methods of {@link MutableSeq}.
+ */
+public interface MutableDoubleSeq extends DoubleSeq {
+    @Override
+    MutableDoubleSeq map(DoubleUnaryOperator func);
+
+    @Override
+    MutableDoubleSeq flatMap(DoubleFunction<DoubleSeq> func);
+
+    @Override
+    MutableDoubleSeq sample(int n);
+
+    @Override
+    MutableDoubleSeq shuffle();
+
+    @Override
+    MutableSeq<MutableDoubleSeq> eachCons(int n);
+
+    @Override
+    MutableDoubleSeq sort();
+
+    @Override
+    MutableDoubleSeq distinct();
+
+    @Override
+    MutableDoubleSeq append(double value);
+
+    @Override
+    MutableDoubleSeq append(double... values);
+
+    @Override
+    MutableDoubleSeq append(DoubleSeq seq);
+
+    @Override
+    MutableDoubleSeq prepend(double value);
+
+    @Override
+    MutableDoubleSeq prepend(double... values);
+
+    @Override
+    MutableDoubleSeq prepend(DoubleSeq seq);
+
+    @Override
+    MutableDoubleSeq subSeq(int fromIndex, int toIndex);
+
+    @Override
+    MutableDoubleSeq reject(DoublePredicate condition);
+
+    @Override
+    MutableDoubleSeq rejectWhile(DoublePredicate condition);
+
+    @Override
+    MutableDoubleSeq filter(DoublePredicate condition);
+
+    @Override
+    MutableDoubleSeq filterWhile(DoublePredicate condition);
+
+    @Override
+    MutableDoubleSeq repeat(int times);
+
+    @Override
+    MutableSeq<MutableDoubleSeq> eachSlice(int n);
+
+    @Override
+    MutableDoubleSeq reverse();
+
+    @Override
+    MutableDoubleSeq intersect(DoubleSeq seq);
+
+    @Override
+    MutableDoubleSeq difference(DoubleSeq seq);
+
+    @Override
+    MutableDoubleSeq swap(int i, int j);
+
+    @Override
+    MutableDoubleSeq rotate(int distance);
+
+    /**
+     * In-place method of {@link #map(DoubleUnaryOperator)}
+     */
+    MutableDoubleSeq mapInPlace(DoubleUnaryOperator func);
+
+    /**
+     * In-place method of {@link #append(double)}
+     */
+    MutableDoubleSeq appendInPlace(double value);
+
+    /**
+     * In-place method of {@link #append(double...)}
+     */
+    MutableDoubleSeq appendInPlace(double... values);
+
+    /**
+     * In-place method of {@link #append(DoubleSeq)}
+     */
+    MutableDoubleSeq appendInPlace(DoubleSeq seq);
+
+    /**
+     * In-place method of {@link #prepend(double)}
+     */
+    MutableDoubleSeq prependInPlace(double value);
+
+    /**
+     * In-place method of {@link #prepend(double...)}
+     */
+    MutableDoubleSeq prependInPlace(double... values);
+
+    /**
+     * In-place method of {@link #prepend(DoubleSeq)}
+     */
+    MutableDoubleSeq prependInPlace(DoubleSeq seq);
+
+    /**
+     * Removes all of the elements from this seq.
+     */
+    MutableDoubleSeq clear();
+
+    /**
+     * Update the element at the index.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    MutableDoubleSeq set(int i, double value);
+
+    /**
+     * In-place method of {@link #shuffle()}
+     */
+    MutableDoubleSeq shuffleInPlace();
+
+    /**
+     * In-place method of {@link #reverse()}
+     */
+    MutableDoubleSeq reverseInPlace();
+
+    /**
+     * In-place method of {@link #distinct()}
+     */
+    MutableDoubleSeq distinctInPlace();
+
+    /**
+     * In-place method of {@link #repeat(int)}
+     */
+    MutableDoubleSeq repeatInPlace(int times);
+
+    /**
+     * In-place method of {@link #sort()}
+     */
+    MutableDoubleSeq sortInPlace();
+
+    /**
+     * In-place method of {@link #filter(DoublePredicate)}
+     */
+    MutableDoubleSeq filterInPlace(DoublePredicate condition);
+
+    /**
+     * In-place method of {@link #filterWhile(DoublePredicate)}
+     */
+    MutableDoubleSeq filterWhileInPlace(DoublePredicate condition);
+
+    /**
+     * In-place method of {@link #reject(DoublePredicate)}
+     */
+    MutableDoubleSeq rejectInPlace(DoublePredicate condition);
+
+    /**
+     * In-place method of {@link #rejectWhile(DoublePredicate)}
+     */
+    MutableDoubleSeq rejectWhileInPlace(DoublePredicate condition);
+
+    /**
+     * In-place method of {@link #swap(int, int)}
+     */
+    MutableDoubleSeq swapInPlace(int i, int j);
+
+    /**
+     * In-place method of {@link #rotate(int)}
+     */
+    MutableDoubleSeq rotateInPlace(int distance);
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+/**
+ * Mutable version of {@link IntObjHash}, with the in-place methods of {@link MutableHash}.
+ */
+public interface MutableIntObjHash<V> extends IntObjHash<V> {
+    @Override
+    MutableIntObjHash<V> put(int k, V v);
+
+    @Override
+    MutableIntObjHash<V> putIfAbsent(int k, V v);
+
+    @Override
+    MutableIntObjHash<V> remove(int k);
+
+    @Override
+    MutableIntObjHash<V> filter(EntryPredicate<V> condition);
+
+    @Override
+    MutableIntObjHash<V> reject(EntryPredicate<V> condition);
+
+    @Override
+    MutableIntObjHash<V> merge(IntObjHash<? extends V> another);
+
+    /**
+     * In-place method of {@link #put(int, V)}
+     */
+    MutableIntObjHash<V> putInPlace(int k, V v);
+
+    /**
+     * In-place method of {@link #putIfAbsent(int, V)}
+     */
+    MutableIntObjHash<V> putIfAbsentInPlace(int k, V v);
+
+    /**
+     * In-place method of {@link #remove(int)}
+     */
+    MutableIntObjHash<V> removeInPlace(int k);
+
+    /**
+     * In-place method of {@link #filter(EntryPredicate)}
+     */
+    MutableIntObjHash<V> filterInPlace(EntryPredicate<V> condition);
+
+    /**
+     * In-place method of {@link #reject(EntryPredicate)}
+     */
+    MutableIntObjHash<V> rejectInPlace(EntryPredicate<V> condition);
+
+    /**
+     * In-place method of {@link #merge(IntObjHash)}
+     */
+    MutableIntObjHash<V> mergeInPlace(IntObjHash<? extends V> another);
+
+    /**
+     * Remove all the entries. The capacity is kept.
+     *
+     * @return the hash itself after clear
+     */
+    MutableIntObjHash<V> clear();
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Mutable version of {@link IntSeq}, with the in-place methods of {@link MutableSeq}.
+ */
+public interface MutableIntSeq extends IntSeq {
+    @Override
+    MutableIntSeq map(IntUnaryOperator func);
+
+    @Override
+    MutableIntSeq flatMap(IntFunction<IntSeq> func);
+
+    @Override
+    MutableIntSeq sample(int n);
+
+    @Override
+    MutableIntSeq shuffle();
+
+    @Override
+    MutableSeq<MutableIntSeq> eachCons(int n);
+
+    @Override
+    MutableIntSeq sort();
+
+    @Override
+    MutableIntSeq distinct();
+
+    @Override
+    MutableIntSeq append(int value);
+
+    @Override
+    MutableIntSeq append(int... values);
+
+    @Override
+    MutableIntSeq append(IntSeq seq);
+
+    @Override
+    MutableIntSeq prepend(int value);
+
+    @Override
+    MutableIntSeq prepend(int... values);
+
+    @Override
+    MutableIntSeq prepend(IntSeq seq);
+
+    @Override
+    MutableIntSeq subSeq(int fromIndex, int toIndex);
+
+    @Override
+    MutableIntSeq reject(IntPredicate condition);
+
+    @Override
+    MutableIntSeq rejectWhile(IntPredicate condition);
+
+    @Override
+    MutableIntSeq filter(IntPredicate condition);
+
+    @Override
+    MutableIntSeq filterWhile(IntPredicate condition);
+
+    @Override
+    MutableIntSeq repeat(int times);
+
+    @Override
+    MutableSeq<MutableIntSeq> eachSlice(int n);
+
+    @Override
+    MutableIntSeq reverse();
+
+    @Override
+    MutableIntSeq intersect(IntSeq seq);
+
+    @Override
+    MutableIntSeq difference(IntSeq seq);
+
+    @Override
+    MutableIntSeq swap(int i, int j);
+
+    @Override
+    MutableIntSeq rotate(int distance);
+
+    /**
+     * In-place method of {@link #map(IntUnaryOperator)}
+     */
+    MutableIntSeq mapInPlace(IntUnaryOperator func);
+
+    /**
+     * In-place method of {@link #append(int)}
+     */
+    MutableIntSeq appendInPlace(int value);
+
+    /**
+     * In-place method of {@link #append(int...)}
+     */
+    MutableIntSeq appendInPlace(int... values);
+
+    /**
+     * In-place method of {@link #append(IntSeq)}
+     */
+    MutableIntSeq appendInPlace(IntSeq seq);
+
+    /**
+     * In-place method of {@link #prepend(int)}
+     */
+    MutableIntSeq prependInPlace(int value);
+
+    /**
+     * In-place method of {@link #prepend(int...)}
+     */
+    MutableIntSeq prependInPlace(int... values);
+
+    /**
+     * In-place method of {@link #prepend(IntSeq)}
+     */
+    MutableIntSeq prependInPlace(IntSeq seq);
+
+    /**
+     * Removes all of the elements from this seq.
+     */
+    MutableIntSeq clear();
+
+    /**
+     * Update the element at the index.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    MutableIntSeq set(int i, int value);
+
+    /**
+     * In-place method of {@link #shuffle()}
+     */
+    MutableIntSeq shuffleInPlace();
+
+    /**
+     * In-place method of {@link #reverse()}
+     */
+    MutableIntSeq reverseInPlace();
+
+    /**
+     * In-place method of {@link #distinct()}
+     */
+    MutableIntSeq distinctInPlace();
+
+    /**
+     * In-place method of {@link #repeat(int)}
+     */
+    MutableIntSeq repeatInPlace(int times);
+
+    /**
+     * In-place method of {@link #sort()}
+     */
+    MutableIntSeq sortInPlace();
+
+    /**
+     * In-place method of {@link #filter(IntPredicate)}
+     */
+    MutableIntSeq filterInPlace(IntPredicate condition);
+
+    /**
+     * In-place method of {@link #filterWhile(IntPredicate)}
+     */
+    MutableIntSeq filterWhileInPlace(IntPredicate condition);
+
+    /**
+     * In-place method of {@link #reject(IntPredicate)}
+     */
+    MutableIntSeq rejectInPlace(IntPredicate condition);
+
+    /**
+     * In-place method of {@link #rejectWhile(IntPredicate)}
+     */
+    MutableIntSeq rejectWhileInPlace(IntPredicate condition);
+
+    /**
+     * In-place method of {@link #swap(int, int)}
+     */
+    MutableIntSeq swapInPlace(int i, int j);
+
+    /**
+     * In-place method of {@link #rotate(int)}
+     */
+    MutableIntSeq rotateInPlace(int distance);
+}
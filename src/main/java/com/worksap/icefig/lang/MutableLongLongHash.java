@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+/**
+ * Mutable version of {@link LongLongHash}, with the in-place methods of {@link MutableHash}.
+ */
+public interface MutableLongLongHash extends LongLongHash {
+    @Override
+    MutableLongLongHash put(long k, long v);
+
+    @Override
+    MutableLongLongHash putIfAbsent(long k, long v);
+
+    @Override
+    MutableLongLongHash remove(long k);
+
+    @Override
+    MutableLongLongHash filter(EntryPredicate condition);
+
+    @Override
+    MutableLongLongHash reject(EntryPredicate condition);
+
+    @Override
+    MutableLongLongHash merge(LongLongHash another);
+
+    /**
+     * In-place method of {@link #put(long, long)}
+     */
+    MutableLongLongHash putInPlace(long k, long v);
+
+    /**
+     * In-place method of {@link #putIfAbsent(long, long)}
+     */
+    MutableLongLongHash putIfAbsentInPlace(long k, long v);
+
+    /**
+     * Add delta to the value of the key, which is treated as 0 if the hash does not contain the key.
+     */
+    MutableLongLongHash addInPlace(long k, long delta);
+
+    /**
+     * In-place method of {@link #remove(long)}
+     */
+    MutableLongLongHash removeInPlace(long k);
+
+    /**
+     * In-place method of {@link #filter(EntryPredicate)}
+     */
+    MutableLongLongHash filterInPlace(EntryPredicate condition);
+
+    /**
+     * In-place method of {@link #reject(EntryPredicate)}
+     */
+    MutableLongLongHash rejectInPlace(EntryPredicate condition);
+
+    /**
+     * In-place method of {@link #merge(LongLongHash)}
+     */
+    MutableLongLongHash mergeInPlace(LongLongHash another);
+
+    /**
+     * Remove all the entries. The capacity is kept.
+     *
+     * @return the hash itself after clear
+     */
+    MutableLongLongHash clear();
+}
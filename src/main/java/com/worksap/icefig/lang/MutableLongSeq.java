@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Mutable version of {@link LongSeq}, with the in-place methods of {@link MutableSeq}.
+ */
+public interface MutableLongSeq extends LongSeq {
+    @Override
+    MutableLongSeq map(LongUnaryOperator func);
+
+    @Override
+    MutableLongSeq flatMap(LongFunction<LongSeq> func);
+
+    @Override
+    MutableLongSeq sample(int n);
+
+    @Override
+    MutableLongSeq shuffle();
+
+    @Override
+    MutableSeq<MutableLongSeq> eachCons(int n);
+
+    @Override
+    MutableLongSeq sort();
+
+    @Override
+    MutableLongSeq distinct();
+
+    @Override
+    MutableLongSeq append(long value);
+
+    @Override
+    MutableLongSeq append(long... values);
+
+    @Override
+    MutableLongSeq append(LongSeq seq);
+
+    @Override
+    MutableLongSeq prepend(long value);
+
+    @Override
+    MutableLongSeq prepend(long... values);
+
+    @Override
+    MutableLongSeq prepend(LongSeq seq);
+
+    @Override
+    MutableLongSeq subSeq(int fromIndex, int toIndex);
+
+    @Override
+    MutableLongSeq reject(LongPredicate condition);
+
+    @Override
+    MutableLongSeq rejectWhile(LongPredicate condition);
+
+    @Override
+    MutableLongSeq filter(LongPredicate condition);
+
+    @Override
+    MutableLongSeq filterWhile(LongPredicate condition);
+
+    @Override
+    MutableLongSeq repeat(int times);
+
+    @Override
+    MutableSeq<MutableLongSeq> eachSlice(int n);
+
+    @Override
+    MutableLongSeq reverse();
+
+    @Override
+    MutableLongSeq intersect(LongSeq seq);
+
+    @Override
+    MutableLongSeq difference(LongSeq seq);
+
+    @Override
+    MutableLongSeq swap(int i, int j);
+
+    @Override
+    MutableLongSeq rotate(int distance);
+
+    /**
+     * In-place method of {@link #map(LongUnaryOperator)}
+     */
+    MutableLongSeq mapInPlace(LongUnaryOperator func);
+
+    /**
+     * In-place method of {@link #append(long)}
+     */
+    MutableLongSeq appendInPlace(long value);
+
+    /**
+     * In-place method of {@link #append(long...)}
+     */
+    MutableLongSeq appendInPlace(long... values);
+
+    /**
+     * In-place method of {@link #append(LongSeq)}
+     */
+    MutableLongSeq appendInPlace(LongSeq seq);
+
+    /**
+     * In-place method of {@link #prepend(long)}
+     */
+    MutableLongSeq prependInPlace(long value);
+
+    /**
+     * In-place method of {@link #prepend(long...)}
+     */
+    MutableLongSeq prependInPlace(long... values);
+
+    /**
+     * In-place method of {@link #prepend(LongSeq)}
+     */
+    MutableLongSeq prependInPlace(LongSeq seq);
+
+    /**
+     * Removes all of the elements from this seq.
+     */
+    MutableLongSeq clear();
+
+    /**
+     * Update the element at the index.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    MutableLongSeq set(int i, long value);
+
+    /**
+     * In-place method of {@link #shuffle()}
+     */
+    MutableLongSeq shuffleInPlace();
+
+    /**
+     * In-place method of {@link #reverse()}
+     */
+    MutableLongSeq reverseInPlace();
+
+    /**
+     * In-place method of {@link #distinct()}
+     */
+    MutableLongSeq distinctInPlace();
+
+    /**
+     * In-place method of {@link #repeat(int)}
+     */
+    MutableLongSeq repeatInPlace(int times);
+
+    /**
+     * In-place method of {@link #sort()}
+     */
+    MutableLongSeq sortInPlace();
+
+    /**
+     * In-place method of {@link #filter(LongPredicate)}
+     */
+    MutableLongSeq filterInPlace(LongPredicate condition);
+
+    /**
+     * In-place method of {@link #filterWhile(LongPredicate)}
+     */
+    MutableLongSeq filterWhileInPlace(LongPredicate condition);
+
+    /**
+     * In-place method of {@link #reject(LongPredicate)}
+     */
+    MutableLongSeq rejectInPlace(LongPredicate condition);
+
+    /**
+     * In-place method of {@link #rejectWhile(LongPredicate)}
+     */
+    MutableLongSeq rejectWhileInPlace(LongPredicate condition);
+
+    /**
+     * In-place method of {@link #swap(int, int)}
+     */
+    MutableLongSeq swapInPlace(int i, int j);
+
+    /**
+     * In-place method of {@link #rotate(int)}
+     */
+    MutableLongSeq rotateInPlace(int distance);
+}
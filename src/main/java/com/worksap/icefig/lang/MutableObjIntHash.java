@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+/**
+ * Mutable version of {@link ObjIntHash}, with the in-place methods of {@link MutableHash}.
+ */
+public interface MutableObjIntHash<K> extends ObjIntHash<K> {
+    @Override
+    MutableObjIntHash<K> put(K k, int v);
+
+    @Override
+    MutableObjIntHash<K> putIfAbsent(K k, int v);
+
+    @Override
+    MutableObjIntHash<K> remove(K k);
+
+    @Override
+    MutableObjIntHash<K> filter(EntryPredicate<K> condition);
+
+    @Override
+    MutableObjIntHash<K> reject(EntryPredicate<K> condition);
+
+    @Override
+    MutableObjIntHash<K> merge(ObjIntHash<? extends K> another);
+
+    /**
+     * In-place method of {@link #put(K, int)}
+     */
+    MutableObjIntHash<K> putInPlace(K k, int v);
+
+    /**
+     * In-place method of {@link #putIfAbsent(K, int)}
+     */
+    MutableObjIntHash<K> putIfAbsentInPlace(K k, int v);
+
+    /**
+     * Add delta to the value of the key, which is treated as 0 if the hash does not contain the key.
+     */
+    MutableObjIntHash<K> addInPlace(K k, int delta);
+
+    /**
+     * In-place method of {@link #remove(K)}
+     */
+    MutableObjIntHash<K> removeInPlace(K k);
+
+    /**
+     * In-place method of {@link #filter(EntryPredicate)}
+     */
+    MutableObjIntHash<K> filterInPlace(EntryPredicate<K> condition);
+
+    /**
+     * In-place method of {@link #reject(EntryPredicate)}
+     */
+    MutableObjIntHash<K> rejectInPlace(EntryPredicate<K> condition);
+
+    /**
+     * In-place method of {@link #merge(ObjIntHash)}
+     */
+    MutableObjIntHash<K> mergeInPlace(ObjIntHash<? extends K> another);
+
+    /**
+     * Remove all the entries. The capacity is kept.
+     *
+     * @return the hash itself after clear
+     */
+    MutableObjIntHash<K> clear();
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The implementation of ObjIntHash and MutableObjIntHash: an open-addressing table with linear probing.
+ * Removal shifts the following entries of the probe run backwards instead of leaving tombstones,
+ * so that lookups never walk over deleted slots. The key null marks free slots, so its entry is kept out of the table.
+ */
+final class ObjIntHashImpl<K> implements MutableObjIntHash<K> {
+    private static final int MIN_CAPACITY = 4;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private Object[] keys;
+    private int[] values;
+    // the slot of a key is the top bits of its hash, shifted by this
+    private int shift;
+    // the number of entries in the table, which grows before exceeding the limit
+    private int used;
+    private int limit;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    ObjIntHashImpl() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Create a hash which holds the expected number of entries without growing.
+     *
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    ObjIntHashImpl(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize should not be negative.");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity - (capacity >> 2) < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private ObjIntHashImpl(ObjIntHashImpl<K> another) {
+        keys = another.keys.clone();
+        values = another.values.clone();
+        shift = another.shift;
+        used = another.used;
+        limit = another.limit;
+        hasFreeKey = another.hasFreeKey;
+        freeKeyValue = another.freeKeyValue;
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        limit = capacity - (capacity >> 2);
+    }
+
+    private int slot(Object k) {
+        return (k.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    private int valueAt(int i) {
+        return values[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int i) {
+        return (K) keys[i];
+    }
+
+    /**
+     * @return the slot of the key, or the bitwise complement of the free slot where it would be put
+     */
+    private int indexOf(Object k) {
+        int mask = keys.length - 1;
+        for (int i = slot(k); ; i = (i + 1) & mask) {
+            Object key = keys[i];
+            if (key == null) {
+                return ~i;
+            }
+            if (k.equals(key)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Put a new entry into the free slot i, or into its new free slot if the table has to grow first.
+     */
+    private void insert(int i, Object k, int v) {
+        if (used == limit) {
+            grow();
+            i = ~indexOf(k);
+        }
+        keys[i] = k;
+        values[i] = v;
+        used++;
+    }
+
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The hash cannot hold more than " + limit + " entries.");
+        }
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k != null) {
+                int j = slot(k);
+                while (keys[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = k;
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Empty the slot, moving back each following entry of the run whose home slot is not between the hole and it.
+     */
+    private void removeAt(int i) {
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (hole <= j ? home <= hole || home > j : home <= hole && home > j) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = 0;
+        used--;
+    }
+
+    @Override
+    public int size() {
+        return hasFreeKey ? used + 1 : used;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(K k) {
+        return k == null ? hasFreeKey : indexOf(k) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(int v) {
+        if (hasFreeKey && freeKeyValue == v) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && values[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int get(K k) {
+        return getOrDefault(k, 0);
+    }
+
+    @Override
+    public int getOrDefault(K k, int defaultValue) {
+        if (k == null) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int i = indexOf(k);
+        return i >= 0 ? valueAt(i) : defaultValue;
+    }
+
+    @Override
+    public Seq<K> keys() {
+        Object[] result = new Object[size()];
+        int n = 0;
+        if (hasFreeKey) {
+            result[n++] = null;
+        }
+        for (Object k : keys) {
+            if (k != null) {
+                result[n++] = k;
+            }
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public IntSeq values() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasFreeKey) {
+            result[n++] = freeKeyValue;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result[n++] = values[i];
+            }
+        }
+        return new IntSeqImpl(result, result.length);
+    }
+
+    @Override
+    public void forEach(EntryConsumer<K> action) {
+        Objects.requireNonNull(action);
+        if (hasFreeKey) {
+            action.accept(null, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean containsAny(EntryPredicate<K> condition) {
+        Objects.requireNonNull(condition);
+        if (hasFreeKey && condition.test(null, freeKeyValue)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && condition.test(keyAt(i), valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countIf(EntryPredicate<K> condition) {
+        Objects.requireNonNull(condition);
+        int count = hasFreeKey && condition.test(null, freeKeyValue) ? 1 : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && condition.test(keyAt(i), valueAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public MutableObjIntHash<K> putInPlace(K k, int v) {
+        if (k == null) {
+            hasFreeKey = true;
+            freeKeyValue = v;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            values[i] = v;
+        } else {
+            insert(~i, k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableObjIntHash<K> putIfAbsentInPlace(K k, int v) {
+        if (k == null) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                freeKeyValue = v;
+            }
+            return this;
+        }
+        int i = indexOf(k);
+        if (i < 0) {
+            insert(~i, k, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableObjIntHash<K> addInPlace(K k, int delta) {
+        if (k == null) {
+            freeKeyValue = hasFreeKey ? freeKeyValue + delta : delta;
+            hasFreeKey = true;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            values[i] += delta;
+        } else {
+            insert(~i, k, delta);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableObjIntHash<K> removeInPlace(K k) {
+        if (k == null) {
+            hasFreeKey = false;
+            freeKeyValue = 0;
+            return this;
+        }
+        int i = indexOf(k);
+        if (i >= 0) {
+            removeAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * The scan starts after a free slot, so that each run of entries is visited from its start.
+     * Then the entries moved back by a removal always come from the unvisited part of the run, and are tested at the hole.
+     */
+    @Override
+    public MutableObjIntHash<K> filterInPlace(EntryPredicate<K> condition) {
+        Objects.requireNonNull(condition);
+        if (hasFreeKey && !condition.test(null, freeKeyValue)) {
+            hasFreeKey = false;
+            freeKeyValue = 0;
+        }
+        int mask = keys.length - 1;
+        int start = 0;
+        while (keys[start] != null) {
+            start++;
+        }
+        for (int n = 0, i = start; n < keys.length; n++) {
+            i = (i + 1) & mask;
+            while (keys[i] != null && !condition.test(keyAt(i), valueAt(i))) {
+                removeAt(i);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public MutableObjIntHash<K> rejectInPlace(EntryPredicate<K> condition) {
+        Objects.requireNonNull(condition);
+        return filterInPlace((k, v) -> !condition.test(k, v));
+    }
+
+    @Override
+    public MutableObjIntHash<K> mergeInPlace(ObjIntHash<? extends K> another) {
+        if (another != null) {
+            another.forEach(this::putInPlace);
+        }
+        return this;
+    }
+
+    @Override
+    public MutableObjIntHash<K> clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, 0);
+        used = 0;
+        hasFreeKey = false;
+        freeKeyValue = 0;
+        return this;
+    }
+
+    @Override
+    public MutableObjIntHash<K> put(K k, int v) {
+        return new ObjIntHashImpl<>(this).putInPlace(k, v);
+    }
+
+    @Override
+    public MutableObjIntHash<K> putIfAbsent(K k, int v) {
+        return new ObjIntHashImpl<>(this).putIfAbsentInPlace(k, v);
+    }
+
+    @Override
+    public MutableObjIntHash<K> remove(K k) {
+        return new ObjIntHashImpl<>(this).removeInPlace(k);
+    }
+
+    @Override
+    public MutableObjIntHash<K> filter(EntryPredicate<K> condition) {
+        Objects.requireNonNull(condition);
+        return new ObjIntHashImpl<>(this).filterInPlace(condition);
+    }
+
+    @Override
+    public MutableObjIntHash<K> reject(EntryPredicate<K> condition) {
+        Objects.requireNonNull(condition);
+        return new ObjIntHashImpl<>(this).rejectInPlace(condition);
+    }
+
+    @Override
+    public MutableObjIntHash<K> merge(ObjIntHash<? extends K> another) {
+        return new ObjIntHashImpl<>(this).mergeInPlace(another);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ObjIntHash)) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        ObjIntHash<Object> another = (ObjIntHash<Object>) o;
+        return size() == another.size() && !containsAny((k, v) -> !another.containsKey(k) || !(v == another.get(k)));
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        forEach((k, v) -> hash[0] += Objects.hashCode(k) ^ Integer.hashCode(v));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(k).append('=').append(v);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Parallel bulk operations over the entries of a hash, created by {@link Hash#par()}.
+ * <p>
+ * The entries are split into segments (bucket ranges of the table for the hashes backed by a {@link java.util.HashMap}),
+ * which are processed in a {@link java.util.concurrent.ForkJoinPool}. The results of the segments are combined:
+ * the result maps are merged pairwise and the counts are summed. Hashes no larger than the threshold are processed
+ * sequentially in the calling thread. The results are new hashes, backed by a {@link java.util.HashMap}.
+ * </p>
+ * <p>
+ * The functions may be called concurrently from several threads. The hash must not be changed during an operation.
+ * </p>
+ */
+public interface ParHash<K, V> {
+    /**
+     * @return a parallel view of the same hash and pool, which processes segments of at most <tt>threshold</tt>
+     * entries sequentially
+     * @throws IllegalArgumentException if <tt>threshold &lt;= 0</tt>
+     */
+    ParHash<K, V> withThreshold(int threshold);
+
+    /**
+     * Performs the action for each entry, in no particular order.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(BiConsumer<K, V> action);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#filter(BiPredicate)
+     */
+    Hash<K, V> filter(BiPredicate<K, V> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#reject(BiPredicate)
+     */
+    Hash<K, V> reject(BiPredicate<K, V> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Hash#countIf(BiPredicate)
+     */
+    int countIf(BiPredicate<K, V> condition);
+
+    /**
+     * The segments stop as soon as any of them finds an entry satisfying the condition.
+     *
+     * @throws NullPointerException if condition is null
+     * @see Hash#containsAny(BiPredicate)
+     */
+    boolean containsAny(BiPredicate<K, V> condition);
+
+    /**
+     * @see Hash#keysOf(Object)
+     */
+    Seq<K> keysOf(V value);
+
+    /**
+     * @throws NullPointerException if function is null
+     * @see Hash#replaceAll(BiFunction)
+     */
+    Hash<K, V> replaceAll(BiFunction<? super K, ? super V, ? extends V> function);
+
+    /**
+     * The entries of both hashes are collected in parallel, the entries of another taking precedence.
+     *
+     * @see Hash#merge(Hash)
+     */
+    Hash<K, V> merge(Hash<? extends K, ? extends V> another);
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * The implementation of ParHash, splitting the spliterator of the entries until the segments are no larger
+ * than the threshold. The entries of a HashImpl are split by the bucket ranges of its map, those of a ChampHash
+ * by the sub-nodes of its trie, and the entries of other hashes are copied into an array first. The hashes returned are of the same kind
+ * as the source: persistent for a persistent hash, concurrent for a concurrent one.
+ */
+final class ParHashImpl<K, V> implements ParHash<K, V> {
+    private final Hash<K, V> hash;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    ParHashImpl(Hash<K, V> hash, ForkJoinPool pool, int threshold) {
+        this.hash = hash;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    private Spliterator<Map.Entry<K, V>> entries() {
+        if (hash instanceof HashImpl) {
+            return ((HashImpl<K, V>) hash).map().entrySet().spliterator();
+        }
+        if (hash instanceof ChampHash) {
+            return ((ChampHash<K, V>) hash).spliterator();
+        }
+        Object[] entries = hash.entrySeq().toArray();
+        return Spliterators.spliterator(entries, Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    private Hash<K, V> toHash(Map<K, V> map) {
+        if (hash instanceof ChampHash) {
+            return ChampHash.of(map);
+        }
+        if (hash instanceof ConcurrentHashImpl) {
+            return new ConcurrentHashImpl<>(map);
+        }
+        if (hash instanceof BiHash) {
+            return new BiHashImpl<>(map);
+        }
+        return new HashImpl<>(map, false);
+    }
+
+    /**
+     * Compute each segment and merge the results of adjacent segments.
+     */
+    private <R> R compute(Function<Spliterator<Map.Entry<K, V>>, R> segment, BinaryOperator<R> merge) {
+        Spliterator<Map.Entry<K, V>> entries = entries();
+        if (hash.size() <= threshold) {
+            return segment.apply(entries);
+        }
+        return pool.invoke(new SplitTask<>(entries, segment, merge));
+    }
+
+    private final class SplitTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<Map.Entry<K, V>> entries;
+        private final Function<Spliterator<Map.Entry<K, V>>, R> segment;
+        private final BinaryOperator<R> merge;
+
+        SplitTask(Spliterator<Map.Entry<K, V>> entries, Function<Spliterator<Map.Entry<K, V>>, R> segment, BinaryOperator<R> merge) {
+            this.entries = entries;
+            this.segment = segment;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            Spliterator<Map.Entry<K, V>> prefix;
+            if (entries.estimateSize() <= threshold || (prefix = entries.trySplit()) == null) {
+                return segment.apply(entries);
+            }
+            SplitTask<R> left = new SplitTask<>(prefix, segment, merge);
+            left.fork();
+            R right = new SplitTask<>(entries, segment, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * The segments have distinct keys, so the smaller map can simply be put into the larger one.
+     */
+    private static <K, V> HashMap<K, V> mergeMaps(HashMap<K, V> left, HashMap<K, V> right) {
+        if (left.size() < right.size()) {
+            right.putAll(left);
+            return right;
+        }
+        left.putAll(right);
+        return left;
+    }
+
+    private HashMap<K, V> collect(BiPredicate<K, V> condition) {
+        return compute(entries -> {
+            HashMap<K, V> result = new HashMap<>();
+            entries.forEachRemaining(entry -> {
+                if (condition.test(entry.getKey(), entry.getValue())) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            });
+            return result;
+        }, ParHashImpl::mergeMaps);
+    }
+
+    @Override
+    public ParHash<K, V> withThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold should be a positive number.");
+        }
+        return new ParHashImpl<>(hash, pool, threshold);
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, V> action) {
+        Objects.requireNonNull(action);
+        compute(entries -> {
+            entries.forEachRemaining(entry -> action.accept(entry.getKey(), entry.getValue()));
+            return null;
+        }, (left, right) -> null);
+    }
+
+    @Override
+    public Hash<K, V> filter(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return toHash(collect(condition));
+    }
+
+    @Override
+    public Hash<K, V> reject(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return filter(condition.negate());
+    }
+
+    @Override
+    public int countIf(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        return compute(entries -> {
+            int[] count = {0};
+            entries.forEachRemaining(entry -> {
+                if (condition.test(entry.getKey(), entry.getValue())) {
+                    count[0]++;
+                }
+            });
+            return count[0];
+        }, Integer::sum);
+    }
+
+    @Override
+    public boolean containsAny(BiPredicate<K, V> condition) {
+        Objects.requireNonNull(condition);
+        AtomicBoolean found = new AtomicBoolean();
+        compute(entries -> {
+            while (!found.get() && entries.tryAdvance(entry -> {
+                if (condition.test(entry.getKey(), entry.getValue())) {
+                    found.set(true);
+                }
+            })) {
+                // advanced by one entry
+            }
+            return null;
+        }, (left, right) -> null);
+        return found.get();
+    }
+
+    @Override
+    public Seq<K> keysOf(V value) {
+        ArrayList<K> keys = compute(entries -> {
+            ArrayList<K> result = new ArrayList<>();
+            entries.forEachRemaining(entry -> {
+                if (Objects.equals(entry.getValue(), value)) {
+                    result.add(entry.getKey());
+                }
+            });
+            return result;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+        return VectorSeq.of(keys);
+    }
+
+    @Override
+    public Hash<K, V> replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        return toHash(compute(entries -> {
+            HashMap<K, V> result = new HashMap<>();
+            entries.forEachRemaining(entry -> result.put(entry.getKey(), function.apply(entry.getKey(), entry.getValue())));
+            return result;
+        }, ParHashImpl::mergeMaps));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Hash<K, V> merge(Hash<? extends K, ? extends V> another) {
+        if (another == null || another.isEmpty()) {
+            return toHash(collect((k, v) -> true));
+        }
+        // the entries are only read, so another can be viewed with the wider types
+        Hash<K, V> other = (Hash<K, V>) another;
+        HashMap<K, V> kept = collect((k, v) -> !other.containsKey(k));
+        HashMap<K, V> added = new ParHashImpl<>(other, pool, threshold).collect((k, v) -> true);
+        return toHash(mergeMaps(kept, added));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.*;
+
+/**
+ * Parallel bulk operations over the elements of a seq, created by {@link Seq#par()}.
+ * <p>
+ * The index range of the seq is split into chunks which are processed in a {@link java.util.concurrent.ForkJoinPool},
+ * and the results of the chunks are merged in order, so the results are the same as the sequential operations of {@link Seq}
+ * as long as the functions are stateless (and the accumulators are associative).
+ * Seqs no larger than the threshold are processed sequentially in the calling thread.
+ * </p>
+ * <p>
+ * The functions may be called concurrently from several threads. The seq must not be changed during an operation.
+ * </p>
+ */
+public interface ParSeq<T> {
+    /**
+     * @return a parallel view of the same seq and pool, which processes chunks of at most <tt>threshold</tt>
+     * elements sequentially
+     * @throws IllegalArgumentException if <tt>threshold &lt;= 0</tt>
+     */
+    ParSeq<T> withThreshold(int threshold);
+
+    /**
+     * @throws NullPointerException if func is null
+     * @see Seq#map(Function)
+     */
+    <R> Seq<R> map(Function<T, R> func);
+
+    /**
+     * @throws NullPointerException if func is null
+     * @see Seq#flatMap(Function)
+     */
+    <R> Seq<R> flatMap(Function<T, Seq<R>> func);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#filter(Predicate)
+     */
+    Seq<T> filter(Predicate<T> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#reject(Predicate)
+     */
+    Seq<T> reject(Predicate<T> condition);
+
+    /**
+     * Performs the action for each element, in no particular order.
+     *
+     * @throws NullPointerException if action is null
+     */
+    void forEach(Consumer<? super T> action);
+
+    /**
+     * The accumulator must be associative, as the chunks are reduced separately and then combined.
+     *
+     * @return the result of the reduction, or null if the seq is empty
+     * @throws NullPointerException if accumulator is null
+     * @see Seq#reduce(BinaryOperator)
+     */
+    T reduce(BinaryOperator<T> accumulator);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#countIf(Predicate)
+     */
+    int countIf(Predicate<T> condition);
+
+    /**
+     * The chunks stop as soon as any of them finds an element satisfying the condition.
+     *
+     * @throws NullPointerException if condition is null
+     * @see Seq#any(Predicate)
+     */
+    boolean any(Predicate<T> condition);
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#all(Predicate)
+     */
+    default boolean all(Predicate<T> condition) {
+        return !any(condition.negate());
+    }
+
+    /**
+     * @throws NullPointerException if condition is null
+     * @see Seq#none(Predicate)
+     */
+    default boolean none(Predicate<T> condition) {
+        return !any(condition);
+    }
+
+    /**
+     * @throws NullPointerException if comparator is null
+     * @see Seq#max(Comparator)
+     */
+    Optional<T> max(Comparator<? super T> comparator);
+
+    /**
+     * @throws NullPointerException if comparator is null
+     * @see Seq#min(Comparator)
+     */
+    default Optional<T> min(Comparator<? super T> comparator) {
+        return max(comparator.reversed());
+    }
+}
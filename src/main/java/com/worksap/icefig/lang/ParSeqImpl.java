@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.*;
+
+/**
+ * The implementation of ParSeq, splitting the index range of the seq in halves until the chunks are
+ * no larger than the threshold.
+ */
+final class ParSeqImpl<T> implements ParSeq<T> {
+    static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private final Seq<T> seq;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    ParSeqImpl(Seq<T> seq, ForkJoinPool pool, int threshold) {
+        this.seq = seq;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Computes the result of the elements in [from, to).
+     */
+    @FunctionalInterface
+    private interface Chunk<R> {
+        R compute(int from, int to);
+    }
+
+    /**
+     * Compute each chunk and merge the results of adjacent chunks, left before right.
+     * The seq must not be empty.
+     */
+    private <R> R compute(Chunk<R> chunk, BinaryOperator<R> merge) {
+        int size = seq.size();
+        if (size <= threshold) {
+            return chunk.compute(0, size);
+        }
+        return pool.invoke(new SplitTask<>(0, size, chunk, merge));
+    }
+
+    private final class SplitTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final Chunk<R> chunk;
+        private final BinaryOperator<R> merge;
+
+        SplitTask(int from, int to, Chunk<R> chunk, BinaryOperator<R> merge) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= threshold) {
+                return chunk.compute(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SplitTask<R> left = new SplitTask<>(from, mid, chunk, merge);
+            left.fork();
+            R right = new SplitTask<>(mid, to, chunk, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+
+    @Override
+    public ParSeq<T> withThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold should be a positive number.");
+        }
+        return new ParSeqImpl<>(seq, pool, threshold);
+    }
+
+    @Override
+    public <R> Seq<R> map(Function<T, R> func) {
+        Objects.requireNonNull(func);
+        if (seq.isEmpty()) {
+            return Seqs.newSeq();
+        }
+        Object[] result = new Object[seq.size()];
+        compute((from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = func.apply(seq.get(i));
+            }
+            return null;
+        }, (left, right) -> null);
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public <R> Seq<R> flatMap(Function<T, Seq<R>> func) {
+        Objects.requireNonNull(func);
+        return collect((from, to) -> {
+            ArrayList<Object> result = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                func.apply(seq.get(i)).forEach((Consumer<R>) result::add);
+            }
+            return result.toArray();
+        });
+    }
+
+    @Override
+    public Seq<T> filter(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return collect((from, to) -> {
+            ArrayList<Object> result = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                T t = seq.get(i);
+                if (condition.test(t)) {
+                    result.add(t);
+                }
+            }
+            return result.toArray();
+        });
+    }
+
+    @Override
+    public Seq<T> reject(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return filter(condition.negate());
+    }
+
+    /**
+     * Concat the elements produced by the chunks in order. The chunk results are only gathered in a list during
+     * the merges, and copied once at the end.
+     */
+    private <R> Seq<R> collect(Chunk<Object[]> chunk) {
+        if (seq.isEmpty()) {
+            return Seqs.newSeq();
+        }
+        ArrayList<Object[]> parts = compute((from, to) -> {
+            ArrayList<Object[]> single = new ArrayList<>(1);
+            single.add(chunk.compute(from, to));
+            return single;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+        int size = 0;
+        for (Object[] part : parts) {
+            size += part.length;
+        }
+        Object[] result = new Object[size];
+        int offset = 0;
+        for (Object[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return VectorSeq.of(result);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (seq.isEmpty()) {
+            return;
+        }
+        compute((from, to) -> {
+            for (int i = from; i < to; i++) {
+                action.accept(seq.get(i));
+            }
+            return null;
+        }, (left, right) -> null);
+    }
+
+    @Override
+    public T reduce(BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        if (seq.isEmpty()) {
+            return null;
+        }
+        return compute((from, to) -> {
+            T result = seq.get(from);
+            for (int i = from + 1; i < to; i++) {
+                result = accumulator.apply(result, seq.get(i));
+            }
+            return result;
+        }, accumulator);
+    }
+
+    @Override
+    public int countIf(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        if (seq.isEmpty()) {
+            return 0;
+        }
+        return compute((from, to) -> {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (condition.test(seq.get(i)))
+                    count++;
+            }
+            return count;
+        }, Integer::sum);
+    }
+
+    @Override
+    public boolean any(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        if (seq.isEmpty()) {
+            return false;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        compute((from, to) -> {
+            for (int i = from; i < to && !found.get(); i++) {
+                if (condition.test(seq.get(i))) {
+                    found.set(true);
+                }
+            }
+            return null;
+        }, (left, right) -> null);
+        return found.get();
+    }
+
+    @Override
+    public Optional<T> max(Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        if (seq.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(compute((from, to) -> {
+            T candidate = seq.get(from);
+            for (int i = from + 1; i < to; i++) {
+                T current = seq.get(i);
+                if (comparator.compare(current, candidate) > 0) {
+                    candidate = current;
+                }
+            }
+            return candidate;
+        }, (left, right) -> comparator.compare(right, left) > 0 ? right : left));
+    }
+}
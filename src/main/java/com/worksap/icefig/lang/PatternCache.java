@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, thread-safe cache of compiled regular expressions, evicting a pattern not used recently when it is full.
+ * <p>
+ * The regex-taking methods of {@link CharSeq} look up their patterns in the cache returned by {@link CharSeq#patternCache()},
+ * so that a regex used again and again is only compiled once.
+ * </p>
+ * <p>
+ * A lookup takes no lock: the patterns are kept in a {@link ConcurrentHashMap}, and the counters are {@link LongAdder}s.
+ * The eviction approximates LRU by the clock algorithm: a hit marks the pattern as referenced,
+ * and the eviction after a miss clears the marks it passes until it finds a pattern which is not marked.
+ * Only the evictions are serialized.
+ * </p>
+ */
+public final class PatternCache {
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry> patterns = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final Object evictionLock = new Object();
+
+    private static final class Entry {
+        final Pattern pattern;
+        volatile boolean referenced = true;
+
+        Entry(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    PatternCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be a positive number.");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the compiled pattern of the regex, compiling and caching it if it is not cached yet
+     * @throws NullPointerException                   if regex is null
+     * @throws java.util.regex.PatternSyntaxException if the syntax of the regex is invalid
+     */
+    public Pattern get(String regex) {
+        Objects.requireNonNull(regex);
+        Entry entry = patterns.get(regex);
+        if (entry != null) {
+            hitCount.increment();
+            // only write the mark when it changes, so that the hits of a hot pattern do not contend on it
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.pattern;
+        }
+        missCount.increment();
+        // compile outside any lock, a concurrent miss of the same regex only compiles it twice
+        Entry compiled = new Entry(Pattern.compile(regex));
+        Entry previous = patterns.putIfAbsent(regex, compiled);
+        if (previous != null) {
+            return previous.pattern;
+        }
+        if (patterns.size() > capacity) {
+            evict();
+        }
+        return compiled.pattern;
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            // after a full sweep every mark has been cleared once, so the hits since then do not protect a pattern
+            for (boolean swept = false; patterns.size() > capacity; swept = true) {
+                for (Map.Entry<String, Entry> each : patterns.entrySet()) {
+                    Entry entry = each.getValue();
+                    if (entry.referenced && !swept) {
+                        entry.referenced = false;
+                    } else if (patterns.remove(each.getKey(), entry) && patterns.size() <= capacity) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of lookups which found the pattern in the cache
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups which had to compile the pattern
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of patterns currently cached
+     */
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * @return the maximum number of patterns cached
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Remove all the cached patterns and reset the counters.
+     * The lookups running at the same time may or may not be counted.
+     */
+    public void clear() {
+        patterns.clear();
+        hitCount.reset();
+        missCount.reset();
+    }
+}
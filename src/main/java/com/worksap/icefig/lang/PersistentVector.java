@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A persistent vector implemented as a 32-way trie with a tail buffer.
+ * Every modification copies only the path from the root to the changed leaf,
+ * so append and set are O(log32 n) and the unchanged nodes are shared between versions.
+ */
+final class PersistentVector<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    /**
+     * Build a vector holding the elements of the array in one pass, without path copying.
+     */
+    static <T> PersistentVector<T> of(Object[] elements) {
+        int size = elements.length;
+        if (size == 0) {
+            return empty();
+        }
+        int tailOffset = tailOffset(size);
+        Object[] tail = Arrays.copyOfRange(elements, tailOffset, size);
+
+        Object[][] nodes = new Object[tailOffset >>> BITS][];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = Arrays.copyOfRange(elements, i << BITS, (i + 1) << BITS);
+        }
+        int shift = BITS;
+        while (nodes.length > WIDTH) {
+            Object[][] parents = new Object[(nodes.length + MASK) >>> BITS][];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = new Object[WIDTH];
+                int from = i << BITS;
+                System.arraycopy(nodes, from, parents[i], 0, Math.min(WIDTH, nodes.length - from));
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+        Object[] root = new Object[WIDTH];
+        System.arraycopy(nodes, 0, root, 0, nodes.length);
+        return new PersistentVector<>(size, shift, root, tail);
+    }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        return (T) leafFor(index)[index & MASK];
+    }
+
+    private Object[] leafFor(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        if (index >= tailOffset(size)) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * @return a new vector with the value appended, sharing all full leaves with this one
+     */
+    PersistentVector<T> append(T value) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = value;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int subIndex = ((size - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        if (level == BITS) {
+            result[subIndex] = tailNode;
+        } else {
+            Object[] child = (Object[]) parent[subIndex];
+            result[subIndex] = child != null
+                    ? pushTail(level - BITS, child, tailNode)
+                    : newPath(level - BITS, tailNode);
+        }
+        return result;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] result = new Object[WIDTH];
+        result[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    /**
+     * @return a new vector with the element at index replaced
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    PersistentVector<T> set(int index, T value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        if (index >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, doSet(shift, root, index, value), tail);
+    }
+
+    private static Object[] doSet(int level, Object[] node, int index, Object value) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = value;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            result[subIndex] = doSet(level - BITS, (Object[]) node[subIndex], index, value);
+        }
+        return result;
+    }
+
+    /**
+     * Iterate the elements in order, walking each leaf once instead of descending the trie per element.
+     */
+    void forEach(Consumer<? super T> action) {
+        forEach(0, size, action);
+    }
+
+    /**
+     * Iterate the elements from index from (inclusive) to index to (exclusive) in order, a leaf at a time.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(int from, int to, Consumer<? super T> action) {
+        for (int i = from; i < to; ) {
+            Object[] leaf = leafFor(i);
+            int start = i & MASK;
+            int end = Math.min(leaf.length, start + to - i);
+            for (int j = start; j < end; j++) {
+                action.accept((T) leaf[j]);
+            }
+            i += end - start;
+        }
+    }
+
+    /**
+     * Copy the elements into the array in order, starting at the offset.
+     */
+    void copyTo(Object[] dest, int offset) {
+        copyTo(0, size, dest, offset);
+    }
+
+    /**
+     * Copy the elements from index from (inclusive) to index to (exclusive) into the array, starting at the offset.
+     */
+    void copyTo(int from, int to, Object[] dest, int offset) {
+        for (int i = from; i < to; ) {
+            Object[] leaf = leafFor(i);
+            int start = i & MASK;
+            int length = Math.min(leaf.length - start, to - i);
+            System.arraycopy(leaf, start, dest, offset + i - from, length);
+            i += length;
+        }
+    }
+}
@@ -21,12 +21,14 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
 
 /**
  * Range is an element generator on the basis of start point,
@@ -194,9 +196,29 @@ public class Range<C extends Comparable<C>> implements Iterable<C> {
         return new Itr();
     }
 
+    /**
+     * The elements can only be produced one by one by the next function, so the spliterator splits by
+     * walking ahead and buffering a batch of elements into an array, whose size grows with each split.
+     *
+     * @throws NullPointerException if this.from or this.next is null.
+     */
     @Override
     public Spliterator<C> spliterator() {
-        throw new UnsupportedOperationException("spliterator");
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Performs the action for each element in parallel, in no particular order.
+     * The elements are still produced in the calling thread, and batches of them are processed
+     * in the common {@link java.util.concurrent.ForkJoinPool}, so it pays off when the action is
+     * much more expensive than the next function. The range must have an end point.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if action, this.from or this.next is null.
+     */
+    public void parallelForEach(Consumer<? super C> action) {
+        Objects.requireNonNull(action);
+        StreamSupport.stream(spliterator(), true).forEach(action);
     }
 
     /**
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+/**
+ * An immutable rope: a height-balanced (AVL) binary tree whose leaves are slices of strings.
+ * Concatenation and slicing are O(log n) and share the unchanged parts, and the characters are only copied
+ * into a single string by {@link #toString()}.
+ */
+final class Rope implements CharSequence {
+    /**
+     * Texts shorter than this are kept as plain strings, which are cheaper to copy than to link.
+     */
+    static final int FLAT_LIMIT = 1 << 10;
+
+    /**
+     * Adjacent pieces no longer than this in total are merged into one leaf.
+     */
+    private static final int MERGE_LIMIT = 1 << 9;
+
+    // a leaf is the slice [offset, offset + length) of the string
+    private final String string;
+    private final int offset;
+
+    private final Rope left;
+    private final Rope right;
+
+    private final int length;
+    private final int height;
+
+    private Rope(String string, int offset, int length) {
+        this.string = string;
+        this.offset = offset;
+        this.length = length;
+        this.left = null;
+        this.right = null;
+        this.height = 0;
+    }
+
+    private Rope(Rope left, Rope right) {
+        this.string = null;
+        this.offset = 0;
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+        this.height = Math.max(left.height, right.height) + 1;
+    }
+
+    private boolean isLeaf() {
+        return string != null;
+    }
+
+    private static Rope of(CharSequence chars) {
+        if (chars instanceof Rope) {
+            return (Rope) chars;
+        }
+        String string = chars.toString();
+        return new Rope(string, 0, string.length());
+    }
+
+    /**
+     * @return the concatenation of the texts, as a string if it is short, otherwise as a rope
+     */
+    static CharSequence concat(CharSequence first, CharSequence second) {
+        if (second.length() == 0) {
+            return first;
+        }
+        if (first.length() == 0) {
+            return second;
+        }
+        if (first.length() + second.length() < FLAT_LIMIT) {
+            return first.toString().concat(second.toString());
+        }
+        return join(of(first), of(second));
+    }
+
+    /**
+     * @return the slice [from, to) of the text, as a string if it is short, otherwise as a rope sharing the characters
+     * @throws IndexOutOfBoundsException if the range is illegal
+     */
+    static CharSequence slice(CharSequence chars, int from, int to) {
+        if (from < 0 || to > chars.length() || from > to) {
+            throw new StringIndexOutOfBoundsException("begin " + from + ", end " + to + ", length " + chars.length());
+        }
+        if (from == 0 && to == chars.length()) {
+            return chars;
+        }
+        if (to - from < FLAT_LIMIT) {
+            if (chars instanceof String) {
+                return ((String) chars).substring(from, to);
+            }
+            char[] result = new char[to - from];
+            ((Rope) chars).copyTo(from, to, result, 0);
+            return new String(result);
+        }
+        return of(chars).slice(from, to);
+    }
+
+    private Rope slice(int from, int to) {
+        if (from == 0 && to == length) {
+            return this;
+        }
+        if (isLeaf()) {
+            return new Rope(string, offset + from, to - from);
+        }
+        int leftLength = left.length;
+        if (to <= leftLength) {
+            return left.slice(from, to);
+        }
+        if (from >= leftLength) {
+            return right.slice(from - leftLength, to - leftLength);
+        }
+        return join(left.slice(from, leftLength), right.slice(0, to - leftLength));
+    }
+
+    /**
+     * Concatenate two balanced trees into a balanced tree, descending along the spine of the higher one.
+     */
+    private static Rope join(Rope left, Rope right) {
+        // merge short leaves at the seam, so that appending small pieces one by one does not create tiny leaves
+        if (left.isLeaf() && right.isLeaf() && left.length + right.length <= MERGE_LIMIT) {
+            return mergeLeaves(left, right);
+        }
+        if (right.isLeaf() && !left.isLeaf() && left.right.isLeaf() && left.right.length + right.length <= MERGE_LIMIT) {
+            return new Rope(left.left, mergeLeaves(left.right, right));
+        }
+        if (left.isLeaf() && !right.isLeaf() && right.left.isLeaf() && left.length + right.left.length <= MERGE_LIMIT) {
+            return new Rope(mergeLeaves(left, right.left), right.right);
+        }
+        if (left.height > right.height + 1) {
+            return balance(left.left, join(left.right, right));
+        }
+        if (right.height > left.height + 1) {
+            return balance(join(left, right.left), right.right);
+        }
+        return new Rope(left, right);
+    }
+
+    private static Rope mergeLeaves(Rope left, Rope right) {
+        char[] merged = new char[left.length + right.length];
+        left.copyTo(0, left.length, merged, 0);
+        right.copyTo(0, right.length, merged, left.length);
+        return new Rope(new String(merged), 0, merged.length);
+    }
+
+    private static Rope balance(Rope left, Rope right) {
+        if (left.height > right.height + 1) {
+            if (left.right.height > left.left.height) {
+                // left-right case
+                Rope pivot = left.right;
+                return new Rope(new Rope(left.left, pivot.left), new Rope(pivot.right, right));
+            }
+            return new Rope(left.left, new Rope(left.right, right));
+        }
+        if (right.height > left.height + 1) {
+            if (right.left.height > right.right.height) {
+                // right-left case
+                Rope pivot = right.left;
+                return new Rope(new Rope(left, pivot.left), new Rope(pivot.right, right.right));
+            }
+            return new Rope(new Rope(left, right.left), right.right);
+        }
+        return new Rope(left, right);
+    }
+
+    /**
+     * Copy the characters [from, to) of this rope into the array, starting at the offset.
+     */
+    private void copyTo(int from, int to, char[] dest, int destOffset) {
+        Rope node = this;
+        while (!node.isLeaf()) {
+            int leftLength = node.left.length;
+            if (to <= leftLength) {
+                node = node.left;
+            } else if (from >= leftLength) {
+                node = node.right;
+                from -= leftLength;
+                to -= leftLength;
+            } else {
+                node.left.copyTo(from, leftLength, dest, destOffset);
+                destOffset += leftLength - from;
+                node = node.right;
+                from = 0;
+                to -= leftLength;
+            }
+        }
+        node.string.getChars(node.offset + from, node.offset + to, dest, destOffset);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        Rope node = this;
+        while (!node.isLeaf()) {
+            if (index < node.left.length) {
+                node = node.left;
+            } else {
+                index -= node.left.length;
+                node = node.right;
+            }
+        }
+        return node.string.charAt(node.offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return slice(this, start, end);
+    }
+
+    int height() {
+        return height;
+    }
+
+    /**
+     * @return the characters flattened into a new string
+     */
+    @Override
+    public String toString() {
+        char[] result = new char[length];
+        copyTo(0, length, result, 0);
+        return new String(result);
+    }
+}
@@ -17,6 +17,7 @@
 package com.worksap.icefig.lang;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 
 /**
@@ -53,6 +54,75 @@ public interface Seq<T> {
      */
     <R> Seq<R> flatMap(BiFunction<T, Integer, Seq<R>> func);
 
+    /**
+     * Transform each element of the seq into a primitive int, and collect them into a {@link IntSeq} without boxing.
+     *
+     * @throws NullPointerException if func is null
+     */
+    default IntSeq mapToInt(ToIntFunction<T> func) {
+        Objects.requireNonNull(func);
+        int[] result = new int[size()];
+        int[] index = {0};
+        forEach(t -> result[index[0]++] = func.applyAsInt(t));
+        return new IntSeqImpl(result, result.length);
+    }
+
+    /**
+     * Transform each element of the seq into a primitive long, and collect them into a {@link LongSeq} without boxing.
+     *
+     * @throws NullPointerException if func is null
+     */
+    default LongSeq mapToLong(ToLongFunction<T> func) {
+        Objects.requireNonNull(func);
+        long[] result = new long[size()];
+        int[] index = {0};
+        forEach(t -> result[index[0]++] = func.applyAsLong(t));
+        return new LongSeqImpl(result, result.length);
+    }
+
+    /**
+     * Transform each element of the seq into a primitive double, and collect them into a {@link DoubleSeq} without boxing.
+     *
+     * @throws NullPointerException if func is null
+     */
+    default DoubleSeq mapToDouble(ToDoubleFunction<T> func) {
+        Objects.requireNonNull(func);
+        double[] result = new double[size()];
+        int[] index = {0};
+        forEach(t -> result[index[0]++] = func.applyAsDouble(t));
+        return new DoubleSeqImpl(result, result.length);
+    }
+
+    /**
+     * Create a lazy pipeline over the elements of this seq. The operations on it are fused into a single pass
+     * executed by its terminal operation, instead of creating a new seq for each operation.
+     * <p>
+     * For example, <tt>seq.lazy().map(a -&gt; a + 1).distinct().reverse().join()</tt> builds no intermediate seq.
+     * </p>
+     */
+    default LazySeq<T> lazy() {
+        return LazySeqImpl.of(this);
+    }
+
+    /**
+     * Create a parallel view of this seq, whose bulk operations run in the common {@link ForkJoinPool}.
+     * Seqs with no more elements than the threshold ({@link ParSeq#withThreshold(int)}, 8192 by default) are processed sequentially.
+     */
+    default ParSeq<T> par() {
+        return par(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a parallel view of this seq, whose bulk operations run in the pool.
+     *
+     * @throws NullPointerException if pool is null
+     * @see #par()
+     */
+    default ParSeq<T> par(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new ParSeqImpl<>(this, pool, ParSeqImpl.DEFAULT_THRESHOLD);
+    }
+
     /**
      * @return The beginning element of the seq.
      * @throws IndexOutOfBoundsException if the seq is empty
@@ -688,6 +758,66 @@ public interface Seq<T> {
      */
     void forEachCombination(int n, Consumer<Seq<T>> action);
 
+    /**
+     * Similar with {@link #forEachCombination(int, Consumer)}, but passes the same read-only seq to every action,
+     * which views the elements of the current combination instead of copying them.
+     * The seq is only valid during the action; copy it (e.g. by {@link #toArrayList()}) if it should be kept.
+     *
+     * @throws NullPointerException     if action is null
+     * @throws IllegalArgumentException if n is not a positive number
+     */
+    default void forEachCombinationView(int n, Consumer<Seq<T>> action) {
+        Combinations.forEachView(this, n, action);
+    }
+
+    /**
+     * Iterates the combinations of length n by the indices of the selected elements, in ascending order.
+     * The same array is passed to every action and updated in place to the next combination afterwards,
+     * so nothing is allocated per combination. The action must not change the array.
+     *
+     * @throws NullPointerException     if action is null
+     * @throws IllegalArgumentException if n is not a positive number
+     */
+    default void forEachCombinationIndices(int n, Consumer<int[]> action) {
+        Combinations.forEach(size(), n, action);
+    }
+
+    /**
+     * Parallel version of {@link #forEachCombination(int, Consumer)}, running in the common {@link ForkJoinPool}.
+     * The combination space is split into balanced ranges, so the action is called concurrently from several threads
+     * and in no particular order; it must be thread-safe. The seq must not be changed during the iteration.
+     *
+     * @throws NullPointerException     if action is null
+     * @throws IllegalArgumentException if n is not a positive number
+     */
+    default void parallelForEachCombination(int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        Combinations.parallelForEach(ForkJoinPool.commonPool(), size(), n,
+                (comb, rank) -> action.accept(Combinations.select(this, comb)));
+    }
+
+    /**
+     * Parallel version of {@link #eachCombination(int)}. The combinations are in the same order as
+     * {@link #eachCombination(int)} returns.
+     *
+     * @throws IllegalArgumentException if n is not a positive number, or there are more combinations than a seq can hold
+     */
+    default Seq<Seq<T>> parallelEachCombination(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number");
+        }
+        if (n > size()) {
+            return Seqs.newSeq();
+        }
+        long count = Combinations.binomials(size(), n)[size()][n];
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many combinations: " + count);
+        }
+        Object[] result = new Object[(int) count];
+        Combinations.parallelForEach(ForkJoinPool.commonPool(), size(), n,
+                (comb, rank) -> result[(int) rank] = Combinations.select(this, comb));
+        return VectorSeq.of(result);
+    }
 
     /**
      * Return a new Seq of all combinations of length n of elements from this seq.
@@ -763,41 +893,7 @@ public interface Seq<T> {
      */
     default int indexOfSubSeq(Seq<T> seq) {
         Objects.requireNonNull(seq);
-
-        if (seq.isEmpty()) {
-            return 0;
-        }
-
-        if (size() < seq.size()) {
-            return -1;
-        }
-
-        //Sunday algorithm
-
-        Map<T, Integer> lastIndex = new HashMap<>();
-        seq.forEach(lastIndex::put);
-
-        int startI = 0, size = size(), len = seq.size();
-        while (size - startI >= len) {
-            for (int i = 0; ; i++) {
-                if (!get(startI + i).equals(seq.get(i))) {
-                    if (startI + len >= size) {
-                        return -1;
-                    }
-                    T next = get(startI + len);
-                    Integer last = lastIndex.get(next);
-                    if (last == null) {
-                        startI += len + 1;
-                    } else {
-                        startI += len - last;
-                    }
-                    break;
-                } else if (i == len - 1) {
-                    return startI;
-                }
-            }
-        }
-        return -1;
+        return SubSeqSearcher.of(seq).indexIn(this);
     }
 
     /**
@@ -808,41 +904,7 @@ public interface Seq<T> {
      */
     default int lastIndexOfSubSeq(Seq<T> seq) {
         Objects.requireNonNull(seq);
-
-        if (seq.isEmpty()) {
-            return 0;
-        }
-
-        if (size() < seq.size()) {
-            return -1;
-        }
-
-        //Sunday algorithm
-
-        Map<T, Integer> lastIndex = new HashMap<>();
-        seq.forEachReverse(lastIndex::put);
-
-        int size = size(), endI = size - 1, len = seq.size();
-        while (endI >= len - 1) {
-            for (int i = 0; ; i++) {
-                if (!get(endI - i).equals(seq.get(len - 1 - i))) {
-                    if (endI - len < 0) {
-                        return -1;
-                    }
-                    T next = get(endI - len);
-                    Integer last = lastIndex.get(next);
-                    if (last == null) {
-                        endI -= len + 1;
-                    } else {
-                        endI -= last + 1;
-                    }
-                    break;
-                } else if (i == len - 1) {
-                    return endI - len + 1;
-                }
-            }
-        }
-        return -1;
+        return SubSeqSearcher.of(seq).lastIndexIn(this);
     }
 
     /**
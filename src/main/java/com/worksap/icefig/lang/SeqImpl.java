@@ -24,7 +24,13 @@ import java.util.function.*;
  */
 class SeqImpl<T> implements MutableSeq<T> {
 
-    private final ArrayList<T> list;
+    private List<T> list;
+
+    /**
+     * Whether the list is shared with other seqs (or is a read-only view),
+     * in which case it is copied before the first in-place change.
+     */
+    private boolean shared;
 
     SeqImpl() {
         this.list = new ArrayList<>();
@@ -34,6 +40,52 @@ class SeqImpl<T> implements MutableSeq<T> {
         this.list = new ArrayList<>(collection);
     }
 
+    private SeqImpl(List<T> list, boolean shared) {
+        this.list = list;
+        this.shared = shared;
+    }
+
+    /**
+     * Create a seq viewing the list without copying it. The list must not be changed afterwards,
+     * and in-place methods on the returned seq work on a private copy of it.
+     */
+    static <T> SeqImpl<T> view(List<T> list) {
+        return new SeqImpl<>(list, true);
+    }
+
+    /**
+     * Point this seq to another list which must not be changed afterwards, as {@link #view(List)} does.
+     */
+    void rebind(List<T> list) {
+        this.list = list;
+        this.shared = true;
+    }
+
+    /**
+     * @return the list which is safe to change in place, copying the shared one at the first time
+     */
+    private ArrayList<T> own() {
+        if (shared) {
+            list = new ArrayList<>(list);
+            shared = false;
+        }
+        return (ArrayList<T>) list;
+    }
+
+    /**
+     * @return the backing list, which must only be read
+     */
+    List<T> elements() {
+        return list;
+    }
+
+    /**
+     * @return a list which will not be changed afterwards, so that views on it can be handed out
+     */
+    private List<T> snapshot() {
+        return shared ? list : new ArrayList<>(list);
+    }
+
     /**
      * Returns the element at index. A negative index counts from the end of self.
      *
@@ -113,13 +165,26 @@ class SeqImpl<T> implements MutableSeq<T> {
         if (n <= 0) {
             throw new IllegalArgumentException("n should be positive number!");
         }
+        List<T> snapshot = snapshot();
         MutableSeq<MutableSeq<T>> result = new SeqImpl<>();
         for (int i = 0; i <= this.size() - n; i++) {
-            result.appendInPlace(this.subSeq(i, i + n));
+            result.appendInPlace(view(snapshot.subList(i, i + n)));
         }
         return result;
     }
 
+    @Override
+    public void forEachCons(int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number!");
+        }
+        List<T> snapshot = snapshot();
+        for (int i = 0; i <= snapshot.size() - n; i++) {
+            action.accept(view(snapshot.subList(i, i + n)));
+        }
+    }
+
     @Override
     public MutableSeq<T> sort(Comparator<? super T> comparator) {
         List<T> newList = new ArrayList<>(list);
@@ -161,26 +226,26 @@ class SeqImpl<T> implements MutableSeq<T> {
 
     @Override
     public MutableSeq<T> appendInPlace(T value) {
-        list.add(value);
+        own().add(value);
         return this;
     }
 
     @Override
     @SafeVarargs
     final public MutableSeq<T> appendInPlace(T... values) {
-        Collections.addAll(list, values);
+        Collections.addAll(own(), values);
         return this;
     }
 
     @Override
     public MutableSeq<T> appendInPlace(Collection<? extends T> collection) {
-        list.addAll(collection);
+        own().addAll(collection);
         return this;
     }
 
     @Override
     public MutableSeq<T> appendInPlace(Seq<? extends T> seq) {
-        list.addAll(seq.toArrayList());
+        own().addAll(seq.toArrayList());
         return this;
     }
 
@@ -217,7 +282,7 @@ class SeqImpl<T> implements MutableSeq<T> {
 
     @Override
     public MutableSeq<T> prependInPlace(T value) {
-        list.add(0, value);
+        own().add(0, value);
         return this;
     }
 
@@ -229,18 +294,21 @@ class SeqImpl<T> implements MutableSeq<T> {
 
     @Override
     public MutableSeq<T> prependInPlace(Collection<? extends T> collection) {
-        list.addAll(0, collection);
+        own().addAll(0, collection);
         return this;
     }
 
     @Override
     public MutableSeq<T> prependInPlace(Seq<? extends T> seq) {
-        list.addAll(0, seq.toArrayList());
+        own().addAll(0, seq.toArrayList());
         return this;
     }
 
     @Override
     public MutableSeq<T> subSeq(int fromIndex, int toIndex) {
+        if (shared) {
+            return view(list.subList(fromIndex, toIndex));
+        }
         return new SeqImpl<>(list.subList(fromIndex, toIndex));
     }
 
@@ -352,14 +420,27 @@ class SeqImpl<T> implements MutableSeq<T> {
     public MutableSeq<MutableSeq<T>> eachSlice(int n) {
         if (n <= 0)
             throw new IllegalArgumentException("n should be a positive number.");
+        List<T> snapshot = snapshot();
         List<MutableSeq<T>> newList = new ArrayList<>();
         int size = this.size();
         for (int i = 0; i < size; i += n) {
-            newList.add(subSeq(i, i + n > size ? size : i + n));
+            newList.add(view(snapshot.subList(i, i + n > size ? size : i + n)));
         }
         return new SeqImpl<>(newList);
     }
 
+    @Override
+    public void forEachSlice(int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0)
+            throw new IllegalArgumentException("n should be a positive number.");
+        List<T> snapshot = snapshot();
+        int size = snapshot.size();
+        for (int i = 0; i < size; i += n) {
+            action.accept(view(snapshot.subList(i, i + n > size ? size : i + n)));
+        }
+    }
+
     @Override
     public boolean isEmpty() {
         return list.isEmpty();
@@ -374,55 +455,29 @@ class SeqImpl<T> implements MutableSeq<T> {
     }
 
 
-    private Seq<T> indexToSeq(int[] idxs) {
-        MutableSeq<T> result = new SeqImpl<>();
+    private MutableSeq<T> indexToSeq(int[] idxs) {
+        ArrayList<T> result = new ArrayList<>(idxs.length);
         for (int i : idxs) {
-            result.appendInPlace(get(i));
+            result.add(list.get(i));
         }
-        return result;
+        return new SeqImpl<>(result, false);
     }
 
     public void forEachCombination(int n, Consumer<Seq<T>> action) {
         Objects.requireNonNull(action);
-        if (n <= 0) {
-            throw new IllegalArgumentException("n should be a positive number");
-        }
-        if (n > size()) {
-            return;
-        }
-        //Selected element indices of a valid combination
-        int[] comb = new int[n];
-
-        //initialize first combination by the first n elements
-        for (int i = 0; i < n; i++) {
-            comb[i] = i;
-        }
-        action.accept(indexToSeq(comb));
-
-        while (comb[0] < size() - n) {
-            for (int i = 0; ; i++) {
-                if (i == n - 1 || comb[i + 1] - comb[i] > 1) { // find the first selected element that the next element of it is not selected
-                    comb[i]++; // make the next element selected instead
-                    // set all selected elements before i, to the beginning elements
-                    for (int j = 0; j < i; j++) {
-                        comb[j] = j;
-                    }
-                    action.accept(indexToSeq(comb));
-                    break;
-                }
-            }
-        }
+        Combinations.forEach(size(), n, comb -> action.accept(indexToSeq(comb)));
     }
 
     public MutableSeq<MutableSeq<T>> eachCombination(int n) {
         MutableSeq<MutableSeq<T>> result = new SeqImpl<>();
-        forEachCombination(n, s -> result.appendInPlace((MutableSeq<T>) s));
+        Combinations.forEach(size(), n, comb -> result.appendInPlace(indexToSeq(comb)));
         return result;
     }
 
     @Override
     public MutableSeq<T> clear() {
-        list.clear();
+        list = new ArrayList<>();
+        shared = false;
         return this;
     }
 
@@ -433,39 +488,38 @@ class SeqImpl<T> implements MutableSeq<T> {
 
     @Override
     public MutableSeq<T> set(int i, T t) {
-        list.set(i, t);
+        own().set(i, t);
         return this;
     }
 
     @Override
     public ArrayList<T> toArrayList() {
-        return list;
+        return own();
     }
 
     @Override
     public MutableSeq<T> shuffleInPlace() {
-        Collections.shuffle(list);
+        Collections.shuffle(own());
         return this;
     }
 
     @Override
     public MutableSeq<T> distinctInPlace() {
-        Collection<T> collection = new LinkedHashSet<>(list);
-        list.clear();
-        list.addAll(collection);
+        list = new ArrayList<>(new LinkedHashSet<>(list));
+        shared = false;
         return this;
     }
 
     @Override
     public MutableSeq<T> sortInPlace(Comparator<? super T> comparator) {
-        Collections.sort(list, comparator);
+        Collections.sort(own(), comparator);
         return this;
     }
 
     @Override
     public MutableSeq<T> rejectInPlace(Predicate<T> condition) {
         Objects.requireNonNull(condition);
-        final Iterator<T> each = list.iterator();
+        final Iterator<T> each = own().iterator();
         while (each.hasNext()) {
             if (condition.test(each.next())) {
                 each.remove();
@@ -477,7 +531,7 @@ class SeqImpl<T> implements MutableSeq<T> {
     @Override
     public MutableSeq<T> rejectInPlace(BiPredicate<T, Integer> condition) {
         Objects.requireNonNull(condition);
-        final Iterator<T> each = list.iterator();
+        final Iterator<T> each = own().iterator();
         int index = 0;
         while (each.hasNext()) {
             if (condition.test(each.next(), index)) {
@@ -491,7 +545,7 @@ class SeqImpl<T> implements MutableSeq<T> {
     @Override
     public MutableSeq<T> rejectWhileInPlace(Predicate<T> condition) {
         Objects.requireNonNull(condition);
-        final Iterator<T> each = list.iterator();
+        final Iterator<T> each = own().iterator();
         while (each.hasNext() && condition.test(each.next())) {
             each.remove();
         }
@@ -501,7 +555,7 @@ class SeqImpl<T> implements MutableSeq<T> {
     @Override
     public MutableSeq<T> rejectWhileInPlace(BiPredicate<T, Integer> condition) {
         Objects.requireNonNull(condition);
-        final Iterator<T> each = list.iterator();
+        final Iterator<T> each = own().iterator();
         for (int idx = 0; each.hasNext() && condition.test(each.next(), idx); idx++) {
             each.remove();
         }
@@ -511,7 +565,7 @@ class SeqImpl<T> implements MutableSeq<T> {
     @Override
     public MutableSeq<T> filterInPlace(Predicate<T> condition) {
         Objects.requireNonNull(condition);
-        final Iterator<T> each = list.iterator();
+        final Iterator<T> each = own().iterator();
         while (each.hasNext()) {
             if (!condition.test(each.next())) {
                 each.remove();
@@ -523,7 +577,7 @@ class SeqImpl<T> implements MutableSeq<T> {
     @Override
     public MutableSeq<T> filterInPlace(BiPredicate<T, Integer> condition) {
         Objects.requireNonNull(condition);
-        final Iterator<T> each = list.iterator();
+        final Iterator<T> each = own().iterator();
         int index = 0;
         while (each.hasNext()) {
             if (!condition.test(each.next(), index)) {
@@ -540,7 +594,7 @@ class SeqImpl<T> implements MutableSeq<T> {
         int posToRemove = 0;
         for (; posToRemove < size() && condition.test(get(posToRemove)); posToRemove++);
         for (int idx = size() - 1; idx >= posToRemove; idx--) {
-            list.remove(idx);
+            own().remove(idx);
         }
         return this;
     }
@@ -551,7 +605,7 @@ class SeqImpl<T> implements MutableSeq<T> {
         int posToRemove = 0;
         for (; posToRemove < size() && condition.test(get(posToRemove), posToRemove); posToRemove++);
         for (int idx = size() - 1; idx >= posToRemove; idx--) {
-            list.remove(idx);
+            own().remove(idx);
         }
         return this;
     }
@@ -564,7 +618,7 @@ class SeqImpl<T> implements MutableSeq<T> {
             times--;
             Collection<T> copy = new ArrayList<>(list);
             while (times > 0) {
-                list.addAll(copy);
+                own().addAll(copy);
                 times--;
             }
         }
@@ -573,7 +627,7 @@ class SeqImpl<T> implements MutableSeq<T> {
 
     @Override
     public MutableSeq<T> compactInPlace() {
-        list.removeIf(e -> e == null);
+        own().removeIf(e -> e == null);
         return this;
     }
 
@@ -590,10 +644,10 @@ class SeqImpl<T> implements MutableSeq<T> {
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        SeqImpl<?> seq = (SeqImpl<?>) o;
-        return Objects.equals(list, seq.list);
+        if (o instanceof SeqImpl) {
+            return Objects.equals(list, ((SeqImpl<?>) o).list);
+        }
+        return Seqs.equals(this, o);
     }
 
     @Override
@@ -720,6 +774,7 @@ class SeqImpl<T> implements MutableSeq<T> {
             distance += size;
         }
 
+        List<T> list = own();
         for (int cycleStart = 0, movedSteps = 0; movedSteps != size; cycleStart++) {
             T displaced = list.get(cycleStart);
             int i = cycleStart;
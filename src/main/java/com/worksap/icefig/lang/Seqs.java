@@ -19,6 +19,7 @@ package com.worksap.icefig.lang;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Objects;
 
 /**
  * Factory class for construct Seq and MutableSeq
@@ -26,19 +27,21 @@ import java.util.Collection;
 public class Seqs {
 
     /**
-     * Create an empty Seq
+     * Create an empty Seq.
+     * <p>
+     * The Seq is persistent: append, prepend and the other copying operations share structure with the
+     * original seq instead of copying all its elements.
+     * </p>
      */
     public static <T> Seq<T> newSeq() {
-        return new SeqImpl<>();
+        return VectorSeq.empty();
     }
 
     /**
      * Create an Seq with the single value
      */
     public static <T> Seq<T> newSeq(T value) {
-        Collection<T> collection = new ArrayList<>();
-        collection.add(value);
-        return new SeqImpl<>(collection);
+        return VectorSeq.of(new Object[]{value});
     }
 
     /**
@@ -46,14 +49,14 @@ public class Seqs {
      */
     @SuppressWarnings({"varargs", "unchecked"})
     public static <T> Seq<T> newSeq(T... values) {
-        return new SeqImpl<>(Arrays.asList(values));
+        return VectorSeq.of(Arrays.copyOf(values, values.length, Object[].class));
     }
 
     /**
      * Create an Seq with the single values inside the collection
      */
     public static <T> Seq<T> newSeq(Collection<T> values) {
-        return new SeqImpl<>(values);
+        return VectorSeq.of(values);
     }
 
     /**
@@ -86,4 +89,74 @@ public class Seqs {
     public static <T> MutableSeq<T> newMutableSeq(Collection<T> values) {
         return new SeqImpl<>(values);
     }
+
+    /**
+     * Create an IntSeq with the values, stored without boxing
+     */
+    public static IntSeq newIntSeq(int... values) {
+        return IntSeqImpl.of(values);
+    }
+
+    /**
+     * Create a MutableIntSeq with the values, stored without boxing
+     */
+    public static MutableIntSeq newMutableIntSeq(int... values) {
+        return IntSeqImpl.of(values);
+    }
+
+    /**
+     * Create a LongSeq with the values, stored without boxing
+     */
+    public static LongSeq newLongSeq(long... values) {
+        return LongSeqImpl.of(values);
+    }
+
+    /**
+     * Create a MutableLongSeq with the values, stored without boxing
+     */
+    public static MutableLongSeq newMutableLongSeq(long... values) {
+        return LongSeqImpl.of(values);
+    }
+
+    /**
+     * Create a DoubleSeq with the values, stored without boxing
+     */
+    public static DoubleSeq newDoubleSeq(double... values) {
+        return DoubleSeqImpl.of(values);
+    }
+
+    /**
+     * Create a MutableDoubleSeq with the values, stored without boxing
+     */
+    public static MutableDoubleSeq newMutableDoubleSeq(double... values) {
+        return DoubleSeqImpl.of(values);
+    }
+
+    /**
+     * Element-wise equality shared by all Seq implementations, following the contract of {@link java.util.List#equals(Object)}.
+     */
+    static boolean equals(Seq<?> seq, Object o) {
+        if (seq == o) return true;
+        if (!(o instanceof Seq)) return false;
+        Seq<?> another = (Seq<?>) o;
+        int size = seq.size();
+        if (size != another.size()) return false;
+        for (int i = 0; i < size; i++) {
+            if (!Objects.equals(seq.get(i), another.get(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hash code shared by all Seq implementations, consistent with {@link #equals(Seq, Object)}.
+     */
+    static int hashCode(Seq<?> seq) {
+        int[] hashCode = {1};
+        seq.forEach(e -> hashCode[0] = 31 * hashCode[0] + Objects.hashCode(e));
+        return 31 + hashCode[0];
+    }
+
+    static String toString(Seq<?> seq) {
+        return seq.join(", ", "[", "]").toString();
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.Arrays;
+
+/**
+ * Substring search over a CharSequence, with the Boyer-Moore-Horspool algorithm on primitive shift tables.
+ * Short patterns in a String are left to {@link String#indexOf(String)}, which is an intrinsic of the JVM.
+ */
+final class StringSearch {
+    /**
+     * Patterns shorter than this are searched with String#indexOf when the text is a String,
+     * as the shifts of Horspool are too short to pay for the table.
+     */
+    static final int INTRINSIC_LIMIT = 32;
+
+    private StringSearch() {
+    }
+
+    /**
+     * @return the index of the first occurrence of the pattern, or -1 if there is none
+     */
+    static int indexOf(CharSequence text, String pattern) {
+        int len = pattern.length(), size = text.length();
+        if (len == 0) {
+            return 0;
+        }
+        if (text instanceof String && len < INTRINSIC_LIMIT) {
+            return ((String) text).indexOf(pattern);
+        }
+        if (size < len) {
+            return -1;
+        }
+        // the shift of the window is decided by its last character, by where it occurs last in pattern[0, len - 1)
+        ShiftTable shifts = new ShiftTable(len);
+        for (int i = 0; i < len - 1; i++) {
+            shifts.put(pattern.charAt(i), len - 1 - i);
+        }
+        char last = pattern.charAt(len - 1);
+        for (int start = 0; start <= size - len; ) {
+            char c = text.charAt(start + len - 1);
+            if (c == last && matches(text, start, pattern, 0, len - 1)) {
+                return start;
+            }
+            start += shifts.get(c);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the last occurrence of the pattern, or -1 if there is none
+     */
+    static int lastIndexOf(CharSequence text, String pattern) {
+        int len = pattern.length(), size = text.length();
+        if (len == 0) {
+            return size;
+        }
+        if (text instanceof String && len < INTRINSIC_LIMIT) {
+            return ((String) text).lastIndexOf(pattern);
+        }
+        if (size < len) {
+            return -1;
+        }
+        // mirrored: the shift is decided by the first character of the window, by where it occurs first in pattern[1, len)
+        ShiftTable shifts = new ShiftTable(len);
+        for (int i = len - 1; i > 0; i--) {
+            shifts.put(pattern.charAt(i), i);
+        }
+        char first = pattern.charAt(0);
+        for (int start = size - len; start >= 0; ) {
+            char c = text.charAt(start);
+            if (c == first && matches(text, start, pattern, 1, len)) {
+                return start;
+            }
+            start -= shifts.get(c);
+        }
+        return -1;
+    }
+
+    /**
+     * @return whether pattern[from, to) occurs in the text at the same indexes shifted by start
+     */
+    private static boolean matches(CharSequence text, int start, String pattern, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(start + i) != pattern.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A char to shift map: a dense array for Latin-1 characters, and an open-addressed table for the others.
+     * Characters not put into the table have the default shift.
+     */
+    private static final class ShiftTable {
+        private static final int LATIN1 = 256;
+
+        private final int defaultShift;
+        private final int[] dense = new int[LATIN1];
+        // keys of the open-addressed table, -1 for an empty slot; allocated on the first non Latin-1 character
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        ShiftTable(int defaultShift) {
+            this.defaultShift = defaultShift;
+            Arrays.fill(dense, defaultShift);
+        }
+
+        void put(char c, int shift) {
+            if (c < LATIN1) {
+                dense[c] = shift;
+                return;
+            }
+            if (keys == null) {
+                keys = new int[16];
+                values = new int[16];
+                Arrays.fill(keys, -1);
+            } else if (size * 2 >= keys.length) {
+                grow();
+            }
+            int slot = slot(c);
+            if (keys[slot] < 0) {
+                keys[slot] = c;
+                size++;
+            }
+            values[slot] = shift;
+        }
+
+        int get(char c) {
+            if (c < LATIN1) {
+                return dense[c];
+            }
+            if (keys == null) {
+                return defaultShift;
+            }
+            int slot = slot(c);
+            return keys[slot] < 0 ? defaultShift : values[slot];
+        }
+
+        /**
+         * @return the slot of the character, or the empty slot where it should be
+         */
+        private int slot(char c) {
+            int mask = keys.length - 1;
+            int slot = (c * 0x9e3779b9 >>> 16) & mask;
+            while (keys[slot] >= 0 && keys[slot] != c) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys, oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, -1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] >= 0) {
+                    int slot = slot((char) oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Searches a pattern in seqs, compiled once so that it can be reused for many seqs.
+ * Elements are compared by {@link Objects#equals(Object, Object)}, so null elements are allowed.
+ * <p>
+ * If all the elements of the pattern are strings, boxed primitives, enums or null, whose hash codes are cheap,
+ * the Sunday algorithm is used, which skips elements by a table of the positions of the elements in the pattern.
+ * Otherwise the Knuth-Morris-Pratt algorithm is used, which only calls equals and takes linear time.
+ * </p>
+ * <p>
+ * The table of each direction is built at the first search in that direction, so a searcher used once
+ * only builds one. A searcher is immutable except for these tables and can be shared by threads.
+ * </p>
+ */
+public final class SubSeqSearcher<T> {
+    private final Object[] pattern;
+    private final boolean sunday;
+
+    // for Sunday: the last / first index of each element in the pattern, built at the first use
+    private volatile HashMap<Object, Integer> lastIndex;
+    private volatile HashMap<Object, Integer> firstIndex;
+
+    // for KMP: the length of the longest proper border of each prefix of the pattern / of the reversed pattern,
+    // built at the first use
+    private volatile int[] failure;
+    private volatile int[] reversedFailure;
+
+    private SubSeqSearcher(Object[] pattern) {
+        this.pattern = pattern;
+        this.sunday = hasCheapHash(pattern);
+    }
+
+    /**
+     * Compile the pattern into a searcher.
+     *
+     * @param pattern the seq to search
+     * @return the searcher of the pattern
+     * @throws NullPointerException if pattern is null
+     */
+    public static <T> SubSeqSearcher<T> of(Seq<T> pattern) {
+        Objects.requireNonNull(pattern);
+        return new SubSeqSearcher<>(elements(pattern).toArray());
+    }
+
+    private static boolean hasCheapHash(Object[] pattern) {
+        for (Object element : pattern) {
+            if (!(element == null || element instanceof String || element instanceof Number
+                    || element instanceof Character || element instanceof Boolean || element instanceof Enum)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private HashMap<Object, Integer> lastIndex() {
+        HashMap<Object, Integer> table = lastIndex;
+        if (table == null) {
+            table = new HashMap<>();
+            for (int i = 0; i < pattern.length; i++) {
+                table.put(pattern[i], i);
+            }
+            lastIndex = table;
+        }
+        return table;
+    }
+
+    private HashMap<Object, Integer> firstIndex() {
+        HashMap<Object, Integer> table = firstIndex;
+        if (table == null) {
+            table = new HashMap<>();
+            for (int i = pattern.length - 1; i >= 0; i--) {
+                table.put(pattern[i], i);
+            }
+            firstIndex = table;
+        }
+        return table;
+    }
+
+    private int[] failure() {
+        int[] table = failure;
+        if (table == null) {
+            table = failure(pattern, false);
+            failure = table;
+        }
+        return table;
+    }
+
+    private int[] reversedFailure() {
+        int[] table = reversedFailure;
+        if (table == null) {
+            table = failure(pattern, true);
+            reversedFailure = table;
+        }
+        return table;
+    }
+
+    private static int[] failure(Object[] pattern, boolean reversed) {
+        int m = pattern.length;
+        int[] failure = new int[m];
+        for (int i = 1, k = 0; i < m; i++) {
+            Object current = pattern[reversed ? m - 1 - i : i];
+            while (k > 0 && !Objects.equals(current, pattern[reversed ? m - 1 - k : k])) {
+                k = failure[k - 1];
+            }
+            if (Objects.equals(current, pattern[reversed ? m - 1 - k : k])) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+
+    /**
+     * @return the elements of the seq as a random access list, read without the index checks of {@link Seq#get(int)}
+     * when the seq is backed by a list, and copied out of the leaves of a persistent seq at once
+     * instead of descending its trie for each element
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> elements(Seq<T> seq) {
+        if (seq instanceof SeqImpl) {
+            return ((SeqImpl<T>) seq).elements();
+        }
+        if (seq instanceof VectorSeq) {
+            return (List<T>) Arrays.asList(seq.toArray());
+        }
+        return new SeqList<>(seq);
+    }
+
+    /**
+     * @return the number of elements of the pattern
+     */
+    public int length() {
+        return pattern.length;
+    }
+
+    /**
+     * @return the index of the first occurrence of the pattern in the seq, or -1 if there is none; 0 if the pattern is empty
+     * @throws NullPointerException if seq is null
+     */
+    public int indexIn(Seq<? extends T> seq) {
+        return indexIn(seq, 0);
+    }
+
+    /**
+     * @return the index of the first occurrence of the pattern in the seq at or after the index,
+     * or -1 if there is none; fromIndex if the pattern is empty
+     * @throws NullPointerException      if seq is null
+     * @throws IndexOutOfBoundsException if fromIndex is negative or larger than the size of the seq
+     */
+    public int indexIn(Seq<? extends T> seq, int fromIndex) {
+        List<? extends T> text = elements(seq);
+        int size = text.size(), len = pattern.length;
+        if (fromIndex < 0 || fromIndex > size) {
+            throw new IndexOutOfBoundsException("Index " + fromIndex + ", size " + size);
+        }
+        if (len == 0) {
+            return fromIndex;
+        }
+        if (!sunday) {
+            int[] failure = failure();
+            for (int i = fromIndex, k = 0; i < size; i++) {
+                Object current = text.get(i);
+                while (k > 0 && !Objects.equals(current, pattern[k])) {
+                    k = failure[k - 1];
+                }
+                if (Objects.equals(current, pattern[k]) && ++k == len) {
+                    return i - len + 1;
+                }
+            }
+            return -1;
+        }
+        HashMap<Object, Integer> lastIndex = lastIndex();
+        for (int start = fromIndex; start <= size - len; ) {
+            if (matches(text, start)) {
+                return start;
+            }
+            if (start + len >= size) {
+                return -1;
+            }
+            Integer last = lastIndex.get(text.get(start + len));
+            start += last == null ? len + 1 : len - last;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the last occurrence of the pattern in the seq, or -1 if there is none; 0 if the pattern is empty
+     * @throws NullPointerException if seq is null
+     */
+    public int lastIndexIn(Seq<? extends T> seq) {
+        List<? extends T> text = elements(seq);
+        int size = text.size(), len = pattern.length;
+        if (len == 0) {
+            return 0;
+        }
+        if (!sunday) {
+            int[] reversedFailure = reversedFailure();
+            for (int i = size - 1, k = 0; i >= 0; i--) {
+                Object current = text.get(i);
+                while (k > 0 && !Objects.equals(current, pattern[len - 1 - k])) {
+                    k = reversedFailure[k - 1];
+                }
+                if (Objects.equals(current, pattern[len - 1 - k]) && ++k == len) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        HashMap<Object, Integer> firstIndex = firstIndex();
+        for (int start = size - len; start >= 0; ) {
+            if (matches(text, start)) {
+                return start;
+            }
+            if (start == 0) {
+                return -1;
+            }
+            Integer first = firstIndex.get(text.get(start - 1));
+            start -= first == null ? len + 1 : first + 1;
+        }
+        return -1;
+    }
+
+    private boolean matches(List<?> text, int start) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (!Objects.equals(text.get(start + i), pattern[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A list reading the elements of a seq by {@link Seq#get(int)}.
+     */
+    private static final class SeqList<T> extends AbstractList<T> implements RandomAccess {
+        private final Seq<T> seq;
+
+        SeqList(Seq<T> seq) {
+            this.seq = seq;
+        }
+
+        @Override
+        public T get(int index) {
+            return seq.get(index);
+        }
+
+        @Override
+        public int size() {
+            return seq.size();
+        }
+    }
+}
@@ -0,0 +1,597 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The persistent implementation of Seq.
+ * <p>
+ * Elements are kept in two {@link PersistentVector}s: the front one holds the prepended elements in reverse order
+ * and the back one holds the rest, so both append and prepend only copy a path of the trie
+ * instead of the whole seq.
+ * </p>
+ * <p>
+ * A seq may be a window of the two vectors: its elements are those from offset, in the elements of the front one
+ * reversed followed by the back one, so that subSeq, eachCons and eachSlice share the vectors in O(1)
+ * instead of copying. A window keeps the whole vectors reachable while it is alive.
+ * </p>
+ */
+final class VectorSeq<T> implements Seq<T> {
+
+    private static final VectorSeq<?> EMPTY = new VectorSeq<>(PersistentVector.empty(), PersistentVector.empty());
+
+    private final PersistentVector<T> front;
+    private final PersistentVector<T> back;
+    private final int offset;
+    private final int size;
+
+    private VectorSeq(PersistentVector<T> front, PersistentVector<T> back) {
+        this(front, back, 0, front.size() + back.size());
+    }
+
+    private VectorSeq(PersistentVector<T> front, PersistentVector<T> back, int offset, int size) {
+        this.front = front;
+        this.back = back;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> VectorSeq<T> empty() {
+        return (VectorSeq<T>) EMPTY;
+    }
+
+    static <T> VectorSeq<T> of(Object[] elements) {
+        if (elements.length == 0) {
+            return empty();
+        }
+        return new VectorSeq<>(PersistentVector.empty(), PersistentVector.of(elements));
+    }
+
+    static <T> VectorSeq<T> of(Collection<? extends T> collection) {
+        return of(collection.toArray());
+    }
+
+    /**
+     * Returns the element at index. A negative index counts from the end of self.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this seq
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *                                   (<tt>index &gt;= size() || index &lt; -size()</tt>)
+     */
+    @Override
+    public T get(int index) {
+        int size = size();
+        if (index >= size || index < -size)
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size + ", should be within [" + (-size) + ", " + size + ")");
+        if (index < 0)
+            index += size;
+        index += offset;
+        int frontSize = front.size();
+        if (index < frontSize)
+            return front.get(frontSize - 1 - index);
+        else
+            return back.get(index - frontSize);
+    }
+
+    private VectorSeq<T> set(int index, T value) {
+        index += offset;
+        int frontSize = front.size();
+        if (index < frontSize)
+            return new VectorSeq<>(front.set(frontSize - 1 - index, value), back, offset, size);
+        else
+            return new VectorSeq<>(front, back.set(index - frontSize, value), offset, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether the window reaches the end of the back vector, so that appending to it extends this seq
+     */
+    private boolean atEnd() {
+        return offset + size == front.size() + back.size();
+    }
+
+    /**
+     * @return this seq in its own vectors, for the changes which cannot extend the window in place
+     */
+    private VectorSeq<T> detached() {
+        return of(toArray());
+    }
+
+    private VectorSeq<T> window(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return empty();
+        }
+        return new VectorSeq<>(front, back, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        int frontSize = front.size();
+        int end = offset + size;
+        for (int i = offset; i < Math.min(end, frontSize); i++) {
+            action.accept(front.get(frontSize - 1 - i));
+        }
+        if (end > frontSize) {
+            back.forEach(Math.max(offset - frontSize, 0), end - frontSize, action);
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super T, Integer> action) {
+        Objects.requireNonNull(action);
+        int[] index = {0};
+        forEach(t -> action.accept(t, index[0]++));
+    }
+
+    @Override
+    public Object[] toArray() {
+        int frontSize = front.size();
+        int end = offset + size;
+        Object[] array = new Object[size];
+        for (int i = offset; i < Math.min(end, frontSize); i++) {
+            array[i - offset] = front.get(frontSize - 1 - i);
+        }
+        if (end > frontSize) {
+            int from = Math.max(offset - frontSize, 0);
+            back.copyTo(from, end - frontSize, array, from + frontSize - offset);
+        }
+        return array;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ArrayList<T> toArrayList() {
+        return new ArrayList<>((List<T>) Arrays.asList(toArray()));
+    }
+
+    @Override
+    public <R> Seq<R> map(Function<T, R> func) {
+        Objects.requireNonNull(func);
+        Object[] result = new Object[size()];
+        forEach((t, i) -> result[i] = func.apply(t));
+        return of(result);
+    }
+
+    @Override
+    public <R> Seq<R> map(BiFunction<T, Integer, R> func) {
+        Objects.requireNonNull(func);
+        Object[] result = new Object[size()];
+        forEach((t, i) -> result[i] = func.apply(t, i));
+        return of(result);
+    }
+
+    @Override
+    public <R> Seq<R> flatMap(Function<T, Seq<R>> func) {
+        Objects.requireNonNull(func);
+        List<R> result = new ArrayList<>();
+        forEach(t -> func.apply(t).forEach((Consumer<R>) result::add));
+        return of(result);
+    }
+
+    @Override
+    public <R> Seq<R> flatMap(BiFunction<T, Integer, Seq<R>> func) {
+        Objects.requireNonNull(func);
+        List<R> result = new ArrayList<>();
+        forEach((t, i) -> func.apply(t, i).forEach((Consumer<R>) result::add));
+        return of(result);
+    }
+
+    @Override
+    public Seq<T> sample(int n) {
+        return shuffle().subSeq(0, Math.min(n, size()));
+    }
+
+    @Override
+    public boolean contains(T t) {
+        return indexOf(t) >= 0;
+    }
+
+    @Override
+    public Seq<T> shuffle() {
+        List<T> list = toArrayList();
+        Collections.shuffle(list);
+        return of(list);
+    }
+
+    @Override
+    public Seq<Seq<T>> eachCons(int n) {
+        List<Seq<T>> result = new ArrayList<>();
+        forEachCons(n, result::add);
+        return of(result);
+    }
+
+    @Override
+    public void forEachCons(int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be a positive number!");
+        }
+        for (int i = 0; i <= size - n; i++) {
+            action.accept(window(i, i + n));
+        }
+    }
+
+    @Override
+    public Seq<T> sort(Comparator<? super T> comparator) {
+        List<T> list = toArrayList();
+        Collections.sort(list, comparator);
+        return of(list);
+    }
+
+    @Override
+    public Seq<T> distinct() {
+        return of(new LinkedHashSet<>(toArrayList()));
+    }
+
+    @Override
+    public Seq<T> append(T value) {
+        if (!atEnd()) {
+            return detached().append(value);
+        }
+        return new VectorSeq<>(front, back.append(value), offset, size + 1);
+    }
+
+    @Override
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    final public Seq<T> append(T... values) {
+        Objects.requireNonNull(values);
+        return appendArray(values);
+    }
+
+    @Override
+    public Seq<T> append(Collection<? extends T> collection) {
+        if (isEmpty()) {
+            return of(collection);
+        }
+        if (!atEnd()) {
+            return detached().append(collection);
+        }
+        PersistentVector<T> result = back;
+        for (T value : collection) {
+            result = result.append(value);
+        }
+        return new VectorSeq<>(front, result, offset, size + collection.size());
+    }
+
+    @Override
+    public Seq<T> append(Seq<? extends T> seq) {
+        return appendArray(seq.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Seq<T> appendArray(Object[] values) {
+        if (isEmpty()) {
+            return of(values);
+        }
+        if (!atEnd()) {
+            return detached().appendArray(values);
+        }
+        PersistentVector<T> result = back;
+        for (Object value : values) {
+            result = result.append((T) value);
+        }
+        return new VectorSeq<>(front, result, offset, size + values.length);
+    }
+
+    @Override
+    public Seq<T> prepend(T value) {
+        if (offset > 0) {
+            return detached().prepend(value);
+        }
+        return new VectorSeq<>(front.append(value), back, 0, size + 1);
+    }
+
+    @Override
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    final public Seq<T> prepend(T... values) {
+        Objects.requireNonNull(values);
+        return prependArray(values);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Seq<T> prepend(Collection<? extends T> collection) {
+        return prependArray(collection.toArray());
+    }
+
+    @Override
+    public Seq<T> prepend(Seq<? extends T> seq) {
+        return prependArray(seq.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Seq<T> prependArray(Object[] values) {
+        if (isEmpty()) {
+            return of(values);
+        }
+        if (offset > 0) {
+            return detached().prependArray(values);
+        }
+        PersistentVector<T> result = front;
+        for (int i = values.length - 1; i >= 0; i--) {
+            result = result.append((T) values[i]);
+        }
+        return new VectorSeq<>(result, back, 0, size + values.length);
+    }
+
+    @Override
+    public Seq<T> subSeq(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+        if (toIndex > size)
+            throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        if (fromIndex == 0 && toIndex == size) {
+            return this;
+        }
+        return window(fromIndex, toIndex);
+    }
+
+    @Override
+    public Seq<T> reject(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        return filter(condition.negate());
+    }
+
+    @Override
+    public Seq<T> reject(BiPredicate<T, Integer> condition) {
+        Objects.requireNonNull(condition);
+        return filter(condition.negate());
+    }
+
+    @Override
+    public Seq<T> rejectWhile(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        int idx = 0;
+        for (; idx < size() && condition.test(get(idx)); idx++);
+        return subSeq(idx, size());
+    }
+
+    @Override
+    public Seq<T> rejectWhile(BiPredicate<T, Integer> condition) {
+        Objects.requireNonNull(condition);
+        int idx = 0;
+        for (; idx < size() && condition.test(get(idx), idx); idx++);
+        return subSeq(idx, size());
+    }
+
+    @Override
+    public Seq<T> filter(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        List<T> result = new ArrayList<>();
+        forEach(t -> {
+            if (condition.test(t))
+                result.add(t);
+        });
+        return of(result);
+    }
+
+    @Override
+    public Seq<T> filter(BiPredicate<T, Integer> condition) {
+        Objects.requireNonNull(condition);
+        List<T> result = new ArrayList<>();
+        forEach((t, i) -> {
+            if (condition.test(t, i))
+                result.add(t);
+        });
+        return of(result);
+    }
+
+    @Override
+    public Seq<T> filterWhile(Predicate<T> condition) {
+        Objects.requireNonNull(condition);
+        int idx = 0;
+        for (; idx < size() && condition.test(get(idx)); idx++);
+        return subSeq(0, idx);
+    }
+
+    @Override
+    public Seq<T> filterWhile(BiPredicate<T, Integer> condition) {
+        Objects.requireNonNull(condition);
+        int idx = 0;
+        for (; idx < size() && condition.test(get(idx), idx); idx++);
+        return subSeq(0, idx);
+    }
+
+    @Override
+    public Seq<T> repeat(int times) {
+        if (times <= 0)
+            throw new IllegalArgumentException("times must be a positive number.");
+        Object[] elements = toArray();
+        Object[] result = new Object[elements.length * times];
+        for (int i = 0; i < times; i++) {
+            System.arraycopy(elements, 0, result, i * elements.length, elements.length);
+        }
+        return of(result);
+    }
+
+    @Override
+    public Seq<T> compact() {
+        return filter(Objects::nonNull);
+    }
+
+    @Override
+    public Seq<Seq<T>> eachSlice(int n) {
+        List<Seq<T>> result = new ArrayList<>();
+        forEachSlice(n, result::add);
+        return of(result);
+    }
+
+    @Override
+    public void forEachSlice(int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        if (n <= 0)
+            throw new IllegalArgumentException("n should be a positive number.");
+        for (int i = 0; i < size; i += n) {
+            action.accept(window(i, i + n > size ? size : i + n));
+        }
+    }
+
+    @Override
+    public Seq<T> reverse() {
+        return new VectorSeq<>(back, front, front.size() + back.size() - offset - size, size);
+    }
+
+    private Seq<T> indexToSeq(int[] indices) {
+        Object[] result = new Object[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            result[i] = get(indices[i]);
+        }
+        return of(result);
+    }
+
+    @Override
+    public void forEachCombination(int n, Consumer<Seq<T>> action) {
+        Objects.requireNonNull(action);
+        Combinations.forEach(size(), n, comb -> action.accept(indexToSeq(comb)));
+    }
+
+    @Override
+    public Seq<Seq<T>> eachCombination(int n) {
+        List<Seq<T>> result = new ArrayList<>();
+        Combinations.forEach(size(), n, comb -> result.add(indexToSeq(comb)));
+        return of(result);
+    }
+
+    @Override
+    public int indexOf(T t) {
+        for (int i = 0; i < size(); i++) {
+            if (Objects.equals(t, get(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(T t) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (Objects.equals(t, get(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public Seq<T> intersect(Seq<T> seq) {
+        Objects.requireNonNull(seq);
+        if (seq.isEmpty()) {
+            return empty();
+        }
+
+        Map<T, Integer> counts = countIndex(seq);
+        List<T> result = new ArrayList<>();
+        forEach(t -> {
+            Integer count = counts.get(t);
+            if (count != null) {
+                result.add(t);
+                if (count == 1) {
+                    counts.remove(t);
+                } else {
+                    counts.put(t, count - 1);
+                }
+            }
+        });
+        return of(result);
+    }
+
+    @Override
+    public Seq<T> difference(Seq<T> seq) {
+        Objects.requireNonNull(seq);
+        if (seq.isEmpty()) {
+            return this;
+        }
+
+        Map<T, Integer> counts = countIndex(seq);
+        List<T> result = new ArrayList<>();
+        forEach(t -> {
+            Integer count = counts.get(t);
+            if (count != null) {
+                if (count == 1) {
+                    counts.remove(t);
+                } else {
+                    counts.put(t, count - 1);
+                }
+            } else {
+                result.add(t);
+            }
+        });
+        return of(result);
+    }
+
+    private Map<T, Integer> countIndex(Seq<T> seq) {
+        Map<T, Integer> counts = new HashMap<>(seq.size());
+        seq.forEach(t -> counts.merge(t, 1, Integer::sum));
+        return counts;
+    }
+
+    @Override
+    public Seq<T> swap(int i, int j) {
+        T tmp = get(i);
+        VectorSeq<T> result = set(i < 0 ? i + size() : i, get(j));
+        return result.set(j < 0 ? j + size() : j, tmp);
+    }
+
+    @Override
+    public Seq<T> rotate(int distance) {
+        int size = size();
+        if (size == 0) {
+            return this;
+        }
+        distance = distance % size;
+        if (distance < 0) {
+            distance += size;
+        }
+        Object[] elements = toArray();
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[(i + distance) % size] = elements[i];
+        }
+        return of(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Seqs.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Seqs.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return Seqs.toString(this);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BiHashTest {
+    @Test
+    public void testKeysOf() {
+        BiHash<String, String> hash = Hashes.newBiHash();
+        hash.putInPlace("alice", "admin").putInPlace("bob", "user").putInPlace("carol", "admin");
+        assertEquals(Seqs.newSeq("alice", "carol"), hash.keysOf("admin"));
+        assertEquals(Seqs.newSeq("bob"), hash.keysOf("user"));
+        assertEquals(Seqs.newSeq(), hash.keysOf("guest"));
+
+        Seq<String> admins = hash.keysOf("admin");
+        hash.putInPlace("alice", "user");
+        assertEquals(Seqs.newSeq("alice", "carol"), admins);
+        assertEquals(Seqs.newSeq("carol"), hash.keysOf("admin"));
+        assertEquals(Seqs.newSeq("bob", "alice"), hash.keysOf("user"));
+
+        hash.removeInPlace("carol");
+        assertEquals(Seqs.newSeq(), hash.keysOf("admin"));
+        assertFalse(hash.containsValue("admin"));
+        hash.removeInPlace("bob", "admin");
+        assertTrue(hash.containsKey("bob"));
+        hash.removeInPlace("bob", "user");
+        assertEquals(Seqs.newSeq("alice"), hash.keysOf("user"));
+        assertEquals(1, hash.count("user"));
+
+        hash.putIfAbsentInPlace("alice", "admin").putIfAbsentInPlace("dave", null).putIfAbsentInPlace("dave", "user");
+        assertEquals(Seqs.newSeq("alice", "dave"), hash.keysOf("user"));
+        hash.replaceInPlace("erin", "user").replaceInPlace("dave", "user", "admin");
+        assertEquals(Seqs.newSeq("dave"), hash.keysOf("admin"));
+        hash.replaceAllInPlace((k, v) -> v + "s");
+        assertEquals(Seqs.newSeq("alice"), hash.keysOf("users"));
+        hash.filterInPlace((k, v) -> k.startsWith("d"));
+        assertEquals(Seqs.newSeq(), hash.keysOf("users"));
+        assertEquals(Seqs.newSeq("dave"), hash.keysOf("admins"));
+        hash.clear();
+        assertEquals(Seqs.newSeq(), hash.keysOf("admins"));
+    }
+
+    @Test
+    public void testCopies() {
+        Map<Integer, String> map = new HashMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, null);
+        BiHash<Integer, String> hash = Hashes.newBiHash(map);
+        assertEquals(Seqs.newSeq(3), hash.keysOf(null));
+
+        BiHash<Integer, String> put = hash.put(4, "a");
+        assertEquals(Seqs.newSeq(1, 4), put.keysOf("a"));
+        assertEquals(Seqs.newSeq(1), hash.keysOf("a"));
+        assertEquals(Seqs.newSeq(2), hash.remove(1).keysOf("b"));
+        assertEquals(Seqs.newSeq(), hash.remove(1).keysOf("a"));
+        assertEquals(Seqs.newSeq(1, 2), hash.replace(2, "a").keysOf("a"));
+        assertEquals(Seqs.newSeq(1, 2, 3), hash.replaceAll((k, v) -> "x").keysOf("x"));
+        assertEquals(Seqs.newSeq(2), hash.reject((k, v) -> k != 2).keysOf("b"));
+        assertEquals(Seqs.newSeq(1, 5), hash.merge(Hashes.<Integer, String>newMutableHash().putInPlace(5, "a")).keysOf("a"));
+        assertEquals(Seqs.newSeq(1, 6), hash.merge(Hashes.<Integer, String>newHash().put(6, "a")).keysOf("a"));
+        assertEquals(Hashes.newMutableHash(map), hash);
+    }
+
+    @Test
+    public void testInverse() {
+        BiHash<String, Integer> hash = Hashes.newBiHash();
+        hash.putInPlace("a", 1).putInPlace("b", 2).putInPlace("c", 1);
+        Hash<Integer, Seq<String>> inverse = hash.inverse();
+        assertEquals(2, inverse.size());
+        assertEquals(Seqs.newSeq("a", "c"), inverse.get(1));
+        assertTrue(inverse.containsKey(2));
+
+        hash.putInPlace("d", 3);
+        assertEquals(3, inverse.size());
+        assertEquals(Seqs.newSeq(1, 2, 3), inverse.keys().sort(Integer::compare));
+        assertEquals(Seqs.newSeq("d"), inverse.get(3));
+        assertEquals(3, inverse.put(4, Seqs.newSeq("e")).size() - 1);
+        assertEquals(3, inverse.size());
+
+        Helpers.assertThrows(UnsupportedOperationException.class, () -> ((MutableHash<Integer, Seq<String>>) inverse).putInPlace(5, Seqs.newSeq()));
+        Helpers.assertThrows(UnsupportedOperationException.class, () -> ((MutableHash<Integer, Seq<String>>) inverse).clear());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class CharSeqMatcherTest {
+
+    private static Seq<CharSeq> charSeqs(String... strings) {
+        return Seqs.newSeq(strings).map(CharSeq::of);
+    }
+
+    @Test
+    public void testFindAll() {
+        CharSeqMatcher matcher = CharSeqMatcher.of(charSeqs("he", "she", "his", "hers"));
+        Seq<CharSeqMatcher.Match> matches = matcher.findAll(CharSeq.of("ushers"));
+        assertEquals(Seqs.newSeq(
+                new CharSeqMatcher.Match(1, 4, 1),
+                new CharSeqMatcher.Match(2, 4, 0),
+                new CharSeqMatcher.Match(2, 6, 3)), matches);
+        assertTrue(matcher.containsAny(CharSeq.of("this")));
+        assertFalse(matcher.containsAny(CharSeq.of("hi thorn")));
+        assertFalse(matcher.containsAny(CharSeq.of("")));
+
+        Helpers.assertThrows(IllegalArgumentException.class, () -> CharSeqMatcher.of(charSeqs("a", "")));
+        Helpers.assertThrows(NullPointerException.class, () -> CharSeqMatcher.of(null));
+    }
+
+    @Test
+    public void testSameAsBruteForce() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            MutableSeq<CharSeq> patterns = Seqs.newMutableSeq();
+            for (int i = 1 + random.nextInt(8); i > 0; i--) {
+                patterns.appendInPlace(CharSeq.of(randomText(random, 1 + random.nextInt(4))));
+            }
+            CharSeq text = CharSeq.of(randomText(random, random.nextInt(100)));
+            CharSeqMatcher matcher = CharSeqMatcher.of(patterns);
+
+            MutableSeq<CharSeqMatcher.Match> expected = Seqs.newMutableSeq();
+            for (int end = 1; end <= text.length(); end++) {
+                for (int length = end; length > 0; length--) {
+                    int index = patterns.findFirstIndex(text.subSeq(end - length, end)::equals);
+                    if (index >= 0) {
+                        expected.appendInPlace(new CharSeqMatcher.Match(end - length, end, index));
+                    }
+                }
+            }
+            assertEquals(expected, matcher.findAll(text));
+            assertEquals(patterns.any(text::containsSubSeq), matcher.containsAny(text));
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = "abあ".charAt(random.nextInt(3));
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testReplaceAll() {
+        CharSeqMatcher matcher = CharSeqMatcher.of(charSeqs("cat", "category", "dog", "at"));
+        Hash<CharSeq, CharSeq> replacements = Hashes.<CharSeq, CharSeq>newHash()
+                .put(CharSeq.of("cat"), CharSeq.of("kitten"))
+                .put(CharSeq.of("category"), CharSeq.of("class"))
+                .put(CharSeq.of("at"), CharSeq.of("@"));
+        assertEquals(CharSeq.of("a class of kitten and dog, th@"),
+                matcher.replaceAll(CharSeq.of("a category of cat and dog, that"), replacements));
+        CharSeq unchanged = CharSeq.of("only dogs here");
+        assertSame(unchanged, matcher.replaceAll(unchanged, replacements));
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        CharSeqMatcher matcher = CharSeqMatcher.of(charSeqs("needle", "pin"));
+        StringBuilder hay = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            hay.append("hay");
+        }
+        CharSeq text = CharSeq.of(hay + "needle" + hay);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Seq<CharSeqMatcher.Match>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> matcher.findAll(text)));
+            }
+            for (Future<Seq<CharSeqMatcher.Match>> future : futures) {
+                assertEquals(Seqs.newSeq(new CharSeqMatcher.Match(3000, 3006, 0)), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
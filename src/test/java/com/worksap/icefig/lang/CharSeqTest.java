@@ -18,9 +18,18 @@ package com.worksap.icefig.lang;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
 
@@ -96,6 +105,131 @@ public class CharSeqTest {
                 CharSeq.of("021_50242132").split("[- ]").toArray());
     }
 
+    @Test
+    public void testSplitLiteral() {
+        String[] texts = {"", ",", ",,", "a", "a,b", ",a,,b,,", "a,,b", "a.b.c", "\n", "a\r\n\r\nb\r\n", "a\r\rb\n\n", "\r\n\r"};
+        for (String text : texts) {
+            CharSeq seq = CharSeq.of(text);
+            assertEquals(text, Seqs.newSeq(text.split(",")).map(CharSeq::of), seq.split(','));
+            assertEquals(text, Seqs.newSeq(text.split("\\.")).map(CharSeq::of), seq.splitLiteral("."));
+            assertEquals(text, Seqs.newSeq(text.split(",,")).map(CharSeq::of), seq.splitLiteral(",,"));
+            assertEquals(text, Seqs.newSeq(text.split("")).map(CharSeq::of), seq.splitLiteral(""));
+            assertEquals(text, Seqs.newSeq(text.split("\n|\r\n")).map(CharSeq::of), seq.eachLine());
+        }
+
+        MutableSeq<CharSeq> pieces = Seqs.newMutableSeq();
+        CharSeq.of("a, b, , c, ").forEachSplitLiteral(", ", pieces::appendInPlace);
+        assertEquals(Seqs.newSeq(CharSeq.of("a"), CharSeq.of("b"), CharSeq.of(""), CharSeq.of("c")), pieces);
+        Helpers.assertThrows(NullPointerException.class, () -> CharSeq.of("a").splitLiteral(null));
+        Helpers.assertThrows(NullPointerException.class, () -> CharSeq.of("a").forEachSplit(',', null));
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        String[] texts = {"", "\n", "a", "a\n", "a\r\n\r\nb\r\n\n", "\n\na\r\rb", "a\n\n\nb\r"};
+        for (String text : texts) {
+            assertEquals(text, CharSeq.of(text).eachLine(), CharSeq.lines(new StringReader(text)).toSeq());
+        }
+
+        // lines and "\r\n" crossing the chunk boundaries
+        StringBuilder builder = new StringBuilder();
+        Random random = new Random(42);
+        while (builder.length() < 3 * LineReader.CHUNK_SIZE) {
+            builder.append(random.nextInt(10) == 0 ? "\r\n" : random.nextInt(10) == 0 ? "\n" : "x");
+        }
+        builder.setLength(LineReader.CHUNK_SIZE - 1);
+        builder.append("\r\nlast line");
+        CharSeq text = CharSeq.of(builder.toString());
+        assertEquals(text.eachLine(), CharSeq.lines(new StringReader(text.toString())).toSeq());
+
+        Path file = Files.createTempFile("lines", ".txt");
+        try {
+            Files.write(file, "\u3042\u3044\r\n\nfoo\nbar\n".getBytes(StandardCharsets.UTF_8));
+            LazySeq<CharSeq> lines = CharSeq.lines(file);
+            assertEquals(Seqs.newSeq(CharSeq.of("\u3042\u3044"), CharSeq.of(""), CharSeq.of("foo"), CharSeq.of("bar")), lines.toSeq());
+            assertEquals(CharSeq.of("foo"), lines.findFirst(line -> line.startsWith(CharSeq.of("f"))));
+            assertEquals(4, lines.count());
+        } finally {
+            Files.delete(file);
+        }
+        Helpers.assertThrows(UncheckedIOException.class, () -> CharSeq.lines(file).count());
+        Helpers.assertThrows(NullPointerException.class, () -> CharSeq.lines((Path) null));
+    }
+
+    @Test
+    public void testMapped() throws IOException {
+        StringBuilder ascii = new StringBuilder();
+        StringBuilder utf8 = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            ascii.append("line ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+            utf8.append("\u884c").append(i).append(i % 5 == 0 ? "\ud83d\ude00" : "\u00e9").append(random.nextInt(10) == 0 ? "\n\n" : "\n");
+        }
+        for (String content : new String[]{"", "abc", ascii.toString(), utf8.toString()}) {
+            Path file = Files.createTempFile("mapped", ".txt");
+            try {
+                Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+                CharSeq expected = CharSeq.of(content);
+                for (CharSeq mapped : new CharSeq[]{CharSeq.ofMapped(file), new CharSeq(MappedText.open(file, 15))}) {
+                    assertEquals(expected.length(), mapped.length());
+                    for (int i = 0; i < content.length(); i += 997) {
+                        assertEquals(expected.charAt(i), mapped.charAt(i));
+                    }
+                    assertEquals(expected, mapped);
+                    assertEquals(expected.eachLine(), mapped.eachLine());
+                    assertEquals(expected.scan("[0-9]+7\\b"), mapped.scan("[0-9]+7\\b"));
+                    assertEquals(expected.indexOfSubSeq("19999"), mapped.indexOfSubSeq("19999"));
+                    assertEquals(expected.endsWith("\n"), mapped.endsWith("\n"));
+                    assertEquals(expected.startsWith(CharSeq.of("line 0")), mapped.startsWith(CharSeq.of("line 0")));
+
+                    int from = content.length() / 3, to = content.length() / 2;
+                    CharSeq sub = mapped.subSeq(from, to);
+                    assertEquals(expected.subSeq(from, to), sub);
+                    assertEquals(expected.subSeq(from, to).eachLine(), sub.eachLine());
+                    if (sub.length() > 10) {
+                        assertEquals(expected.subSeq(from + 5, from + 10), sub.subSeq(5, 10));
+                    }
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testSubSeqSearch() {
+        Random random = new Random(11);
+        char[] cjk = new char[64];
+        for (int i = 0; i < cjk.length; i++) {
+            cjk[i] = (char) ('\u4e00' + i * 97);
+        }
+        char[][] alphabets = {{'a', 'b'}, {'a', 'b', 'c', '\u00ff'}, {'a', '\u3042', '\u3044', '\uffff', '\u0100'}, cjk};
+        for (int round = 0; round < 500; round++) {
+            char[] alphabet = alphabets[round % alphabets.length];
+            String text = randomText(random, alphabet, random.nextInt(300));
+            String pattern = randomText(random, alphabet, 1 + random.nextInt(round % 2 == 0 ? 4 : 60));
+            if (random.nextBoolean() && text.length() > pattern.length()) {
+                int at = random.nextInt(text.length() - pattern.length());
+                text = text.substring(0, at) + pattern + text.substring(at + pattern.length());
+            }
+            assertEquals(text.indexOf(pattern), CharSeq.of(text).indexOfSubSeq(pattern));
+            assertEquals(text.lastIndexOf(pattern), CharSeq.of(text).lastIndexOfSubSeq(pattern));
+            // a text which is not a String is always searched with the shift tables
+            assertEquals(text.indexOf(pattern), StringSearch.indexOf(new StringBuilder(text), pattern));
+            assertEquals(text.lastIndexOf(pattern), StringSearch.lastIndexOf(new StringBuilder(text), pattern));
+        }
+        assertEquals(0, CharSeq.of("abc").lastIndexOfSubSeq(""));
+        assertEquals(0, CharSeq.of("abc").indexOfSubSeq(""));
+    }
+
+    private static String randomText(Random random, char[] alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return new String(chars);
+    }
+
     @Test
     public void testStartsWithAndEndsWith() {
         assertTrue(CharSeq.of("021 50242132").startsWith(CharSeq.of("021")));
@@ -233,6 +367,96 @@ public class CharSeqTest {
         Helpers.assertThrows(NullPointerException.class, () -> cs.forEachCodePoint(null));
     }
 
+    @Test
+    public void testPatternCache() {
+        PatternCache cache = CharSeq.patternCache();
+        cache.clear();
+        CharSeq seq = CharSeq.of("a1b22c333");
+        assertEquals(Seqs.newSeq(CharSeq.of("a"), CharSeq.of("b"), CharSeq.of("c")), seq.split("\\d+"));
+        assertEquals(Seqs.newSeq(CharSeq.of("1"), CharSeq.of("22"), CharSeq.of("333")), seq.scan("\\d+"));
+        assertEquals(CharSeq.of("a#b#c#"), seq.replaceAll("\\d+", "#"));
+        assertEquals(1, cache.missCount());
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.size());
+
+        Pattern digits = Pattern.compile("\\d+");
+        assertEquals(seq.split("\\d+"), seq.split(digits));
+        assertEquals(CharSeq.of("a#b22c333"), seq.replaceFirst(digits, CharSeq.of("#")));
+        assertEquals(Seqs.newSeq(CharSeq.of("a1b22c"), CharSeq.of("333"), CharSeq.of("")), seq.rPartition(digits));
+        assertTrue(seq.matches(Pattern.compile("[a-z0-9]+")));
+        assertEquals(1, cache.missCount());
+
+        for (int i = 0; i <= cache.capacity(); i++) {
+            seq.matches("x" + i);
+        }
+        assertEquals(cache.capacity(), cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hitCount());
+        Helpers.assertThrows(NullPointerException.class, () -> seq.split((String) null));
+
+        // String.split does not compile the regex of one literal character
+        assertEquals(Seqs.newSeq(CharSeq.of("a"), CharSeq.of("b"), CharSeq.of(""), CharSeq.of("c")), CharSeq.of("a,b,,c").split(","));
+        assertEquals(Seqs.newSeq(CharSeq.of("a"), CharSeq.of("b")), CharSeq.of("a.b").split("\\."));
+        assertEquals(Seqs.newSeq(CharSeq.of("a"), CharSeq.of("b")), CharSeq.of("a1b").split("\\d"));
+        assertEquals(Seqs.newSeq(CharSeq.of("a"), CharSeq.of("b")), CharSeq.of("a|b").split("[|]"));
+        assertEquals(2, cache.missCount());
+        assertEquals(0, cache.hitCount());
+    }
+
+    @Test
+    public void testPatternCacheThreads() throws InterruptedException {
+        PatternCache cache = new PatternCache(8);
+        int threads = 8, lookups = 20000;
+        Thread[] workers = new Thread[threads];
+        AtomicInteger mismatches = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < lookups; i++) {
+                    String regex = "p" + (i * 31 + seed) % 12;
+                    if (!regex.equals(cache.get(regex).pattern())) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(0, mismatches.get());
+        assertEquals((long) threads * lookups, cache.hitCount() + cache.missCount());
+        assertTrue(cache.size() <= cache.capacity());
+        assertTrue(cache.hitCount() > 0);
+        Helpers.assertThrows(IllegalArgumentException.class, () -> new PatternCache(0));
+    }
+
+    @Test
+    public void testPrimitiveIteration() {
+        CharSeq cs = CharSeq.of("a\u00e9\u4e2d\ud83d\ude00\ud800z");
+        StringBuilder chars = new StringBuilder();
+        cs.forEachCharValue(chars::append);
+        assertEquals(cs.toString(), chars.toString());
+
+        MutableIntSeq codePoints = Seqs.newMutableIntSeq();
+        cs.forEachCodePointValue(codePoints::appendInPlace);
+        assertEquals(Seqs.newIntSeq('a', 0xe9, 0x4e2d, 0x1f600, 0xd800, 'z'), codePoints);
+        assertEquals(codePoints, cs.codePoints());
+        assertEquals(Seqs.newSeq(97, 0xe9, 0x4e2d, 0x1f600, 0xd800, 122), cs.eachCodePoint());
+        assertEquals(7, cs.chars().size());
+        assertEquals(0xd83d, cs.chars().get(3));
+        assertEquals(0, CharSeq.of("").codePoints().size());
+
+        MutableSeq<Byte> bytes = Seqs.newMutableSeq();
+        cs.forEachByteValue(bytes::appendInPlace);
+        assertEquals(cs.eachByte(), bytes);
+
+        Helpers.assertThrows(NullPointerException.class, () -> cs.forEachCharValue(null));
+        Helpers.assertThrows(NullPointerException.class, () -> cs.forEachByteValue(null));
+        Helpers.assertThrows(NullPointerException.class, () -> cs.forEachCodePointValue(null));
+    }
+
     @Test
     public void testEquals() {
         CharSeq cs = CharSeq.of("Hello World!");
@@ -283,4 +507,32 @@ public class CharSeqTest {
         Helpers.assertThrows(NullPointerException.class, () -> CharSeq.of("ABC").indexOfSubSeq((CharSeq) null));
         Helpers.assertThrows(NullPointerException.class, () -> CharSeq.of("ABC").lastIndexOfSubSeq((CharSeq) null));
     }
+
+    @Test
+    public void testLargeConcatAndSubSeq() {
+        CharSeq report = CharSeq.of("");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            String line = "line " + i + "\n";
+            report = i % 2 == 0 ? report.concat(line) : report.concat(CharSeq.of(line));
+            expected.append(line);
+        }
+        report = report.prepend("header\n");
+        expected.insert(0, "header\n");
+        assertEquals(expected.length(), report.length());
+        assertEquals(expected.toString(), report.toString());
+        assertEquals(CharSeq.of(expected.toString()), report);
+        assertEquals(expected.toString().hashCode(), report.hashCode());
+        assertEquals(Character.valueOf(expected.charAt(40000)), report.charAt(40000));
+
+        CharSeq middle = report.subSeq(1000, 30000);
+        assertEquals(expected.substring(1000, 30000), middle.toString());
+        assertEquals(expected.substring(2000, 2100), middle.subSeq(1000, 1100).toString());
+        assertEquals(expected.substring(1000) + expected, middle.concat(report.subSeq(30000)).concat(report).toString());
+        assertTrue(report.startsWith(CharSeq.of("header\nline 0")));
+        assertEquals(CharSeq.of("Header\nline 0\n"), report.subSeq(0, 14).capitalize());
+
+        Helpers.assertThrows(StringIndexOutOfBoundsException.class, () -> CharSeq.of(expected.toString()).subSeq(10, 5));
+        Helpers.assertThrows(StringIndexOutOfBoundsException.class, () -> CharSeq.of(expected.toString()).concat("!").charAt(expected.length() + 1));
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentHashTest {
+    @Test
+    public void testOperations() {
+        MutableHash<String, Integer> hash = Hashes.newConcurrentHash();
+        hash.putInPlace("a", 1).putInPlace("b", 2).putIfAbsentInPlace("a", 3).putIfAbsentInPlace("c", 3);
+        assertEquals(3, hash.size());
+        assertEquals(1, hash.get("a").intValue());
+        hash.replaceInPlace("a", 2, 5).replaceInPlace("b", 2, 5);
+        assertEquals(1, hash.get("a").intValue());
+        assertEquals(5, hash.get("b").intValue());
+        assertEquals(Seqs.newSeq("a", "b", "c"), hash.keys().sort(String::compareTo));
+        assertEquals(Seqs.newSeq(1, 3, 5), hash.values().sort(Integer::compare));
+
+        MutableHash<String, Integer> filtered = hash.filter((k, v) -> v > 1);
+        assertEquals(2, filtered.size());
+        assertTrue(filtered instanceof ConcurrentHashImpl);
+        assertEquals(3, hash.size());
+        assertTrue(hash.put("d", 4) instanceof ConcurrentHashImpl);
+        assertFalse(hash.containsKey("d"));
+        assertEquals("a", hash.invert().get(1));
+
+        hash.rejectInPlace((k, v) -> v == 5);
+        assertEquals(2, hash.size());
+        assertEquals(1, hash.countIf((k, v) -> v > 2));
+        hash.replaceAllInPlace((k, v) -> v * 10);
+        assertEquals(30, hash.get("c").intValue());
+
+        Map<String, Integer> map = new HashMap<>();
+        map.put("a", 0);
+        map.put("x", 1);
+        assertEquals(Hashes.newMutableHash(map).putInPlace("c", 30), hash.merge(Hashes.newMutableHash(map)));
+        assertEquals(hash, Hashes.newMutableHash(map).putInPlace("a", 10).putInPlace("c", 30).removeInPlace("x"));
+
+        Helpers.assertThrows(NullPointerException.class, () -> Hashes.newConcurrentHash().putInPlace(null, 1));
+        Helpers.assertThrows(NullPointerException.class, () -> Hashes.newConcurrentHash().putInPlace(1, null));
+    }
+
+    @Test
+    public void testParallelMerge() {
+        MutableHash<Integer, Integer> source = Hashes.newMutableHash();
+        for (int i = 0; i < 50_000; i++) {
+            source.putInPlace(i, i * 2);
+        }
+        MutableHash<Integer, Integer> hash = Hashes.<Integer, Integer>newConcurrentHash().putInPlace(-1, -1);
+        hash.mergeInPlace(source);
+        assertEquals(50_001, hash.size());
+        assertEquals(99_998, hash.get(49_999).intValue());
+
+        Hash<Integer, Integer> persistent = Hashes.newHash();
+        for (int i = 0; i < 10_000; i++) {
+            persistent = persistent.put(i, -i);
+        }
+        hash.mergeInPlace(persistent);
+        assertEquals(-9_999, hash.get(9_999).intValue());
+        assertEquals(50_001, hash.size());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        MutableHash<Integer, Integer> hash = Hashes.newConcurrentHash();
+        AtomicInteger winners = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        hash.putIfAbsentInPlace(i, id);
+                        if (hash.get(i) == id) {
+                            winners.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        assertEquals(1000, hash.size());
+        assertEquals(1000, winners.get());
+    }
+}
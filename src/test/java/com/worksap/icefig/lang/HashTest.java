@@ -241,6 +241,68 @@ public class HashTest {
         assertFalse(hash.containsKey(2));
     }
 
+    @Test
+    public void testLiveViews() {
+        MutableHash<Integer, String> hash = Hashes.<Integer, String>newMutableHash().putInPlace(1, "a").putInPlace(2, "b");
+        Seq<Integer> keys = hash.keys();
+        Seq<String> values = hash.values();
+        Seq<java.util.Map.Entry<Integer, String>> entries = hash.entrySeq();
+        assertEquals(2, keys.size());
+        assertEquals(3, keys.reduce(Integer::sum).intValue());
+
+        hash.putInPlace(3, "c").removeInPlace(1);
+        assertEquals(2, keys.size());
+        assertEquals(5, keys.reduce(Integer::sum).intValue());
+        assertTrue(keys.contains(3));
+        assertFalse(keys.contains(1));
+        assertTrue(values.contains("c"));
+        assertEquals(Seqs.newSeq("b", "c"), values.sort(String::compareTo));
+        assertEquals(2, entries.size());
+
+        MutableSeq<Integer> copy = (MutableSeq<Integer>) hash.keys();
+        copy.appendInPlace(4);
+        assertEquals(3, copy.size());
+        assertEquals(2, hash.size());
+        assertFalse(hash.containsKey(4));
+
+        hash.clear();
+        assertTrue(keys.isEmpty());
+        assertEquals(Seqs.newSeq(), values);
+
+        hash.putInPlace(1, "x").putInPlace(2, "x").putInPlace(3, null);
+        assertEquals(2, hash.count("x"));
+        assertEquals(1, hash.count(null));
+        assertEquals(0, hash.count("y"));
+    }
+
+    @Test
+    public void testViewWindowsAfterChanges() {
+        MutableHash<Integer, Integer> hash = Hashes.newMutableHash();
+        for (int i = 0; i < 10; i++) {
+            hash.putInPlace(i, i * 10);
+        }
+        Seq<Integer> keys = hash.keys();
+        Seq<Integer> window = keys.subSeq(0, 5);
+        Seq<Integer> expectedWindow = Seqs.newSeq(window.toArrayList());
+        Seq<? extends Seq<Integer>> pairs = hash.values().eachCons(2);
+        Seq<? extends Seq<Integer>> slices = hash.values().eachSlice(4);
+        String expectedPairs = pairs.toString();
+        String expectedSlices = slices.toString();
+
+        hash.clear();
+        assertEquals(expectedWindow, window);
+        assertEquals(expectedWindow.toString(), window.toString());
+        assertEquals(expectedPairs, pairs.toString());
+        assertEquals(expectedSlices, slices.toString());
+        assertTrue(keys.isEmpty());
+
+        hash.putInPlace(100, 1);
+        assertEquals(Seqs.newSeq(100), keys);
+        assertEquals(expectedWindow, window);
+        assertEquals(Seqs.newSeq(100), keys.subSeq(0, 1));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> keys.subSeq(0, 2));
+    }
+
     @Test
     public void testEquals() {
         Hash<Integer, Integer> hash = Hashes.<Integer, Integer>newHash().put(1, 2).put(3, 4);
@@ -381,4 +443,129 @@ public class HashTest {
         assertEquals(0, mutableHash.count(3));
         assertEquals(2, mutableHash.countIf((k, v) -> v < 3));
     }
+
+    @Test
+    public void testPersistentHash() {
+        Hash<Integer, Integer> hash = Hashes.newHash();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            Hash<Integer, Integer> previous = hash;
+            hash = hash.put(i % 1500, i);
+            expected.put(i % 1500, i);
+            assertEquals(Math.min(i, 1500), previous.size());
+        }
+        for (int i = 0; i < 1500; i += 3) {
+            hash = hash.remove(i);
+            expected.remove(i);
+        }
+        assertEquals(Hashes.newMutableHash(expected), hash);
+        assertEquals(hash, Hashes.newMutableHash(expected));
+        assertEquals(expected.hashCode(), hash.hashCode());
+        assertEquals(expected.get(1), hash.get(1));
+        assertNull(hash.get(3));
+
+        Hash<Integer, Integer> small = Hashes.<Integer, Integer>newHash().put(1, 1);
+        assertTrue(small == small.put(1, 1));
+        assertTrue(small == small.remove(2));
+        assertEquals("{1=1}", small.toString());
+    }
+
+    @Test
+    public void testPersistentViewsAndMerge() {
+        Hash<Integer, String> hash = Hashes.newHash();
+        for (int i = 0; i < 100; i++) {
+            hash = hash.put(i, "v" + i % 10);
+        }
+        Seq<Integer> keys = hash.keys();
+        Seq<String> values = hash.values();
+        Seq<java.util.Map.Entry<Integer, String>> entries = hash.entrySeq();
+        assertEquals(100, keys.size());
+        assertTrue(keys.contains(99));
+        assertFalse(keys.contains(100));
+        assertTrue(values.contains("v9"));
+        assertFalse(values.contains("v10"));
+        assertTrue(entries.contains(new java.util.AbstractMap.SimpleImmutableEntry<>(3, "v3")));
+        assertFalse(entries.contains(new java.util.AbstractMap.SimpleImmutableEntry<>(3, "v4")));
+        assertEquals(Seqs.newSeq(0, 1, 2), keys.sort(Integer::compare).subSeq(0, 3));
+        assertEquals(10, values.distinct().size());
+        assertEquals(4950, keys.reduce(Integer::sum).intValue());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(hash.get(keys.get(i)), values.get(i));
+            assertEquals(keys.get(i), entries.get(i).getKey());
+        }
+
+        ((MutableSeq<Integer>) keys).appendInPlace(100);
+        assertEquals(101, keys.size());
+        assertEquals(100, hash.keys().size());
+        assertFalse(hash.containsKey(100));
+
+        MutableHash<Integer, String> mutable = Hashes.<Integer, String>newMutableHash().putInPlace(0, "x").putInPlace(200, "y");
+        Hash<Integer, String> merged = hash.merge(mutable);
+        assertEquals(101, merged.size());
+        assertEquals("x", merged.get(0));
+        assertEquals("y", merged.get(200));
+        assertEquals(hash.put(200, "y"), mutable.merge(hash));
+        Hash<Integer, String> other = Hashes.<Integer, String>newHash().put(1, "z").put(300, "w");
+        assertEquals("z", hash.merge(other).get(1));
+        assertEquals("w", mutable.merge(other).get(300));
+        assertEquals(4, mutable.merge(other).size());
+    }
+
+    /**
+     * A key whose hash code is shared by every fourth id.
+     */
+    private static final class Collider {
+        private final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 4;
+        }
+    }
+
+    @Test
+    public void testPersistentHashCollisions() {
+        Hash<Collider, Integer> hash = Hashes.newHash();
+        HashMap<Collider, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            hash = hash.put(new Collider(i), i);
+            expected.put(new Collider(i), i);
+        }
+        assertEquals(40, hash.size());
+        assertEquals(Hashes.newMutableHash(expected), hash);
+        assertEquals(expected.hashCode(), hash.hashCode());
+
+        Hash<Collider, Integer> replaced = hash.put(new Collider(5), -5);
+        assertEquals(40, replaced.size());
+        assertEquals(Integer.valueOf(-5), replaced.get(new Collider(5)));
+        assertEquals(Integer.valueOf(5), hash.get(new Collider(5)));
+        assertTrue(hash == hash.put(new Collider(5), 5));
+        assertTrue(hash == hash.remove(new Collider(40)));
+        assertNull(hash.get(new Collider(40)));
+
+        // one key is left in each bucket, so each collision node shrinks back to a bitmap node
+        for (int i = 4; i < 40; i++) {
+            hash = hash.remove(new Collider(i));
+            expected.remove(new Collider(i));
+            assertEquals(expected.size(), hash.size());
+        }
+        assertEquals(Hashes.newMutableHash(expected), hash);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), hash.get(new Collider(i)));
+        }
+        assertEquals(Integer.valueOf(8), hash.put(new Collider(8), 8).get(new Collider(8)));
+        for (int i = 0; i < 4; i++) {
+            hash = hash.remove(new Collider(i));
+        }
+        assertTrue(hash.isEmpty());
+    }
 }
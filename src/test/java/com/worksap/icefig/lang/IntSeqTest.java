@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+
+import static org.junit.Assert.*;
+
+public class IntSeqTest {
+
+    @Test
+    public void testConstruction() {
+        assertEquals(0, Seqs.newIntSeq().size());
+        assertTrue(Seqs.newIntSeq().isEmpty());
+        int[] values = {1, 2, 3};
+        IntSeq seq = Seqs.newIntSeq(values);
+        values[0] = 100;
+        assertEquals(Seqs.newIntSeq(1, 2, 3), seq);
+        assertEquals(Seqs.newIntSeq(1, 2, 3).hashCode(), seq.hashCode());
+        assertEquals("[1, 2, 3]", seq.toString());
+        assertArrayEquals(new int[]{1, 2, 3}, seq.toArray());
+    }
+
+    @Test
+    public void testConversion() {
+        Seq<Integer> boxed = Seqs.newIntSeq(3, 1, 2).boxed();
+        assertEquals(Seqs.newSeq(3, 1, 2), boxed);
+        assertEquals(Seqs.newIntSeq(3, 1, 2), boxed.mapToInt(Integer::intValue));
+        assertEquals(Seqs.newLongSeq(3, 1, 2), Seqs.newMutableSeq("aaa", "b", "cc").mapToLong(String::length));
+        assertEquals(Seqs.newSeq("1", "2"), Seqs.newIntSeq(1, 2).mapToObj(String::valueOf));
+        assertEquals(6, Seqs.newIntSeq(1, 2, 3).stream().sum());
+        Helpers.assertThrows(NullPointerException.class, () -> Seqs.newSeq(1, null).mapToInt(Integer::intValue));
+    }
+
+    @Test
+    public void testGet() {
+        IntSeq seq = Seqs.newIntSeq(1, 2, 3);
+        assertEquals(1, seq.first());
+        assertEquals(3, seq.last());
+        assertEquals(3, seq.get(-1));
+        assertEquals(7, seq.get(3, 7));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-4));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> Seqs.newIntSeq().first());
+    }
+
+    @Test
+    public void testTransform() {
+        IntSeq seq = Seqs.newIntSeq(1, 2, 3);
+        assertEquals(Seqs.newIntSeq(2, 4, 6), seq.map(i -> i * 2));
+        assertEquals(Seqs.newIntSeq(1, 1, 2, 2, 3, 3), seq.flatMap(i -> Seqs.newIntSeq(i, i)));
+        assertEquals(Seqs.newIntSeq(2), seq.filter(i -> i % 2 == 0));
+        assertEquals(Seqs.newIntSeq(1, 3), seq.reject(i -> i % 2 == 0));
+        assertEquals(Seqs.newIntSeq(1), seq.filterWhile(i -> i < 2));
+        assertEquals(Seqs.newIntSeq(2, 3), seq.rejectWhile(i -> i < 2));
+        assertEquals(Seqs.newIntSeq(3, 2, 1), seq.reverse());
+        assertEquals(Seqs.newIntSeq(1, 2, 3, 1, 2, 3), seq.repeat(2));
+        assertEquals(Seqs.newIntSeq(1, 2, 3, 4, 5), seq.append(4, 5));
+        assertEquals(Seqs.newIntSeq(0, 1, 2, 3), seq.prepend(0));
+        assertEquals(Seqs.newIntSeq(1, 2, 3, 1, 2, 3), seq.append(seq));
+        assertEquals(Seqs.newIntSeq(2, 3), seq.subSeq(1, 3));
+        assertEquals(Seqs.newIntSeq(3, 2, 1), seq.swap(0, 2));
+        assertEquals(Seqs.newIntSeq(3, 1, 2), seq.rotate(1));
+        assertEquals(Seqs.newIntSeq(2, 3, 1), seq.rotate(-4));
+        assertEquals(Seqs.newIntSeq(1, 2, 3), seq);
+        assertEquals("1-2-3", seq.join("-").toString());
+        Helpers.assertThrows(IllegalArgumentException.class, () -> seq.repeat(0));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> seq.subSeq(2, 1));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> seq.subSeq(0, 4));
+    }
+
+    @Test
+    public void testAggregate() {
+        IntSeq seq = Seqs.newIntSeq(3, 1, 4, 1, 5, 9, 2, 6);
+        assertEquals(OptionalInt.of(9), seq.max());
+        assertEquals(OptionalInt.of(1), seq.min());
+        assertEquals(OptionalInt.empty(), Seqs.newIntSeq().max());
+        assertEquals(31, seq.sum());
+        assertEquals(4294967294L, Seqs.newIntSeq(Integer.MAX_VALUE, Integer.MAX_VALUE).sum());
+        assertEquals(OptionalInt.of(31), seq.reduce(Integer::sum));
+        assertEquals(32, seq.reduce(1, Integer::sum));
+        assertEquals(2, seq.count(1));
+        assertEquals(3, seq.countIf(i -> i % 2 == 0));
+        assertTrue(seq.any(i -> i > 8));
+        assertTrue(seq.all(i -> i > 0));
+        assertTrue(seq.none(i -> i > 9));
+        assertEquals(1, seq.indexOf(1));
+        assertEquals(3, seq.lastIndexOf(1));
+        assertEquals(-1, seq.indexOf(7));
+        assertTrue(seq.contains(9));
+        assertEquals(OptionalInt.of(4), seq.findFirst(i -> i % 2 == 0));
+        assertEquals(OptionalInt.of(6), seq.findLast(i -> i % 2 == 0));
+        assertEquals(-1, seq.findFirstIndex(i -> i > 9));
+    }
+
+    @Test
+    public void testSortAndDistinct() {
+        IntSeq seq = Seqs.newIntSeq(3, 1, 4, 1, 5, 9, 2, 6, 5, 3);
+        assertEquals(Seqs.newIntSeq(1, 1, 2, 3, 3, 4, 5, 5, 6, 9), seq.sort());
+        assertEquals(Seqs.newIntSeq(3, 1, 4, 5, 9, 2, 6), seq.distinct());
+        assertEquals(Seqs.newIntSeq(3, 1, 5, 3), seq.intersect(Seqs.newIntSeq(1, 3, 3, 5, 7)));
+        assertEquals(Seqs.newIntSeq(4, 1, 9, 2, 6, 5), seq.difference(Seqs.newIntSeq(1, 3, 3, 5, 7)));
+        assertEquals(Seqs.newIntSeq(), Seqs.newIntSeq().distinct());
+        assertEquals(seq.size(), seq.shuffle().sort().size());
+        assertEquals(seq.sort(), seq.shuffle().sort());
+        assertEquals(3, seq.sample(3).size());
+        assertTrue(seq.contains(seq.sample().getAsInt()));
+    }
+
+    @Test
+    public void testEachConsAndSlice() {
+        IntSeq seq = Seqs.newIntSeq(1, 2, 3, 4, 5);
+        assertEquals(Seqs.newSeq(Seqs.newIntSeq(1, 2), Seqs.newIntSeq(3, 4), Seqs.newIntSeq(5)), seq.eachSlice(2));
+        assertEquals(Seqs.newSeq(Seqs.newIntSeq(1, 2, 3), Seqs.newIntSeq(2, 3, 4), Seqs.newIntSeq(3, 4, 5)), seq.eachCons(3));
+        int[] count = {0};
+        seq.forEachCons(2, s -> count[0] += s.size());
+        assertEquals(8, count[0]);
+        Helpers.assertThrows(IllegalArgumentException.class, () -> seq.eachCons(0));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> seq.eachSlice(0));
+    }
+
+    @Test
+    public void testInPlace() {
+        MutableIntSeq seq = Seqs.newMutableIntSeq();
+        for (int i = 0; i < 100; i++) {
+            seq.appendInPlace(i);
+        }
+        assertEquals(100, seq.size());
+        seq.filterInPlace(i -> i < 5);
+        assertEquals(Seqs.newIntSeq(0, 1, 2, 3, 4), seq);
+        seq.prependInPlace(-2, -1).appendInPlace(5, 6).prependInPlace(-3);
+        assertEquals(Seqs.newIntSeq(-3, -2, -1, 0, 1, 2, 3, 4, 5, 6), seq);
+        seq.rejectWhileInPlace(i -> i < 0).filterWhileInPlace(i -> i < 4);
+        assertEquals(Seqs.newIntSeq(0, 1, 2, 3), seq);
+        seq.rotateInPlace(1).swapInPlace(0, 1).set(3, 9);
+        assertEquals(Seqs.newIntSeq(0, 3, 1, 9), seq);
+        seq.mapInPlace(i -> i % 3).sortInPlace().reverseInPlace();
+        assertEquals(Seqs.newIntSeq(1, 0, 0, 0), seq);
+        seq.distinctInPlace().repeatInPlace(3);
+        assertEquals(Seqs.newIntSeq(1, 0, 1, 0, 1, 0), seq);
+        seq.rejectInPlace(i -> i == 0);
+        assertEquals(Seqs.newIntSeq(1, 1, 1), seq);
+        seq.clear();
+        assertTrue(seq.isEmpty());
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> seq.set(0, 1));
+    }
+
+    @Test
+    public void testLongAndDoubleSeq() {
+        MutableLongSeq longs = Seqs.newMutableLongSeq(Long.MAX_VALUE, 1L, Long.MAX_VALUE);
+        assertEquals(Seqs.newLongSeq(Long.MAX_VALUE, 1L), longs.distinct());
+        assertEquals(Seqs.newSeq(Long.MAX_VALUE, 1L, Long.MAX_VALUE), longs.boxed());
+
+        DoubleSeq doubles = Seqs.newDoubleSeq(0.0, Double.NaN, -0.0, 1.5, Double.NaN);
+        assertEquals(Seqs.newDoubleSeq(0.0, Double.NaN, -0.0, 1.5), doubles.distinct());
+        assertEquals(Seqs.newSeq(0.0, Double.NaN, -0.0, 1.5, Double.NaN).distinct().size(), doubles.distinct().size());
+        assertEquals(1, doubles.indexOf(Double.NaN));
+        assertEquals(2, doubles.indexOf(-0.0));
+        assertEquals(OptionalDouble.of(Double.NaN), doubles.max());
+        assertEquals(OptionalDouble.of(-0.0), doubles.min());
+        assertEquals(3.0, Seqs.newDoubleSeq(1.5, 1.5).sum(), 0.0);
+    }
+
+    @Test
+    public void testIndexOfSubSeq() {
+        IntSeq seq = Seqs.newIntSeq(1, 2, 1, 2, 1, 3, 1, 2, 1, 2, 1);
+        assertEquals(2, seq.indexOfSubSeq(Seqs.newIntSeq(1, 2, 1, 3)));
+        assertEquals(6, seq.lastIndexOfSubSeq(Seqs.newIntSeq(1, 2, 1, 2)));
+        assertEquals(-1, seq.indexOfSubSeq(Seqs.newIntSeq(2, 2)));
+        assertEquals(-1, seq.lastIndexOfSubSeq(Seqs.newIntSeq(3, 3)));
+        assertEquals(0, seq.indexOfSubSeq(Seqs.newIntSeq()));
+        assertTrue(seq.containsSubSeq(Seqs.newIntSeq(3, 1)));
+        assertFalse(Seqs.newIntSeq().containsSubSeq(Seqs.newIntSeq(1)));
+        assertEquals(1, Seqs.newDoubleSeq(0.5, Double.NaN, 1.0).indexOfSubSeq(Seqs.newDoubleSeq(Double.NaN, 1.0)));
+        assertEquals(3, Seqs.newLongSeq(5, 5, 6, 5, 5).lastIndexOfSubSeq(Seqs.newLongSeq(5, 5)));
+        Helpers.assertThrows(NullPointerException.class, () -> seq.indexOfSubSeq(null));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LazySeqTest {
+
+    @Test
+    public void testSameAsEager() {
+        Seq<Integer> seq = Seqs.newSeq(3, 1, 4, 1, 5, 9, 2, 6, 5, 3);
+        assertEquals(seq.map(a -> a + 1).distinct().reverse().join(), seq.lazy().map(a -> a + 1).distinct().reverse().join());
+        assertEquals(seq.filter(a -> a > 2).map(a -> a * 2).reject(a -> a == 10), seq.lazy().filter(a -> a > 2).map(a -> a * 2).reject(a -> a == 10).toSeq());
+        assertEquals(seq.flatMap(a -> Seqs.newSeq(a, -a)), seq.lazy().flatMap(a -> Seqs.newSeq(a, -a)).toSeq());
+        assertEquals(seq.reduce(Integer::sum), seq.lazy().reduce(Integer::sum));
+        assertEquals(seq.join(",", "[", "]"), seq.lazy().join(",", "[", "]"));
+        assertEquals("0:3:1:2", seq.lazy().filter(a -> a < 4).distinct().reduce("0", (s, a) -> s + ":" + a));
+        assertNull(Seqs.<Integer>newSeq().lazy().reduce(Integer::sum));
+        assertEquals(7, seq.lazy().distinct().count());
+        assertEquals(Integer.valueOf(9), seq.lazy().reverse().findFirst(a -> a > 5 && a != 6));
+        assertNull(seq.lazy().findFirst(a -> a > 9));
+        assertTrue(seq.lazy().any(a -> a == 9));
+        assertTrue(seq.lazy().all(a -> a > 0));
+        assertTrue(seq.lazy().none(a -> a > 9));
+    }
+
+    @Test
+    public void testShortCircuit() {
+        List<Integer> visited = new ArrayList<>();
+        Seq<Integer> seq = Seqs.newSeq(1, 2, 3, 4, 5, 6);
+        LazySeq<Integer> lazy = seq.lazy().map(a -> {
+            visited.add(a);
+            return a * 10;
+        });
+        assertTrue(visited.isEmpty());
+
+        assertEquals(Integer.valueOf(30), lazy.findFirst(a -> a > 20));
+        assertEquals(Seqs.newSeq(1, 2, 3), Seqs.newSeq(visited));
+
+        visited.clear();
+        assertTrue(lazy.flatMap(a -> Seqs.newSeq(a, a)).any(a -> a == 20));
+        assertEquals(Seqs.newSeq(1, 2), Seqs.newSeq(visited));
+
+        visited.clear();
+        assertFalse(lazy.all(a -> a < 10));
+        assertEquals(Seqs.newSeq(1), Seqs.newSeq(visited));
+    }
+
+    @Test
+    public void testReevaluate() {
+        MutableSeq<Integer> seq = Seqs.newMutableSeq(1, 2, 2);
+        LazySeq<Integer> lazy = seq.lazy().distinct();
+        assertEquals(Seqs.newSeq(1, 2), lazy.toSeq());
+        seq.appendInPlace(3);
+        assertEquals(Seqs.newSeq(1, 2, 3), lazy.toSeq());
+        assertEquals(Seqs.newSeq(1, 2, 3), lazy.toSeq());
+
+        List<Integer> forEach = new ArrayList<>();
+        lazy.reverse().forEach(forEach::add);
+        assertEquals(Seqs.newSeq(3, 2, 1), Seqs.newSeq(forEach));
+
+        Helpers.assertThrows(NullPointerException.class, () -> lazy.map(null));
+        Helpers.assertThrows(NullPointerException.class, () -> lazy.filter(null));
+        Helpers.assertThrows(NullPointerException.class, () -> lazy.any(null));
+    }
+}
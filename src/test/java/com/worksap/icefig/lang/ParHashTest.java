@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParHashTest {
+
+    private static Map<Integer, Integer> numbers(int size) {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(i, (i * 7919) % 1000);
+        }
+        return map;
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int size : new int[]{0, 1, 1000, 12345}) {
+                Map<Integer, Integer> map = numbers(size);
+                for (Hash<Integer, Integer> hash : Arrays.asList(Hashes.newMutableHash(map), Hashes.newHash(map), Hashes.newConcurrentHash(map), Hashes.newBiHash(map))) {
+                    ParHash<Integer, Integer> par = hash.par(pool).withThreshold(100);
+                    assertEquals(hash.filter((k, v) -> v % 3 == 0), par.filter((k, v) -> v % 3 == 0));
+                    assertEquals(hash.reject((k, v) -> v % 3 == 0), par.reject((k, v) -> v % 3 == 0));
+                    assertEquals(hash.countIf((k, v) -> v > 500), par.countIf((k, v) -> v > 500));
+                    assertEquals(hash.containsAny((k, v) -> v == 999), par.containsAny((k, v) -> v == 999));
+                    assertFalse(par.containsAny((k, v) -> v > 1000));
+                    assertEquals(hash.keysOf(7).sort(Integer::compare), par.keysOf(7).sort(Integer::compare));
+                    assertEquals(hash.replaceAll((k, v) -> k + v), par.replaceAll((k, v) -> k + v));
+
+                    Hash<Integer, Integer> another = Hashes.newMutableHash(numbers(size / 2 + 50)).replaceAll((k, v) -> -v);
+                    assertEquals(hash.merge(another), par.merge(another));
+                    assertEquals(hash, par.merge(null));
+                    assertSame(hash.filter((k, v) -> true).getClass(), par.filter((k, v) -> true).getClass());
+                    assertSame(hash.replaceAll((k, v) -> v).getClass(), par.replaceAll((k, v) -> v).getClass());
+                    assertSame(hash.merge(another).getClass(), par.merge(another).getClass());
+
+                    AtomicInteger count = new AtomicInteger();
+                    par.forEach((k, v) -> count.incrementAndGet());
+                    assertEquals(hash.size(), count.get());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPersistentSplit() {
+        Hash<Integer, Integer> hash = Hashes.newHash(numbers(50000)).put(1 << 20, 0).put(1 << 25, 1).put(1 << 30, 2);
+        Set<Integer> seen = new HashSet<>();
+        Spliterator<Map.Entry<Integer, Integer>> first = ((ChampHash<Integer, Integer>) hash).spliterator();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(first.tryAdvance(entry -> assertTrue(seen.add(entry.getKey()))));
+        }
+        Deque<Spliterator<Map.Entry<Integer, Integer>>> parts = new ArrayDeque<>();
+        parts.push(first);
+        while (!parts.isEmpty()) {
+            Spliterator<Map.Entry<Integer, Integer>> part = parts.pop();
+            Spliterator<Map.Entry<Integer, Integer>> prefix = part.trySplit();
+            if (prefix != null) {
+                parts.push(part);
+                parts.push(prefix);
+            } else {
+                part.forEachRemaining(entry -> {
+                    assertTrue(seen.add(entry.getKey()));
+                    assertEquals(hash.get(entry.getKey()), entry.getValue());
+                });
+            }
+        }
+        assertEquals(hash.size(), seen.size());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(hash.size(), hash.par(pool).withThreshold(8).countIf((k, v) -> true));
+            assertTrue(hash.par(pool).withThreshold(8).containsAny((k, v) -> k == 1 << 30));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testNullsAndThreshold() {
+        MutableHash<Integer, Integer> hash = Hashes.newMutableHash(numbers(20000));
+        hash.putInPlace(null, null).putInPlace(-1, null);
+        assertEquals(Seqs.newSeq(-1, null), hash.par().keysOf(null).sort((a, b) -> a == null ? 1 : b == null ? -1 : a - b));
+        assertEquals(hash.filter((k, v) -> v == null), hash.par().filter((k, v) -> v == null));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> hash.par().withThreshold(0));
+        Helpers.assertThrows(NullPointerException.class, () -> hash.par().countIf(null));
+        Helpers.assertThrows(NullPointerException.class, () -> hash.par(null));
+    }
+}
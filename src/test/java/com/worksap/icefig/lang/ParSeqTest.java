@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParSeqTest {
+
+    private static Seq<Integer> numbers(int size) {
+        MutableSeq<Integer> seq = Seqs.newMutableSeq();
+        for (int i = 0; i < size; i++) {
+            seq.appendInPlace((i * 7919) % 1000);
+        }
+        return seq;
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Seq<Integer> seq : Arrays.asList(numbers(0), numbers(1), numbers(1000), Seqs.newSeq(numbers(12345).toArrayList()))) {
+                ParSeq<Integer> par = seq.par(pool).withThreshold(100);
+                assertEquals(seq.map(i -> i * 2), par.map(i -> i * 2));
+                assertEquals(seq.filter(i -> i % 3 == 0), par.filter(i -> i % 3 == 0));
+                assertEquals(seq.reject(i -> i % 3 == 0), par.reject(i -> i % 3 == 0));
+                assertEquals(seq.flatMap(i -> Seqs.newSeq(i, -i)), par.flatMap(i -> Seqs.newSeq(i, -i)));
+                assertEquals(seq.reduce(Integer::sum), par.reduce(Integer::sum));
+                assertEquals(seq.countIf(i -> i > 500), par.countIf(i -> i > 500));
+                assertEquals(seq.any(i -> i == 999), par.any(i -> i == 999));
+                assertEquals(seq.all(i -> i < 999), par.all(i -> i < 999));
+                assertEquals(seq.none(i -> i > 1000), par.none(i -> i > 1000));
+                assertEquals(seq.max(Comparator.naturalOrder()), par.max(Comparator.naturalOrder()));
+                assertEquals(seq.min(Comparator.naturalOrder()), par.min(Comparator.naturalOrder()));
+
+                AtomicInteger count = new AtomicInteger();
+                par.forEach(i -> count.incrementAndGet());
+                assertEquals(seq.size(), count.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOrderAndTies() {
+        Seq<String> seq = Seqs.newSeq("b", "a", "bb", "aa", "c");
+        ParSeq<String> par = seq.par().withThreshold(1);
+        assertEquals("babbaac", par.reduce(String::concat));
+        assertEquals(Optional.of("bb"), par.max(Comparator.comparing(String::length)));
+        assertEquals(Optional.of("b"), par.min(Comparator.comparing(String::length)));
+        assertNull(Seqs.<String>newSeq().par().reduce(String::concat));
+        assertEquals(Optional.empty(), Seqs.<String>newSeq().par().max(Comparator.naturalOrder()));
+
+        Helpers.assertThrows(IllegalArgumentException.class, () -> seq.par().withThreshold(0));
+        Helpers.assertThrows(NullPointerException.class, () -> seq.par(null));
+        Helpers.assertThrows(NullPointerException.class, () -> par.map(null));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2015 The Fig Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.worksap.icefig.lang;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveHashTest {
+    @Test
+    public void testIntObjHash() {
+        MutableIntObjHash<String> hash = Hashes.newMutableIntObjHash();
+        hash.putInPlace(1, "a").putInPlace(0, "zero").putInPlace(-5, null).putIfAbsentInPlace(1, "b");
+        assertEquals(3, hash.size());
+        assertEquals("a", hash.get(1));
+        assertEquals("zero", hash.get(0));
+        assertNull(hash.get(-5));
+        assertTrue(hash.containsKey(-5));
+        assertFalse(hash.containsKey(2));
+        assertEquals("x", hash.getOrDefault(2, "x"));
+        assertTrue(hash.containsValue(null));
+        assertTrue(hash.containsValue("zero"));
+        assertFalse(hash.containsValue("b"));
+        assertEquals(Seqs.newSeq(-5, 0, 1), hash.keys().boxed().sort(Integer::compare));
+
+        IntObjHash<String> copy = hash.remove(0).put(2, "b");
+        assertEquals(3, copy.size());
+        assertFalse(copy.containsKey(0));
+        assertTrue(hash.containsKey(0));
+        assertEquals(1, hash.countIf((k, v) -> v != null && v.length() > 1));
+        assertTrue(hash.containsAny((k, v) -> k < 0));
+        assertEquals(Hashes.newIntObjHash().put(1, "a"), hash.filter((k, v) -> k > 0));
+        assertEquals(Hashes.newIntObjHash().put(1, "a").put(0, "zero"), hash.reject((k, v) -> v == null));
+        assertEquals(hash.merge(copy), Hashes.<String>newMutableIntObjHash().putInPlace(-5, null).putInPlace(0, "zero").putInPlace(1, "a").putInPlace(2, "b"));
+        assertEquals(hash.merge(copy).hashCode(), Hashes.<String>newMutableIntObjHash().putInPlace(-5, null).putInPlace(0, "zero").putInPlace(1, "a").putInPlace(2, "b").hashCode());
+        assertEquals("{0=zero}", Hashes.newIntObjHash().put(0, "zero").toString());
+
+        hash.clear();
+        assertTrue(hash.isEmpty());
+        assertEquals(Seqs.newSeq(), hash.values());
+    }
+
+    @Test
+    public void testObjIntHash() {
+        MutableObjIntHash<String> counts = Hashes.newMutableObjIntHash();
+        for (String word : "a b a c b a".split(" ")) {
+            counts.addInPlace(word, 1);
+        }
+        counts.addInPlace(null, 2).addInPlace(null, 3);
+        assertEquals(4, counts.size());
+        assertEquals(3, counts.get("a"));
+        assertEquals(5, counts.get(null));
+        assertEquals(0, counts.get("z"));
+        assertEquals(-1, counts.getOrDefault("z", -1));
+        assertTrue(counts.containsValue(5));
+        assertEquals(Seqs.newSeq(1, 2, 3, 5), counts.values().boxed().sort(Integer::compare));
+
+        int[] sum = {0};
+        counts.forEach((k, v) -> sum[0] += v);
+        assertEquals(11, sum[0]);
+        assertEquals(2, counts.countIf((k, v) -> v > 2));
+        assertEquals(Hashes.newObjIntHash().put("b", 2).put("c", 1), counts.filter((k, v) -> k != null && v < 3));
+        counts.rejectInPlace((k, v) -> k == null).removeInPlace("c");
+        assertEquals(Hashes.newObjIntHash().put("a", 3).put("b", 2), counts);
+        assertNotEquals(Hashes.newObjIntHash().put("a", 3).put("b", 1), counts);
+    }
+
+    @Test
+    public void testLongLongHash() {
+        MutableLongLongHash hash = Hashes.newMutableLongLongHash(1000);
+        for (long i = 0; i < 1000; i++) {
+            hash.putInPlace(i << 32, i);
+        }
+        assertEquals(1000, hash.size());
+        assertEquals(999, hash.get(999L << 32));
+        assertEquals(0, hash.get(0));
+        assertTrue(hash.containsKey(0));
+        hash.filterInPlace((k, v) -> v % 2 == 0);
+        assertEquals(500, hash.size());
+        assertEquals(Seqs.newLongSeq(0, 2, 4), hash.keys().sort().subSeq(0, 3).map(k -> k >>> 32));
+        assertEquals(500, hash.merge(Hashes.newLongLongHash().put(2L << 32, 7)).size());
+        assertEquals(7, hash.merge(Hashes.newLongLongHash().put(2L << 32, 7)).get(2L << 32));
+        assertEquals(2, hash.get(2L << 32));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> Hashes.newMutableLongLongHash(-1));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(42);
+        MutableIntObjHash<Integer> hash = Hashes.newMutableIntObjHash();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int round = 0; round < 200_000; round++) {
+            // few distinct keys with colliding low bits, so that runs form and removals shift entries
+            int k = (random.nextInt(4096) - 2048) << 8;
+            int op = random.nextInt(10);
+            if (op < 5) {
+                hash.putInPlace(k, round);
+                expected.put(k, round);
+            } else if (op < 9) {
+                hash.removeInPlace(k);
+                expected.remove(k);
+            } else {
+                assertEquals(expected.get(k), hash.get(k));
+            }
+            if (round % 50_000 == 0) {
+                int threshold = round;
+                hash.filterInPlace((key, v) -> v % 3 != threshold % 3);
+                expected.values().removeIf(v -> v % 3 == threshold % 3);
+            }
+        }
+        assertEquals(expected.size(), hash.size());
+        expected.forEach((k, v) -> assertEquals(v, hash.get(k)));
+        hash.forEach((k, v) -> assertEquals(expected.get(k), v));
+
+        int[] calls = {0};
+        hash.filterInPlace((k, v) -> {
+            calls[0]++;
+            return k % 3 == 0;
+        });
+        assertEquals(expected.size(), calls[0]);
+        expected.keySet().removeIf(k -> k % 3 != 0);
+        assertEquals(expected.size(), hash.size());
+        expected.forEach((k, v) -> assertEquals(v, hash.get(k)));
+    }
+}
@@ -25,8 +25,12 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -170,8 +174,6 @@ public class RangeTest {
         assertThat(new Range<>(1).next(i -> i + 1).take(0), equalTo(Seqs.newMutableSeq()));
         assertThat(new Range<>(1).next(i -> i + 1).take(5), equalTo(Seqs.newMutableSeq(1, 2, 3, 4, 5)));
         assertThat(new Range<>(1).next(i -> i + 1).to(3).take(5), equalTo(Seqs.newMutableSeq(1, 2, 3)));
-
-        Helpers.assertThrows(UnsupportedOperationException.class, () -> new Range<>(1).spliterator());
     }
 
     @Test
@@ -191,4 +193,104 @@ public class RangeTest {
                 }), equalTo(Seqs.newMutableSeq(1, 2, 4, 8, 16, 32)));
         assertThat(indices, equalTo(Arrays.asList(0, 1, 2, 3, 4, 5, 6)));
     }
+
+    @Test
+    public void testIntRange() {
+        IntRange range = IntRange.of(2, 20, 3);
+        assertThat(range.size(), is(7));
+        assertThat(range.first(), is(2));
+        assertThat(range.last(), is(20));
+        assertThat(range.get(1), is(5));
+        assertThat(range.get(-1), is(20));
+        assertThat(range.contains(14), is(true));
+        assertThat(range.contains(15), is(false));
+        assertThat(range.contains(23), is(false));
+        assertThat(range.indexOf(11), is(3));
+        assertThat(range.subRange(2, 5), is(IntRange.of(8, 14, 3)));
+        assertThat(range.reverse(), is(IntRange.of(20, 2, -3)));
+        assertThat(range.toIntSeq(), is(Seqs.newIntSeq(2, 5, 8, 11, 14, 17, 20)));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> IntRange.of(2, 20, 3).get(7));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> IntRange.of(2, 20, 3).subRange(3, 8));
+
+        assertThat(IntRange.until(0, 10).size(), is(10));
+        assertThat(IntRange.until(0, 10, 5).toIntSeq(), is(Seqs.newIntSeq(0, 5)));
+        assertThat(IntRange.of(5, 1).toIntSeq(), is(Seqs.newIntSeq(5, 4, 3, 2, 1)));
+        assertThat(IntRange.of(1, 5, -1).isEmpty(), is(true));
+        assertThat(IntRange.until(3, 3).isEmpty(), is(true));
+        Helpers.assertThrows(NoSuchElementException.class, () -> IntRange.until(3, 3).first());
+        Helpers.assertThrows(IllegalArgumentException.class, () -> IntRange.of(1, 5, 0));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> IntRange.of(Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        IntRange wide = IntRange.of(Integer.MIN_VALUE, Integer.MAX_VALUE, 1 << 16);
+        assertThat(wide.size(), is(1 << 16));
+        assertThat(wide.last(), is(Integer.MAX_VALUE - (1 << 16) + 1));
+        assertThat(wide.contains(0), is(true));
+
+        int[] sum = {0};
+        range.forEach((int i) -> sum[0] += i);
+        assertThat(sum[0], is(77));
+
+        Seq<Integer> seq = range.asSeq();
+        assertThat(seq, is(Seqs.newSeq(2, 5, 8, 11, 14, 17, 20)));
+        assertThat(seq.contains(17), is(true));
+        assertThat(seq.indexOf(17), is(5));
+        assertThat(seq.map(i -> i * 2).get(2), is(16));
+        assertThat(IntRange.until(0, 1_000_000_000).asSeq().get(999_999_999), is(999_999_999));
+    }
+
+    @Test
+    public void testLongRange() {
+        LongRange range = LongRange.of(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+        assertThat(range.size(), is(3));
+        assertThat(range.last(), is(Long.MAX_VALUE - 1));
+        assertThat(range.contains(-1L), is(true));
+        assertThat(range.contains(0L), is(false));
+        assertThat(range.indexOf(Long.MAX_VALUE - 1), is(2));
+
+        LongRange descending = LongRange.of(Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE);
+        assertThat(descending.size(), is(2));
+        assertThat(descending.toLongSeq(), is(Seqs.newLongSeq(Long.MAX_VALUE, -1L)));
+
+        assertThat(LongRange.until(0L, 10_000_000_000L, 1_000_000_000L).asSeq().get(9), is(9_000_000_000L));
+        assertThat(LongRange.until(10L, 0L, -4L), is(LongRange.of(10L, 2L, -4L)));
+        assertThat(LongRange.of(1L, 1L, 5L), is(LongRange.of(1L, 1L, -7L)));
+        assertThat(LongRange.of(1L, 1L, 5L).hashCode(), is(LongRange.of(1L, 1L, -7L).hashCode()));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> LongRange.of(0L, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testSplitAndParallelForEach() {
+        Range<Integer> range = new Range<>(1, 100_000, i -> i + 1);
+        assertThat(StreamSupport.stream(range.spliterator(), false).mapToLong(i -> i).sum(), is(5_000_050_000L));
+        assertThat(StreamSupport.stream(range.spliterator(), true).mapToLong(i -> i).sum(), is(5_000_050_000L));
+        assertThat(StreamSupport.stream(new Range<>(1).next(i -> i * 2).spliterator(), false).limit(4).collect(Collectors.toList()),
+                equalTo(Arrays.asList(1, 2, 4, 8)));
+        Helpers.assertThrows(NullPointerException.class, () -> new Range<>(1).spliterator());
+
+        LongAdder sum = new LongAdder();
+        range.parallelForEach(sum::add);
+        assertThat(sum.sum(), is(5_000_050_000L));
+        Helpers.assertThrows(NullPointerException.class, () -> range.parallelForEach(null));
+
+        Spliterator.OfInt spliterator = IntRange.until(0, 10).spliterator();
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED), is(true));
+        Spliterator.OfInt prefix = spliterator.trySplit();
+        assertThat(prefix.estimateSize(), is(5L));
+        assertThat(spliterator.estimateSize(), is(5L));
+        List<Integer> elements = new ArrayList<>();
+        prefix.forEachRemaining((int i) -> elements.add(i));
+        assertThat(elements, equalTo(Arrays.asList(0, 1, 2, 3, 4)));
+        assertThat(spliterator.tryAdvance((int i) -> elements.add(i)), is(true));
+        assertThat(elements.get(5), is(5));
+        assertThat(IntRange.until(0, 1).spliterator().trySplit() == null, is(true));
+
+        assertThat(IntRange.of(1, 100_000).stream().parallel().asLongStream().sum(), is(5_000_050_000L));
+        assertThat(LongRange.of(10L, 1L, -3L).stream().boxed().collect(Collectors.toList()), equalTo(Arrays.asList(10L, 7L, 4L, 1L)));
+        LongAdder longSum = new LongAdder();
+        LongRange.of(1L, 100_000L).parallelForEach(longSum::add);
+        assertThat(longSum.sum(), is(5_000_050_000L));
+        LongAdder intSum = new LongAdder();
+        IntRange.of(100_000, 1).parallelForEach(intSum::add);
+        assertThat(intSum.sum(), is(5_000_050_000L));
+    }
 }
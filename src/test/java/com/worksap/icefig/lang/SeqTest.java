@@ -19,6 +19,8 @@ package com.worksap.icefig.lang;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.*;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -157,6 +159,51 @@ public class SeqTest {
         assertFalse(Seqs.newSeq(1, 2, 3).none(i -> i > 1));
     }
 
+    @Test
+    public void testSubSeqSearcher() {
+        Random random = new Random(5);
+        for (int round = 0; round < 300; round++) {
+            List<Object> text = new ArrayList<>();
+            List<Object> pattern = new ArrayList<>();
+            for (int i = random.nextInt(60); i > 0; i--) {
+                text.add(randomElement(random, round));
+            }
+            for (int i = random.nextInt(6); i > 0; i--) {
+                pattern.add(randomElement(random, round));
+            }
+            int expected = Collections.indexOfSubList(text, pattern);
+            int expectedLast = pattern.isEmpty() ? 0 : Collections.lastIndexOfSubList(text, pattern);
+            SubSeqSearcher<Object> searcher = SubSeqSearcher.of(Seqs.newSeq(pattern));
+            for (Seq<Object> seq : Arrays.asList(Seqs.newSeq(text), Seqs.newSeq(text).map(a -> a), VectorSeq.of(text.toArray()),
+                    Seqs.newSeq(text).prepend("x").append("y").subSeq(1, text.size() + 1))) {
+                assertEquals(expected, searcher.indexIn(seq));
+                assertEquals(expectedLast, searcher.lastIndexIn(seq));
+                assertEquals(expected, seq.indexOfSubSeq(Seqs.newSeq(pattern)));
+                assertEquals(expectedLast, seq.lastIndexOfSubSeq(Seqs.newSeq(pattern)));
+                SubSeqSearcher<Object> backward = SubSeqSearcher.of(Seqs.newSeq(pattern));
+                assertEquals(expectedLast, backward.lastIndexIn(seq));
+                assertEquals(expected, backward.indexIn(seq));
+            }
+            if (expected >= 0 && !pattern.isEmpty()) {
+                int next = Collections.indexOfSubList(text.subList(expected + 1, text.size()), pattern);
+                assertEquals(next < 0 ? -1 : expected + 1 + next, searcher.indexIn(Seqs.newSeq(text), expected + 1));
+            }
+        }
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> SubSeqSearcher.of(Seqs.newSeq(1)).indexIn(Seqs.newSeq(1), 2));
+        Helpers.assertThrows(NullPointerException.class, () -> SubSeqSearcher.of(null));
+    }
+
+    /**
+     * Strings and nulls for the Sunday search, and lists (whose hash codes are not cheap) for the KMP search.
+     */
+    private static Object randomElement(Random random, int round) {
+        int value = random.nextInt(3);
+        if (value == 0) {
+            return null;
+        }
+        return round % 2 == 0 ? String.valueOf(value) : Collections.singletonList(value);
+    }
+
     @Test
     public void testContainSubSeq() {
         assertTrue(Seqs.newSeq('B', 'B', 'C', ' ', 'A', 'B', 'C', 'D', 'A', 'B', ' ', 'A', 'B', 'C', 'D', 'A', 'B', 'C', 'D', 'A', 'B', 'D', 'E')
@@ -753,4 +800,208 @@ public class SeqTest {
         seq.rotateInPlace(-2);
         assertThat(seq, equalTo(Seqs.newMutableSeq(3, 4, 5, 1, 2)));
     }
+
+    @Test
+    public void testPersistentSeq() {
+        Seq<Integer> seq = Seqs.newSeq();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Seq<Integer> previous = seq;
+            if (i % 3 == 0) {
+                seq = seq.prepend(i);
+                expected.add(0, i);
+            } else {
+                seq = seq.append(i);
+                expected.add(i);
+            }
+            assertEquals(i, previous.size());
+        }
+        assertEquals(Seqs.newMutableSeq(expected), seq);
+        assertEquals(seq, Seqs.newMutableSeq(expected));
+        assertEquals(Seqs.newMutableSeq(expected).hashCode(), seq.hashCode());
+        assertEquals(expected.get(1500), seq.get(1500));
+        assertEquals(expected.get(expected.size() - 1), seq.get(-1));
+
+        Seq<Integer> small = Seqs.newSeq(1, 2, 3);
+        assertThat(small.append(4, 5).prepend(0), equalTo(Seqs.newSeq(0, 1, 2, 3, 4, 5)));
+        assertThat(small.prepend(Seqs.newSeq(-1, 0)), equalTo(Seqs.newSeq(-1, 0, 1, 2, 3)));
+        assertThat(small.swap(0, -1), equalTo(Seqs.newSeq(3, 2, 1)));
+        assertThat(small.prepend(0).reverse(), equalTo(Seqs.newSeq(3, 2, 1, 0)));
+        assertThat(small, equalTo(Seqs.newSeq(1, 2, 3)));
+        assertThat(small.toString(), is("[1, 2, 3]"));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> small.get(3));
+        Helpers.assertThrows(IllegalArgumentException.class, () -> small.subSeq(2, 1));
+    }
+
+    @Test
+    public void testSubSeqViews() {
+        MutableSeq<Integer> seq = Seqs.newMutableSeq(1, 2, 3, 4, 5);
+        MutableSeq<MutableSeq<Integer>> cons = seq.eachCons(2);
+        MutableSeq<MutableSeq<Integer>> slices = seq.eachSlice(2);
+        seq.set(0, 0).appendInPlace(6);
+        assertEquals(Seqs.newMutableSeq(1, 2), cons.first());
+        assertEquals(Seqs.newMutableSeq(5), slices.last());
+
+        cons.first().appendInPlace(9);
+        assertEquals(Seqs.newMutableSeq(1, 2, 9), cons.first());
+        assertEquals(Seqs.newMutableSeq(2, 3), cons.get(1));
+        assertEquals(Seqs.newMutableSeq(1, 2), slices.first());
+
+        Seq<Integer> persistent = Seqs.newSeq(1, 2, 3, 4, 5).prepend(0);
+        Seq<Integer> sub = persistent.subSeq(1, 4);
+        assertEquals(Seqs.newSeq(1, 2, 3), sub);
+        assertEquals(Seqs.newSeq(2, 3), sub.subSeq(1, 3));
+        assertEquals(Seqs.newSeq(1, 2, 3, 4), sub.append(4));
+        assertEquals(Seqs.newSeq(1, 2, 3), sub);
+        assertFalse(sub instanceof MutableSeq);
+        assertEquals(Seqs.newSeq(7, 1, 2), sub.prepend(7).subSeq(0, 3));
+        assertEquals(Seqs.newSeq(1, 2, 3), sub);
+        assertEquals(Seqs.newSeq(0, 1, 2, 3, 4, 5), persistent);
+        assertFalse(persistent.filterWhile(i -> i < 3) instanceof MutableSeq);
+        assertFalse(persistent.rejectWhile(i -> i < 3) instanceof MutableSeq);
+        assertFalse(persistent.sample(2) instanceof MutableSeq);
+        assertFalse(persistent.eachCons(2).first() instanceof MutableSeq);
+        assertFalse(persistent.eachSlice(4).last() instanceof MutableSeq);
+        assertEquals(Seqs.newSeq(4, 5), persistent.eachSlice(4).last());
+
+        List<Seq<Integer>> windows = new ArrayList<>();
+        persistent.forEachCons(3, windows::add);
+        assertEquals(4, windows.size());
+        assertEquals(Seqs.newSeq(3, 4, 5), windows.get(3));
+        Helpers.assertThrows(IndexOutOfBoundsException.class, () -> persistent.subSeq(0, 7));
+    }
+
+    @Test
+    public void testPersistentWindows() {
+        // 40 prepended and 60 appended elements, so that the windows cross both vectors and their leaves
+        Seq<Integer> seq = Seqs.newSeq();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            seq = seq.append(i);
+            expected.add(i);
+        }
+        for (int i = -1; i >= -40; i--) {
+            seq = seq.prepend(i);
+            expected.add(0, i);
+        }
+        for (int from = 0; from <= expected.size(); from += 7) {
+            for (int to = from; to <= expected.size(); to += 5) {
+                List<Integer> window = expected.subList(from, to);
+                Seq<Integer> sub = seq.subSeq(from, to);
+                assertEquals(window, sub.toArrayList());
+                assertEquals(window, Arrays.asList(sub.toArray()));
+                assertEquals(Seqs.newSeq(window), sub);
+                List<Integer> reversed = new ArrayList<>(window);
+                Collections.reverse(reversed);
+                assertEquals(Seqs.newSeq(reversed), sub.reverse());
+
+                List<Integer> appended = new ArrayList<>(window);
+                appended.add(100);
+                assertEquals(Seqs.newSeq(appended), sub.append(100));
+                List<Integer> prepended = new ArrayList<>(window);
+                prepended.add(0, 100);
+                assertEquals(Seqs.newSeq(prepended), sub.prepend(100));
+                if (window.size() > 1) {
+                    assertEquals(window.get(1), sub.swap(0, 1).get(0));
+                    assertEquals(Seqs.newSeq(window.subList(1, window.size() - 1)), sub.subSeq(1, window.size() - 1));
+                    assertEquals(Seqs.newSeq(window.subList(1, window.size())), sub.reverse().subSeq(0, window.size() - 1).reverse());
+                }
+            }
+        }
+        assertEquals(expected, seq.toArrayList());
+
+        Seq<Integer> middle = seq.subSeq(30, 50);
+        List<Seq<Integer>> cons = new ArrayList<>();
+        middle.forEachCons(15, cons::add);
+        assertEquals(6, cons.size());
+        assertEquals(Seqs.newSeq(expected.subList(35, 50)), cons.get(5));
+        assertEquals(cons, middle.eachCons(15).toArrayList());
+        List<Seq<Integer>> slices = new ArrayList<>();
+        middle.forEachSlice(8, slices::add);
+        assertEquals(Seqs.newSeq(expected.subList(46, 50)), slices.get(2));
+        assertEquals(slices, middle.eachSlice(8).toArrayList());
+    }
+
+    @Test
+    public void testCombinationViewAndIndices() {
+        Seq<Integer> seq = Seqs.newSeq(1, 2, 3, 4, 5);
+        Set<Seq<Integer>> expected = new HashSet<>(seq.eachCombination(3).toArrayList());
+
+        Set<Seq<Integer>> viewed = new HashSet<>();
+        Set<Seq<Integer>> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        seq.forEachCombinationView(3, c -> {
+            instances.add(c);
+            viewed.add(Seqs.newSeq(c.toArrayList()));
+        });
+        assertEquals(expected, viewed);
+        assertEquals(1, instances.size());
+
+        Set<List<Integer>> indices = new HashSet<>();
+        seq.forEachCombinationIndices(2, comb -> indices.add(Arrays.asList(comb[0], comb[1])));
+        assertEquals(10, indices.size());
+        assertTrue(indices.contains(Arrays.asList(0, 4)));
+
+        List<Seq<Integer>> changed = new ArrayList<>();
+        Seqs.newMutableSeq(1, 2, 3).forEachCombinationView(2, c -> {
+            ((MutableSeq<Integer>) c).appendInPlace(0);
+            changed.add(Seqs.newSeq(c.toArrayList()));
+        });
+        assertEquals(Seqs.newSeq(Seqs.newSeq(1, 2, 0), Seqs.newSeq(1, 3, 0), Seqs.newSeq(2, 3, 0)), Seqs.newSeq(changed));
+
+        Helpers.assertThrows(IllegalArgumentException.class, () -> seq.forEachCombinationIndices(0, comb -> {}));
+        Helpers.assertThrows(NullPointerException.class, () -> seq.forEachCombinationView(1, null));
+    }
+
+    @Test
+    public void testParallelCombination() {
+        Seq<Integer> seq = Seqs.newSeq();
+        for (int i = 0; i < 20; i++) {
+            seq = seq.append(i);
+        }
+        assertEquals(seq.eachCombination(4), seq.parallelEachCombination(4));
+        assertEquals(Seqs.newMutableSeq(1, 2, 3).eachCombination(2), Seqs.newMutableSeq(1, 2, 3).parallelEachCombination(2));
+        assertEquals(Seqs.newSeq(), seq.parallelEachCombination(21));
+
+        Set<Seq<Integer>> visited = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        AtomicInteger count = new AtomicInteger();
+        seq.parallelForEachCombination(5, c -> {
+            visited.add(c);
+            count.incrementAndGet();
+        });
+        assertEquals(15504, count.get());
+        assertEquals(new HashSet<>(seq.eachCombination(5).toArrayList()), visited);
+
+        int[] comb = new int[3];
+        long[][] binomials = Combinations.binomials(8, 3);
+        long[] rank = {0};
+        Combinations.forEach(8, 3, c -> {
+            Combinations.unrank(binomials, 8, rank[0]++, comb);
+            assertArrayEquals(c, comb);
+        });
+        assertEquals(56, rank[0]);
+
+        // the intermediate binomials of 70 elements overflow long, while the counts near size are small
+        Seq<Integer> large = Seqs.newSeq();
+        for (int i = 0; i < 70; i++) {
+            large = large.append(i);
+        }
+        assertEquals(70, large.parallelEachCombination(69).size());
+        assertEquals(large.eachCombination(69), large.parallelEachCombination(69));
+        assertEquals(large.eachCombination(68), large.parallelEachCombination(68));
+        AtomicInteger largeCount = new AtomicInteger();
+        large.parallelForEachCombination(67, c -> largeCount.incrementAndGet());
+        assertEquals(54740, largeCount.get());
+        long[][] largeBinomials = Combinations.binomials(70, 68);
+        long[] largeRank = {0};
+        int[] largeComb = new int[68];
+        Combinations.forEach(70, 68, c -> {
+            Combinations.unrank(largeBinomials, 70, largeRank[0]++, largeComb);
+            assertArrayEquals(c, largeComb);
+        });
+        assertEquals(2415, largeRank[0]);
+        Helpers.assertThrows(ArithmeticException.class, () -> Combinations.binomials(70, 35));
+
+        Helpers.assertThrows(IllegalArgumentException.class, () -> Seqs.newSeq(1, 2).parallelEachCombination(0));
+        Helpers.assertThrows(NullPointerException.class, () -> Seqs.newSeq(1, 2).parallelForEachCombination(1, null));
+    }
 }